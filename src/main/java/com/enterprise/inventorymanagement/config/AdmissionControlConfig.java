@@ -0,0 +1,59 @@
+package com.enterprise.inventorymanagement.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+
+/**
+ * Sheds and queues requests by {@link RequestPriority} while the connection pools are under pressure,
+ * see {@link AdmissionControlInterceptor}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.admission.enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionControlConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<AdmissionControlInterceptor> interceptor;
+
+    public AdmissionControlConfig(ObjectProvider<AdmissionControlInterceptor> interceptor) {
+        this.interceptor = interceptor;
+    }
+
+    @Bean
+    public ConnectionPoolPressure connectionPoolPressure(
+            ObjectProvider<HikariDataSource> pools,
+            MeterRegistry registry,
+            @Value("${app.admission.pool.high-wait:100ms}") Duration highWait,
+            @Value("${app.admission.pool.overloaded-wait:1s}") Duration overloadedWait,
+            @Value("${app.admission.pool.high-saturation:0.9}") double highSaturation) {
+        return new ConnectionPoolPressure(pools.orderedStream().toList(), registry,
+                highWait, overloadedWait, highSaturation);
+    }
+
+    @Bean
+    public AdmissionControlInterceptor admissionControlInterceptor(
+            ConnectionPoolPressure pressure,
+            MeterRegistry registry,
+            @Value("${app.admission.read.max-concurrent:4}") int readLimit,
+            @Value("${app.admission.mutation.max-concurrent:8}") int mutationLimit,
+            @Value("${app.admission.max-queued:50}") int maxQueued,
+            @Value("${app.admission.queue-timeout:500ms}") Duration queueTimeout,
+            @Value("${app.admission.retry-after:2s}") Duration retryAfter) {
+        return new AdmissionControlInterceptor(pressure, readLimit, mutationLimit, maxQueued,
+                queueTimeout, retryAfter, registry);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // Ahead of the statement budget and everything else that may touch the database
+        registry.addInterceptor(interceptor.getObject()).order(Ordered.HIGHEST_PRECEDENCE);
+    }
+}
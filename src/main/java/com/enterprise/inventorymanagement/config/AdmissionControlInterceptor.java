@@ -0,0 +1,199 @@
+package com.enterprise.inventorymanagement.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Admits controller calls according to their {@link RequestPriority} and the current
+ * {@link ConnectionPoolPressure}. Reads are limited to a few in flight while the pool is under pressure
+ * and shed once it is overloaded; mutations are only limited once it is overloaded. A request over its
+ * limit waits briefly for a slot and is otherwise answered at once with 503 and Retry-After, instead of
+ * holding a servlet thread until the connection timeout.
+ */
+public class AdmissionControlInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String ADMITTED_ATTRIBUTE = AdmissionControlInterceptor.class.getName() + ".admitted";
+    private static final long RECHECK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private final ConnectionPoolPressure pressure;
+    private final Map<RequestPriority, Gate> gates = new EnumMap<>(RequestPriority.class);
+    private final int readLimit;
+    private final int mutationLimit;
+    private final int maxQueued;
+    private final long queueTimeoutNanos;
+    private final String retryAfterSeconds;
+    private final MeterRegistry registry;
+
+    public AdmissionControlInterceptor(ConnectionPoolPressure pressure, int readLimit, int mutationLimit,
+                                       int maxQueued, Duration queueTimeout, Duration retryAfter,
+                                       MeterRegistry registry) {
+        this.pressure = pressure;
+        this.readLimit = readLimit;
+        this.mutationLimit = mutationLimit;
+        this.maxQueued = maxQueued;
+        this.queueTimeoutNanos = queueTimeout.toNanos();
+        this.retryAfterSeconds = String.valueOf(Math.max(1, (retryAfter.toMillis() + 999) / 1000));
+        this.registry = registry;
+        gates.put(RequestPriority.MUTATION, new Gate(RequestPriority.MUTATION));
+        gates.put(RequestPriority.READ, new Gate(RequestPriority.READ));
+        gates.forEach((priority, gate) -> Gauge.builder("admission.in.flight", gate, Gate::getInFlight)
+                .tag("priority", priority.name().toLowerCase())
+                .register(registry));
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException {
+        // Async dispatches finish a request that was admitted already
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        RequestPriority priority = priority(request, handler);
+        Gate gate = gates.get(priority);
+        if (gate == null) {
+            return true;
+        }
+        if (gate.enter()) {
+            request.setAttribute(ADMITTED_ATTRIBUTE, gate);
+            return true;
+        }
+        registry.counter("admission.rejected", "priority", priority.name().toLowerCase(),
+                "pressure", pressure.getLevel().name().toLowerCase()).increment();
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.getWriter().write("Service is busy, please retry shortly");
+        return false;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object gate = request.getAttribute(ADMITTED_ATTRIBUTE);
+        if (gate != null) {
+            request.removeAttribute(ADMITTED_ATTRIBUTE);
+            ((Gate) gate).exit();
+        }
+    }
+
+    public int getInFlight(RequestPriority priority) {
+        Gate gate = gates.get(priority);
+        return gate == null ? 0 : gate.getInFlight();
+    }
+
+    private int limit(RequestPriority priority) {
+        ConnectionPoolPressure.Level level = pressure.getLevel();
+        if (priority == RequestPriority.READ) {
+            return switch (level) {
+                case NORMAL -> Integer.MAX_VALUE;
+                case HIGH -> readLimit;
+                case OVERLOADED -> 0;
+            };
+        }
+        return level == ConnectionPoolPressure.Level.OVERLOADED ? mutationLimit : Integer.MAX_VALUE;
+    }
+
+    private static RequestPriority priority(HttpServletRequest request, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod)
+                || !AnnotatedElementUtils.hasAnnotation(handlerMethod.getBeanType(), Controller.class)) {
+            return RequestPriority.CRITICAL;
+        }
+        AdmissionPriority priority = handlerMethod.getMethodAnnotation(AdmissionPriority.class);
+        if (priority == null) {
+            priority = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getBeanType(), AdmissionPriority.class);
+        }
+        if (priority != null) {
+            return priority.value();
+        }
+        String method = request.getMethod();
+        return "GET".equals(method) || "HEAD".equals(method) ? RequestPriority.READ : RequestPriority.MUTATION;
+    }
+
+    /**
+     * Counts the requests of one class in flight and lets a bounded number wait for a slot.
+     */
+    private final class Gate {
+
+        private final RequestPriority priority;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition released = lock.newCondition();
+        private volatile int inFlight;
+        private int waiting;
+
+        Gate(RequestPriority priority) {
+            this.priority = priority;
+        }
+
+        boolean enter() {
+            lock.lock();
+            try {
+                int limit = limit(priority);
+                if (inFlight < limit) {
+                    inFlight++;
+                    return true;
+                }
+                if (limit == 0 || waiting >= maxQueued || queueTimeoutNanos <= 0) {
+                    return false;
+                }
+                waiting++;
+                try {
+                    long deadline = System.nanoTime() + queueTimeoutNanos;
+                    while (true) {
+                        long remaining = deadline - System.nanoTime();
+                        if (remaining <= 0) {
+                            return false;
+                        }
+                        // Wake up now and then as well: the limit rises when the pressure drops
+                        released.awaitNanos(Math.min(remaining, RECHECK_NANOS));
+                        limit = limit(priority);
+                        if (limit == 0) {
+                            return false;
+                        }
+                        if (inFlight < limit) {
+                            inFlight++;
+                            return true;
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                } finally {
+                    waiting--;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void exit() {
+            lock.lock();
+            try {
+                inFlight--;
+                released.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int getInFlight() {
+            return inFlight;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.enterprise.inventorymanagement.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Admission class of the annotated endpoint. Endpoints without it are {@link RequestPriority#READ}
+ * for GET and HEAD and {@link RequestPriority#MUTATION} otherwise.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface AdmissionPriority {
+
+    RequestPriority value();
+}
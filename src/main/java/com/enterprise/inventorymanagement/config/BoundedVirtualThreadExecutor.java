@@ -0,0 +1,64 @@
+package com.enterprise.inventorymanagement.config;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs each task on its own thread from the delegate, but lets at most {@code maxConcurrency}
+ * of them past the gate at once. Tasks over the limit park on the semaphore, which is cheap for
+ * virtual threads, instead of all contending for a database connection.
+ */
+public class BoundedVirtualThreadExecutor implements Executor {
+
+    private final ExecutorService delegate;
+    private final Semaphore permits;
+    private final int maxConcurrency;
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    public BoundedVirtualThreadExecutor(ExecutorService delegate, int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency must be at least 1");
+        }
+        this.delegate = delegate;
+        this.permits = new Semaphore(maxConcurrency, true);
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        delegate.execute(() -> {
+            waiting.incrementAndGet();
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                waiting.decrementAndGet();
+            }
+            try {
+                task.run();
+            } finally {
+                permits.release();
+            }
+        });
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public int getActiveCount() {
+        return maxConcurrency - permits.availablePermits();
+    }
+
+    public int getWaitingCount() {
+        return waiting.get();
+    }
+
+    public void shutdown() {
+        delegate.shutdown();
+    }
+}
@@ -0,0 +1,139 @@
+package com.enterprise.inventorymanagement.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Samples the Hikari pools for active-connection saturation, threads waiting for a connection and
+ * the mean connection acquire time since the previous sample, and folds them into a {@link Level}.
+ * The most pressured pool decides.
+ */
+public class ConnectionPoolPressure implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConnectionPoolPressure.class);
+
+    public enum Level {
+        NORMAL, HIGH, OVERLOADED
+    }
+
+    private record AcquireTotals(long count, double totalNanos) {
+    }
+
+    private final List<HikariDataSource> pools;
+    private final MeterRegistry registry;
+    private final double highWaitMillis;
+    private final double overloadedWaitMillis;
+    private final double highSaturation;
+    private final Map<String, AcquireTotals> lastAcquireTotals = new HashMap<>();
+
+    private volatile Level level = Level.NORMAL;
+    private volatile double saturation;
+    private volatile int awaitingConnection;
+    private volatile double acquireMillis;
+
+    public ConnectionPoolPressure(List<HikariDataSource> pools, MeterRegistry registry,
+                                  Duration highWait, Duration overloadedWait, double highSaturation) {
+        this.pools = pools;
+        this.registry = registry;
+        this.highWaitMillis = highWait.toMillis();
+        this.overloadedWaitMillis = overloadedWait.toMillis();
+        this.highSaturation = highSaturation;
+    }
+
+    @Scheduled(fixedDelayString = "${app.admission.sample-interval-ms:250}")
+    public synchronized void sample() {
+        Level worst = Level.NORMAL;
+        double maxSaturation = 0;
+        int maxAwaiting = 0;
+        double maxAcquireMillis = 0;
+        for (HikariDataSource pool : pools) {
+            HikariPoolMXBean bean = pool.getHikariPoolMXBean();
+            if (bean == null) {
+                // Not started yet
+                continue;
+            }
+            int maxSize = pool.getMaximumPoolSize();
+            double poolSaturation = (double) bean.getActiveConnections() / maxSize;
+            int awaiting = bean.getThreadsAwaitingConnection();
+            double poolAcquireMillis = acquireMillisSinceLastSample(pool.getPoolName());
+
+            Level poolLevel = Level.NORMAL;
+            if (poolAcquireMillis >= overloadedWaitMillis || awaiting >= maxSize) {
+                poolLevel = Level.OVERLOADED;
+            } else if (poolAcquireMillis >= highWaitMillis || poolSaturation >= highSaturation || awaiting > 0) {
+                poolLevel = Level.HIGH;
+            }
+            if (poolLevel.compareTo(worst) > 0) {
+                worst = poolLevel;
+            }
+            maxSaturation = Math.max(maxSaturation, poolSaturation);
+            maxAwaiting = Math.max(maxAwaiting, awaiting);
+            maxAcquireMillis = Math.max(maxAcquireMillis, poolAcquireMillis);
+        }
+
+        if (worst != level) {
+            logger.info("Connection pool pressure {} -> {} (saturation {}, {} waiting, acquire {}ms)",
+                    level, worst, String.format("%.2f", maxSaturation), maxAwaiting,
+                    String.format("%.1f", maxAcquireMillis));
+        }
+        saturation = maxSaturation;
+        awaitingConnection = maxAwaiting;
+        acquireMillis = maxAcquireMillis;
+        level = worst;
+    }
+
+    public Level getLevel() {
+        return level;
+    }
+
+    public double getSaturation() {
+        return saturation;
+    }
+
+    public int getAwaitingConnection() {
+        return awaitingConnection;
+    }
+
+    public double getAcquireMillis() {
+        return acquireMillis;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("admission.pool.pressure", this, pressure -> pressure.getLevel().ordinal())
+                .description("0 normal, 1 high, 2 overloaded")
+                .register(registry);
+        Gauge.builder("admission.pool.acquire", this, ConnectionPoolPressure::getAcquireMillis)
+                .description("Mean connection acquire time over the last sample")
+                .baseUnit("milliseconds")
+                .register(registry);
+    }
+
+    // Hikari records acquire times in a Micrometer timer when a registry is bound to the pool
+    private double acquireMillisSinceLastSample(String poolName) {
+        Timer timer = registry == null ? null
+                : registry.find("hikaricp.connections.acquire").tag("pool", poolName).timer();
+        if (timer == null) {
+            return 0;
+        }
+        AcquireTotals current = new AcquireTotals(timer.count(), timer.totalTime(TimeUnit.NANOSECONDS));
+        AcquireTotals previous = lastAcquireTotals.put(poolName, current);
+        if (previous == null || current.count() <= previous.count()) {
+            return 0;
+        }
+        return (current.totalNanos() - previous.totalNanos()) / (current.count() - previous.count()) / 1_000_000;
+    }
+}
@@ -0,0 +1,44 @@
+package com.enterprise.inventorymanagement.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Enables {@code @Timed} on service methods and publishes Hibernate's session factory statistics.
+ * Divide the Hibernate counters by {@code http_server_requests_seconds_count} for per-request figures.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    @Bean
+    public MeterBinder hibernateStatisticsMetrics(EntityManagerFactory entityManagerFactory) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        return registry -> {
+            counter(registry, statistics, "hibernate.statements.prepared", Statistics::getPrepareStatementCount);
+            counter(registry, statistics, "hibernate.queries.executed", Statistics::getQueryExecutionCount);
+            counter(registry, statistics, "hibernate.entities.loaded", Statistics::getEntityLoadCount);
+            counter(registry, statistics, "hibernate.collections.fetched", Statistics::getCollectionFetchCount);
+            counter(registry, statistics, "hibernate.flushes", Statistics::getFlushCount);
+            counter(registry, statistics, "hibernate.transactions", Statistics::getTransactionCount);
+        };
+    }
+
+    private static void counter(MeterRegistry registry, Statistics statistics, String name,
+                                ToDoubleFunction<Statistics> value) {
+        FunctionCounter.builder(name, statistics, value).register(registry);
+    }
+}
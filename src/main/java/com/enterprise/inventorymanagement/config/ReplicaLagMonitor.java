@@ -0,0 +1,62 @@
+package com.enterprise.inventorymanagement.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Polls the replica for its replication lag; reads fall back to the primary while the lag is over
+ * the limit or the replica cannot be reached.
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private final JdbcTemplate replica;
+    private final String lagQuery;
+    private final double maxLagSeconds;
+
+    private volatile double lagSeconds = Double.NaN;
+    private volatile boolean replicaUsable;
+
+    public ReplicaLagMonitor(DataSource replica, String lagQuery, Duration maxLag) {
+        this.replica = new JdbcTemplate(replica);
+        this.replica.setQueryTimeout(2);
+        this.lagQuery = lagQuery;
+        this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-interval-ms:5000}")
+    public void check() {
+        boolean wasUsable = replicaUsable;
+        try {
+            Double lag = replica.queryForObject(lagQuery, Double.class);
+            lagSeconds = lag == null ? Double.NaN : lag;
+            replicaUsable = lag != null && lag <= maxLagSeconds;
+        } catch (RuntimeException e) {
+            lagSeconds = Double.NaN;
+            replicaUsable = false;
+            if (wasUsable) {
+                logger.warn("Replica lag check failed, reading from the primary", e);
+            }
+            return;
+        }
+        if (wasUsable && !replicaUsable) {
+            logger.warn("Replica is {}s behind, reading from the primary", lagSeconds);
+        } else if (!wasUsable && replicaUsable) {
+            logger.info("Replica caught up ({}s behind), routing read-only transactions to it", lagSeconds);
+        }
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    public double getLagSeconds() {
+        return lagSeconds;
+    }
+}
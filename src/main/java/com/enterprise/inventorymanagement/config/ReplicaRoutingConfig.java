@@ -0,0 +1,103 @@
+package com.enterprise.inventorymanagement.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Splits the connection pool into a primary and a read replica once {@code app.datasource.replica.url} is set.
+ * {@code @Transactional(readOnly = true)} work is served by the replica, see {@link ReplicaRoutingDataSource}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replica.url")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    @FlywayDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(@Value("${app.datasource.replica.url}") String url,
+                                              @Value("${app.datasource.replica.username:}") String username,
+                                              @Value("${app.datasource.replica.password:}") String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(
+            @Qualifier("replicaDataSource") DataSource replica,
+            @Value("${app.datasource.replica.lag-query}") String lagQuery,
+            @Value("${app.datasource.replica.max-lag:5s}") Duration maxLag) {
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(replica, lagQuery, maxLag);
+        monitor.check();
+        return monitor;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            @Qualifier("primaryDataSource") DataSource primary,
+            @Qualifier("replicaDataSource") DataSource replica,
+            ReplicaLagMonitor lagMonitor,
+            @Value("${app.datasource.replica.read-your-writes-window:5s}") Duration readYourWritesWindow,
+            @Value("${app.datasource.replica.read-your-writes-max-users:10000}") int maxTrackedWriters) {
+        return new ReplicaRoutingDataSource(primary, replica, lagMonitor, readYourWritesWindow, maxTrackedWriters);
+    }
+
+    /**
+     * With open-in-view the request's session outlives its transactions. Hibernate would otherwise hold the
+     * first transaction's connection, and with it that transaction's routing, until the request ends.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer replicaConnectionHandling() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @Bean
+    public MeterBinder replicaLagMetrics(ReplicaLagMonitor lagMonitor) {
+        return registry -> {
+            Gauge.builder("datasource.replica.lag", lagMonitor, ReplicaLagMonitor::getLagSeconds)
+                    .baseUnit("seconds")
+                    .register(registry);
+            Gauge.builder("datasource.replica.usable", lagMonitor, monitor -> monitor.isReplicaUsable() ? 1 : 0)
+                    .register(registry);
+        };
+    }
+}
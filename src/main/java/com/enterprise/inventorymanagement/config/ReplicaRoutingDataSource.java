@@ -0,0 +1,132 @@
+package com.enterprise.inventorymanagement.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Sends connections of read-only transactions to the replica and everything else to the primary.
+ * A read-only transaction still goes to the primary while the replica lags behind, and for a user
+ * whose last write committed less than the read-your-writes window ago. Writes are attributed to the
+ * authenticated user, or to the users named with {@link #callAs} for work running on their behalf
+ * on another thread.
+ * Must sit behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: the
+ * read-only flag of a transaction is only published after its connection would have been taken.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Target {
+        PRIMARY, REPLICA
+    }
+
+    private static final ThreadLocal<Collection<String>> ACTORS = new ThreadLocal<>();
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final long readYourWritesNanos;
+    private final int maxTrackedWriters;
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor,
+                                    Duration readYourWritesWindow, int maxTrackedWriters) {
+        this.lagMonitor = lagMonitor;
+        this.readYourWritesNanos = readYourWritesWindow.toNanos();
+        this.maxTrackedWriters = maxTrackedWriters;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+    }
+
+    /**
+     * Run work on behalf of users whose security context is not on this thread, such as a worker pool,
+     * so the writes it commits pin their reads to the primary as if made in their own requests
+     */
+    public static <T> T callAs(Collection<String> users, Supplier<T> work) {
+        Collection<String> previous = ACTORS.get();
+        ACTORS.set(users);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                ACTORS.remove();
+            } else {
+                ACTORS.set(previous);
+            }
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return currentTarget();
+    }
+
+    public Target currentTarget() {
+        Collection<String> users = currentUsers();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            recordWriteOnCommit(users);
+            return Target.PRIMARY;
+        }
+        if (!lagMonitor.isReplicaUsable() || wroteRecently(users)) {
+            return Target.PRIMARY;
+        }
+        return Target.REPLICA;
+    }
+
+    private boolean wroteRecently(Collection<String> users) {
+        long now = System.nanoTime();
+        for (String user : users) {
+            Long writtenAt = lastWrites.get(user);
+            if (writtenAt != null && now - writtenAt < readYourWritesNanos) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void recordWriteOnCommit(Collection<String> users) {
+        if (users.isEmpty() || readYourWritesNanos <= 0 || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                long now = System.nanoTime();
+                for (String user : users) {
+                    if (lastWrites.size() >= maxTrackedWriters) {
+                        makeRoom(now);
+                    }
+                    lastWrites.put(user, now);
+                }
+            }
+        });
+    }
+
+    private void makeRoom(long now) {
+        lastWrites.values().removeIf(writtenAt -> now - writtenAt >= readYourWritesNanos);
+        Iterator<String> users = lastWrites.keySet().iterator();
+        while (lastWrites.size() >= maxTrackedWriters && users.hasNext()) {
+            users.next();
+            users.remove();
+        }
+    }
+
+    private static Collection<String> currentUsers() {
+        Collection<String> actors = ACTORS.get();
+        if (actors != null) {
+            return actors;
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication == null || !authentication.isAuthenticated()
+                ? List.of() : List.of(authentication.getName());
+    }
+}
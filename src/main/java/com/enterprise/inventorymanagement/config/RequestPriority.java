@@ -0,0 +1,13 @@
+package com.enterprise.inventorymanagement.config;
+
+/**
+ * Admission classes, from the last to be shed to the first.
+ */
+public enum RequestPriority {
+    /** Login, registration and anything outside the application controllers; never shed */
+    CRITICAL,
+    /** Stock mutations, approvals and other writes; queued, then shed once the pool is overloaded */
+    MUTATION,
+    /** Listings and lookups; queued while the pool is under pressure, shed once it is overloaded */
+    READ
+}
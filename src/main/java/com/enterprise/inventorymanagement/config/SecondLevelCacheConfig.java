@@ -0,0 +1,123 @@
+package com.enterprise.inventorymanagement.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * In-process second-level cache for reference and tenant entities, one size-bounded Caffeine region each.
+ * Writes through Hibernate evict on this instance only, so {@code app.cache.regions.<region>.ttl} bounds how
+ * long another instance may serve a stale row. Warehouses and departments are not cached: their manager and
+ * operator decide who may act on them, and a revoked assignment must not outlive the write on any instance.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.cache.second-level.enabled", havingValue = "true", matchIfMissing = true)
+public class SecondLevelCacheConfig {
+
+    private static final Map<String, Region> DEFAULT_REGIONS = new LinkedHashMap<>();
+
+    static {
+        DEFAULT_REGIONS.put("roles", new Region(Duration.ofMinutes(10), 100));
+        DEFAULT_REGIONS.put("roles-by-name", new Region(Duration.ofMinutes(10), 100));
+        DEFAULT_REGIONS.put("role-permissions", new Region(Duration.ofMinutes(10), 100));
+        DEFAULT_REGIONS.put("permissions", new Region(Duration.ofMinutes(10), 1_000));
+        DEFAULT_REGIONS.put("enterprises", new Region(Duration.ofSeconds(60), 10_000));
+    }
+
+    @Bean(destroyMethod = "close")
+    public CacheManager secondLevelCacheManager(Environment environment) {
+        // A private URI keeps each application context from sharing caches with another one in the same JVM
+        URI uri = URI.create("hibernate-second-level:" + UUID.randomUUID());
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(uri, getClass().getClassLoader());
+        DEFAULT_REGIONS.forEach((name, defaults) -> {
+            String prefix = "app.cache.regions." + name;
+            Duration ttl = environment.getProperty(prefix + ".ttl", Duration.class, defaults.ttl());
+            long maxSize = environment.getProperty(prefix + ".max-size", Long.class, defaults.maxSize());
+
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+            configuration.setMaximumSize(OptionalLong.of(maxSize));
+            cacheManager.createCache(name, configuration);
+        });
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager secondLevelCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+            // Every region must be declared above; a typo in a @Cache region should not create an unbounded cache
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    @Bean
+    public MeterBinder secondLevelCacheMetrics(EntityManagerFactory entityManagerFactory) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        return registry -> DEFAULT_REGIONS.keySet().forEach(region -> {
+            counter(registry, statistics, region, "hibernate.second_level_cache.requests", "hit",
+                    CacheRegionStatistics::getHitCount);
+            counter(registry, statistics, region, "hibernate.second_level_cache.requests", "miss",
+                    CacheRegionStatistics::getMissCount);
+            counter(registry, statistics, region, "hibernate.second_level_cache.puts", null,
+                    CacheRegionStatistics::getPutCount);
+            Gauge.builder("hibernate.second_level_cache.hit.ratio", statistics, s -> hitRatio(s, region))
+                    .tag("region", region)
+                    .register(registry);
+        });
+    }
+
+    private static void counter(MeterRegistry registry, Statistics statistics,
+                                String region, String name, String result,
+                                ToDoubleFunction<CacheRegionStatistics> value) {
+        FunctionCounter.Builder<Statistics> builder = FunctionCounter
+                .builder(name, statistics, s -> regionValue(s, region, value))
+                .tag("region", region);
+        if (result != null) {
+            builder.tag("result", result);
+        }
+        builder.register(registry);
+    }
+
+    private static double hitRatio(Statistics statistics, String region) {
+        double hits = regionValue(statistics, region, CacheRegionStatistics::getHitCount);
+        double requests = hits + regionValue(statistics, region, CacheRegionStatistics::getMissCount);
+        return requests == 0 ? Double.NaN : hits / requests;
+    }
+
+    private static double regionValue(Statistics statistics, String region,
+                                      ToDoubleFunction<CacheRegionStatistics> value) {
+        CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+        return regionStatistics == null ? 0 : value.applyAsDouble(regionStatistics);
+    }
+
+    private record Region(Duration ttl, long maxSize) {
+    }
+}
@@ -0,0 +1,158 @@
+package com.enterprise.inventorymanagement.config;
+
+import com.enterprise.inventorymanagement.exceptions.StatementBudgetExceededException;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Hibernate statement inspector that counts the SQL issued inside an open {@link Scope}, one scope
+ * per HTTP request, and breaks the count down by outermost service call and by statement shape.
+ * A scope that goes over its budget is logged, or in {@code fail} mode aborted on the first
+ * statement past the budget.
+ */
+@Component
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlStatementCounter.class);
+
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern NUMBER = Pattern.compile("\\b\\d+\\b");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final int REPORTED_SHAPES = 3;
+
+    private final ThreadLocal<Scope> current = new ThreadLocal<>();
+    private final boolean failOnExceed;
+
+    public SqlStatementCounter(@Value("${app.sql.statement-budget.mode:warn}") String mode) {
+        this.failOnExceed = "fail".equalsIgnoreCase(mode);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Scope scope = current.get();
+        if (scope != null) {
+            scope.record(sql);
+            // Thrown once, so error handling that queries again does not fail a second time
+            if (failOnExceed && scope.count == scope.budget + 1) {
+                throw new StatementBudgetExceededException(scope.report());
+            }
+        }
+        return sql;
+    }
+
+    /**
+     * Start counting the statements of the current thread against a budget
+     */
+    public Scope open(String name, int budget) {
+        Scope scope = new Scope(name, budget);
+        current.set(scope);
+        return scope;
+    }
+
+    /**
+     * Stop counting on the current thread, reporting the scope if it went over budget
+     */
+    public void close() {
+        Scope scope = current.get();
+        current.remove();
+        if (scope != null && scope.isOverBudget()) {
+            logger.warn(scope.report());
+        }
+    }
+
+    /**
+     * Stop counting on the current thread without reporting, e.g. when the request continues elsewhere
+     */
+    public void detach() {
+        current.remove();
+    }
+
+    public Scope currentScope() {
+        return current.get();
+    }
+
+    static String shapeOf(String sql) {
+        String shape = IN_LIST.matcher(sql).replaceAll("(?...)");
+        shape = NUMBER.matcher(shape).replaceAll("N");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim();
+    }
+
+    public static final class Scope {
+        private final String name;
+        private final int budget;
+        private final Map<String, Integer> shapes = new LinkedHashMap<>();
+        private final Map<String, Integer> serviceCalls = new LinkedHashMap<>();
+        private int count;
+        private int serviceCallDepth;
+
+        private Scope(String name, int budget) {
+            this.name = name;
+            this.budget = budget;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public int getBudget() {
+            return budget;
+        }
+
+        public boolean isOverBudget() {
+            return count > budget;
+        }
+
+        /**
+         * Enter a service call, returning the statement count to pass to {@link #exitServiceCall}
+         */
+        public int enterServiceCall() {
+            serviceCallDepth++;
+            return count;
+        }
+
+        /**
+         * Leave a service call; only the outermost one is attributed, so nested calls are not counted twice
+         */
+        public void exitServiceCall(String call, int countAtEntry) {
+            if (--serviceCallDepth == 0 && count > countAtEntry) {
+                serviceCalls.merge(call, count - countAtEntry, Integer::sum);
+            }
+        }
+
+        public Map<String, Integer> getServiceCalls() {
+            return serviceCalls;
+        }
+
+        public Map<String, Integer> getRepeatedShapes() {
+            return shapes.entrySet().stream()
+                    .filter(entry -> entry.getValue() > 1)
+                    .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                    .limit(REPORTED_SHAPES)
+                    .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a, LinkedHashMap::new));
+        }
+
+        public String report() {
+            StringBuilder report = new StringBuilder()
+                    .append(name).append(" issued ").append(count)
+                    .append(" SQL statements, budget is ").append(budget);
+            serviceCalls.forEach((call, statements) ->
+                    report.append("\n  ").append(statements).append(" in ").append(call));
+            getRepeatedShapes().forEach((shape, repeats) ->
+                    report.append("\n  ").append(repeats).append("x ").append(shape));
+            return report.toString();
+        }
+
+        private void record(String sql) {
+            count++;
+            shapes.merge(shapeOf(sql), 1, Integer::sum);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.enterprise.inventorymanagement.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Maximum number of SQL statements a single request to the annotated endpoint may issue.
+ * Endpoints without it get {@code app.sql.statement-budget.default}.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface StatementBudget {
+
+    int value();
+}
@@ -0,0 +1,70 @@
+package com.enterprise.inventorymanagement.config;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Counts SQL statements per HTTP request and per outermost service call, see {@link SqlStatementCounter}.
+ * Set {@code app.sql.statement-budget.mode=fail} to turn budget overruns into errors.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.sql.statement-budget.enabled", havingValue = "true", matchIfMissing = true)
+public class StatementBudgetConfig implements WebMvcConfigurer {
+
+    private final SqlStatementCounter counter;
+    private final int defaultBudget;
+
+    public StatementBudgetConfig(SqlStatementCounter counter,
+                                 @Value("${app.sql.statement-budget.default:50}") int defaultBudget) {
+        this.counter = counter;
+        this.defaultBudget = defaultBudget;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer statementCounterCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, counter);
+    }
+
+    @Bean
+    public ServiceCallStatementAspect serviceCallStatementAspect() {
+        return new ServiceCallStatementAspect(counter);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new StatementBudgetInterceptor(counter, defaultBudget));
+    }
+
+    @Aspect
+    public static class ServiceCallStatementAspect {
+
+        private final SqlStatementCounter counter;
+
+        public ServiceCallStatementAspect(SqlStatementCounter counter) {
+            this.counter = counter;
+        }
+
+        @Around("within(@org.springframework.stereotype.Service *)")
+        public Object countStatements(ProceedingJoinPoint joinPoint) throws Throwable {
+            SqlStatementCounter.Scope scope = counter.currentScope();
+            if (scope == null) {
+                return joinPoint.proceed();
+            }
+            int countAtEntry = scope.enterServiceCall();
+            try {
+                return joinPoint.proceed();
+            } finally {
+                scope.exitServiceCall(joinPoint.getSignature().toShortString(), countAtEntry);
+            }
+        }
+    }
+}
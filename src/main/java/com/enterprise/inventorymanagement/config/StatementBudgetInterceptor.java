@@ -0,0 +1,54 @@
+package com.enterprise.inventorymanagement.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Opens a statement counting scope around each controller call, budgeted by the handler's
+ * {@link StatementBudget} or the configured default.
+ */
+public class StatementBudgetInterceptor implements AsyncHandlerInterceptor {
+
+    private final SqlStatementCounter counter;
+    private final int defaultBudget;
+
+    public StatementBudgetInterceptor(SqlStatementCounter counter, int defaultBudget) {
+        this.counter = counter;
+        this.defaultBudget = defaultBudget;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod handlerMethod) {
+            counter.open(endpoint(request), budget(handlerMethod));
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        counter.detach();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        counter.close();
+    }
+
+    private int budget(HandlerMethod handlerMethod) {
+        StatementBudget budget = handlerMethod.getMethodAnnotation(StatementBudget.class);
+        if (budget == null) {
+            budget = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getBeanType(), StatementBudget.class);
+        }
+        return budget != null ? budget.value() : defaultBudget;
+    }
+
+    private static String endpoint(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+    }
+}
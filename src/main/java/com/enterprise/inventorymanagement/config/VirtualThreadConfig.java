@@ -0,0 +1,52 @@
+package com.enterprise.inventorymanagement.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Serves requests, and the transactional service calls they make, on virtual threads when
+ * {@code app.threads.virtual.enabled=true}. The build targets Java 17, so the virtual thread
+ * executor is looked up at runtime and startup fails on a runtime older than Java 21.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadConfig.class);
+
+    @Bean(destroyMethod = "shutdown")
+    public BoundedVirtualThreadExecutor requestExecutor(
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int connectionPoolSize,
+            @Value("${app.threads.virtual.requests-per-connection:4}") int requestsPerConnection) {
+        // Requests also spend time outside the database, so allow a few per pooled connection
+        int maxConcurrency = Math.max(1, connectionPoolSize * requestsPerConnection);
+        logger.info("Serving requests on virtual threads, at most {} in flight ({} connections x {})",
+                maxConcurrency, connectionPoolSize, requestsPerConnection);
+        return new BoundedVirtualThreadExecutor(newVirtualThreadPerTaskExecutor(), maxConcurrency);
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer(
+            BoundedVirtualThreadExecutor requestExecutor) {
+        return protocolHandler -> protocolHandler.setExecutor(requestExecutor);
+    }
+
+    static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("app.threads.virtual.enabled requires Java 21 or newer, running on "
+                    + Runtime.version());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not create the virtual thread executor", e);
+        }
+    }
+}
@@ -4,6 +4,8 @@ import com.enterprise.inventorymanagement.model.User;
 import com.enterprise.inventorymanagement.model.dto.UserDTO;
 import com.enterprise.inventorymanagement.service.UserService;
 import com.enterprise.inventorymanagement.exceptions.ResourceNotFoundException;
+import com.enterprise.inventorymanagement.security.PasswordHashingExecutor;
+import com.enterprise.inventorymanagement.security.PrincipalCache;
 import jakarta.validation.Valid;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -11,7 +13,9 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/admin")
@@ -19,10 +23,15 @@ import java.util.List;
 public class AdminController {
 
     private final UserService userService;
+    private final PrincipalCache principalCache;
+    private final PasswordHashingExecutor passwordHashingExecutor;
 
     @Autowired
-    public AdminController(UserService userService) {
+    public AdminController(UserService userService, PrincipalCache principalCache,
+                           PasswordHashingExecutor passwordHashingExecutor) {
         this.userService = userService;
+        this.principalCache = principalCache;
+        this.passwordHashingExecutor = passwordHashingExecutor;
     }
 
     @GetMapping("/users")
@@ -49,5 +58,33 @@ public class AdminController {
     public void deleteUser(@PathVariable Long id) {
         userService.deleteUser(id);
     }
-}
 
+    @GetMapping("/principal-cache")
+    public Map<String, Object> getPrincipalCacheStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("size", principalCache.size());
+        stats.put("hits", principalCache.getHitCount());
+        stats.put("misses", principalCache.getMissCount());
+        return stats;
+    }
+
+    @DeleteMapping("/principal-cache")
+    public void clearPrincipalCache() {
+        principalCache.invalidateAll();
+    }
+
+    @GetMapping("/password-hashing")
+    public Map<String, Object> getPasswordHashingStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("poolSize", passwordHashingExecutor.getPoolSize());
+        stats.put("active", passwordHashingExecutor.getActiveCount());
+        stats.put("queueDepth", passwordHashingExecutor.getQueueDepth());
+        stats.put("queueCapacity", passwordHashingExecutor.getQueueCapacity());
+        stats.put("completed", passwordHashingExecutor.getCompletedCount());
+        stats.put("rejected", passwordHashingExecutor.getRejectedCount());
+        stats.put("averageRunMillis", passwordHashingExecutor.getAverageRunMillis());
+        stats.put("averageWaitMillis", passwordHashingExecutor.getAverageWaitMillis());
+        stats.put("maxRunMillis", passwordHashingExecutor.getMaxRunMillis());
+        return stats;
+    }
+}
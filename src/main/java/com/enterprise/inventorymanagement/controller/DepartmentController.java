@@ -1,7 +1,9 @@
 package com.enterprise.inventorymanagement.controller;
 
+import com.enterprise.inventorymanagement.config.StatementBudget;
 import com.enterprise.inventorymanagement.exceptions.ResourceNotFoundException;
 import com.enterprise.inventorymanagement.model.Department;
+import com.enterprise.inventorymanagement.model.RoleName;
 import com.enterprise.inventorymanagement.model.User;
 import com.enterprise.inventorymanagement.model.dto.DepartmentDTO;
 import com.enterprise.inventorymanagement.model.dto.EnterpriseDTO;
@@ -98,31 +100,24 @@ public class DepartmentController {
         return ResponseEntity.ok(enterpriseDTO);
     }
 
+    /**
+     * Get a department's employees, one page at a time
+     */
     @GetMapping("/{departmentId}/employees")
+    // The page, and an existence check when it comes back empty
+    @StatementBudget(2)
     @PreAuthorize("hasAuthority('VIEW_INVENTORY')")
-    public ResponseEntity<List<UserDTO>> getDepartmentEmployees(
+    public ResponseEntity<?> getDepartmentEmployees(
             @PathVariable Long departmentId,
-            @AuthenticationPrincipal UserDetailsImpl userDetails) {
-        List<User> employees = departmentService.getDepartmentEmployeesWithData(departmentId);
-        Department department = departmentService.getDepartmentById(departmentId);
-        
-        List<UserDTO> employeeDTOs = employees.stream()
-            .map(user -> UserDTO.builder()
-                .id(user.getId())
-                .fullName(user.getFullName())
-                .username(user.getUsername())
-                .email(user.getEmail())
-                .roleName(user.getRole().getName().toString())
-                .active(user.getActive())
-                .enterpriseId(user.getEnterpriseId())
-                .managerId(user.getManagerId())
-                .departmentId(departmentId)
-                .departmentName(department.getName())
-                .createdAt(user.getCreatedAt())
-                .build())
-            .collect(Collectors.toList());
-        
-        return ResponseEntity.ok(employeeDTOs);
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) RoleName role,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        try {
+            return ResponseEntity.ok(departmentService.getDepartmentEmployeesPage(departmentId, search, role, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
     }
 
     private DepartmentDTO convertToDTO(Department department) {
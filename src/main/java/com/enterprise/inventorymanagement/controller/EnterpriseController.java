@@ -1,5 +1,6 @@
 package com.enterprise.inventorymanagement.controller;
 
+import com.enterprise.inventorymanagement.config.StatementBudget;
 import com.enterprise.inventorymanagement.exceptions.ResourceNotFoundException;
 import com.enterprise.inventorymanagement.model.Enterprise;
 import com.enterprise.inventorymanagement.model.EnterpriseInvite;
@@ -323,6 +324,8 @@ public class EnterpriseController {
     }
 
     @GetMapping("/departments")
+    // The departments with their stats, and their member ids
+    @StatementBudget(2)
     @PreAuthorize("hasAnyAuthority('VIEW_DEPARTMENTS', 'MANAGE_DEPARTMENTS')")
     public ResponseEntity<?> getEnterpriseDepartments(@AuthenticationPrincipal UserDetailsImpl userDetails) {
         try {
@@ -1,16 +1,25 @@
 package com.enterprise.inventorymanagement.controller;
 
+import com.enterprise.inventorymanagement.config.StatementBudget;
 import com.enterprise.inventorymanagement.exceptions.ResourceNotFoundException;
+import com.enterprise.inventorymanagement.model.ItemSort;
 import com.enterprise.inventorymanagement.model.dto.ItemDTO;
+import com.enterprise.inventorymanagement.model.dto.ItemPageDTO;
+import com.enterprise.inventorymanagement.model.dto.ReturnItemDTO;
 import com.enterprise.inventorymanagement.service.InventoryManagementService;
+import com.enterprise.inventorymanagement.service.ScopeVersions;
 import com.enterprise.inventorymanagement.service.UserDetailsImpl;
+import jakarta.validation.ConstraintViolationException;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.HashMap;
 import java.util.List;
@@ -22,13 +31,19 @@ import java.util.Map;
     "http://localhost:3000",
     "https://inventory-management-frontend-1072716398524.europe-central2.run.app"
 }, allowCredentials = "true", maxAge = 3600)
+@Validated
 public class InventoryController {
 
+    // Listings are private to the user and revalidated with their ETag on every use
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     private final InventoryManagementService inventoryService;
+    private final ScopeVersions scopeVersions;
 
     @Autowired
-    public InventoryController(InventoryManagementService inventoryService) {
+    public InventoryController(InventoryManagementService inventoryService, ScopeVersions scopeVersions) {
         this.inventoryService = inventoryService;
+        this.scopeVersions = scopeVersions;
     }
 
     /**
@@ -109,24 +124,37 @@ public class InventoryController {
     }
 
     /**
-     * Get all items in the enterprise
+     * Get all items in the enterprise, one page at a time
      */
     @GetMapping("/items")
+    // A search sets the similarity threshold, ranks the ids and loads their rows; a page is one statement
+    @StatementBudget(3)
     @PreAuthorize("hasAuthority('VIEW_INVENTORY')")
     public ResponseEntity<Map<String, Object>> getAllItems(
             @AuthenticationPrincipal UserDetailsImpl userDetails,
-            @RequestParam(required = false) String search) {
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "NAME") ItemSort sort,
+            WebRequest webRequest) {
+        // Unchanged since the client's copy: answered with 304 before anything is queried
+        if (webRequest.checkNotModified(
+                scopeVersions.etag(ScopeVersions.Scope.ENTERPRISE, userDetails.getEnterpriseId()))) {
+            return null;
+        }
         try {
-            List<ItemDTO> items;
+            ItemPageDTO page;
             if (search != null && !search.trim().isEmpty()) {
-                items = inventoryService.searchItemsByName(search);
+                page = inventoryService.searchItems(userDetails.getEnterpriseId(), search, cursor, size);
             } else {
-                items = inventoryService.getAllItemsByEnterpriseId(userDetails.getEnterpriseId());
+                page = inventoryService.getItemsPageByEnterpriseId(
+                        userDetails.getEnterpriseId(), sort, cursor, size);
             }
+            return ResponseEntity.ok().cacheControl(REVALIDATE).body(pageResponse(page));
+        } catch (IllegalArgumentException e) {
             Map<String, Object> response = new HashMap<>();
-            response.put("items", items);
-            response.put("count", items.size());
-            return ResponseEntity.ok(response);
+            response.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
         } catch (Exception e) {
             Map<String, Object> response = new HashMap<>();
             response.put("error", "An unexpected error occurred");
@@ -135,17 +163,27 @@ public class InventoryController {
     }
 
     /**
-     * Get items in a specific warehouse
+     * Get items in a specific warehouse, one page at a time
      */
     @GetMapping("/warehouse/{warehouseId}/items")
+    @StatementBudget(1)
     @PreAuthorize("hasAuthority('VIEW_INVENTORY')")
-    public ResponseEntity<Map<String, Object>> getWarehouseItems(@PathVariable Long warehouseId) {
+    public ResponseEntity<Map<String, Object>> getWarehouseItems(
+            @PathVariable Long warehouseId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "NAME") ItemSort sort,
+            WebRequest webRequest) {
+        if (webRequest.checkNotModified(scopeVersions.etag(ScopeVersions.Scope.WAREHOUSE, warehouseId))) {
+            return null;
+        }
         try {
-            List<ItemDTO> items = inventoryService.getItemsByWarehouseId(warehouseId);
+            ItemPageDTO page = inventoryService.getItemsPageByWarehouseId(warehouseId, sort, cursor, size);
+            return ResponseEntity.ok().cacheControl(REVALIDATE).body(pageResponse(page));
+        } catch (IllegalArgumentException e) {
             Map<String, Object> response = new HashMap<>();
-            response.put("items", items);
-            response.put("count", items.size());
-            return ResponseEntity.ok(response);
+            response.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
         } catch (Exception e) {
             Map<String, Object> response = new HashMap<>();
             response.put("error", "An unexpected error occurred");
@@ -154,17 +192,27 @@ public class InventoryController {
     }
 
     /**
-     * Get items in a specific department
+     * Get items in a specific department, one page at a time
      */
     @GetMapping("/department/{departmentId}/items")
+    @StatementBudget(1)
     @PreAuthorize("hasAuthority('VIEW_INVENTORY')")
-    public ResponseEntity<Map<String, Object>> getDepartmentItems(@PathVariable Long departmentId) {
+    public ResponseEntity<Map<String, Object>> getDepartmentItems(
+            @PathVariable Long departmentId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "NAME") ItemSort sort,
+            WebRequest webRequest) {
+        if (webRequest.checkNotModified(scopeVersions.etag(ScopeVersions.Scope.DEPARTMENT, departmentId))) {
+            return null;
+        }
         try {
-            List<ItemDTO> items = inventoryService.getItemsByDepartmentId(departmentId);
+            ItemPageDTO page = inventoryService.getItemsPageByDepartmentId(departmentId, sort, cursor, size);
+            return ResponseEntity.ok().cacheControl(REVALIDATE).body(pageResponse(page));
+        } catch (IllegalArgumentException e) {
             Map<String, Object> response = new HashMap<>();
-            response.put("items", items);
-            response.put("count", items.size());
-            return ResponseEntity.ok(response);
+            response.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
         } catch (Exception e) {
             Map<String, Object> response = new HashMap<>();
             response.put("error", "An unexpected error occurred");
@@ -221,16 +269,9 @@ public class InventoryController {
     @PreAuthorize("hasAuthority('RETURN_ITEMS')")
     public ResponseEntity<Map<String, Object>> returnItemsToWarehouse(
             @PathVariable Long departmentId,
-            @RequestBody List<Map<String, Object>> returnItems) {
+            @Valid @RequestBody List<ReturnItemDTO> returnItems) {
         try {
-            for (Map<String, Object> item : returnItems) {
-                Long itemId = ((Number) item.get("itemId")).longValue();
-                Integer quantity = ((Number) item.get("quantity")).intValue();
-                Long warehouseId = ((Number) item.get("warehouseId")).longValue();
-                
-                inventoryService.returnItemToWarehouse(itemId, quantity, departmentId, warehouseId);
-            }
-            
+            inventoryService.returnItemsToWarehouse(departmentId, returnItems);
             Map<String, Object> response = new HashMap<>();
             response.put("message", "Items returned successfully");
             return ResponseEntity.ok(response);
@@ -245,16 +286,9 @@ public class InventoryController {
     @PreAuthorize("hasAuthority('RETURN_ITEMS')")
     public ResponseEntity<Map<String, Object>> returnItemsToDepartment(
             @AuthenticationPrincipal UserDetailsImpl userDetails,
-            @RequestBody List<Map<String, Object>> returnItems) {
+            @Valid @RequestBody List<ReturnItemDTO> returnItems) {
         try {
-            for (Map<String, Object> item : returnItems) {
-                Long itemId = ((Number) item.get("itemId")).longValue();
-                Integer quantity = ((Number) item.get("quantity")).intValue();
-                Long departmentId = ((Number) item.get("departmentId")).longValue();
-                
-                inventoryService.returnItemToDepartment(itemId, quantity, userDetails.getId(), departmentId);
-            }
-            
+            inventoryService.returnItemsToDepartment(userDetails.getId(), returnItems);
             Map<String, Object> response = new HashMap<>();
             response.put("message", "Items returned successfully");
             return ResponseEntity.ok(response);
@@ -264,5 +298,23 @@ public class InventoryController {
             return ResponseEntity.badRequest().body(response);
         }
     }
-}
 
+    /**
+     * Invalid lines of a bulk return are rejected before anything is applied
+     */
+    @ExceptionHandler(ConstraintViolationException.class)
+    public ResponseEntity<Map<String, Object>> handleConstraintViolation(ConstraintViolationException e) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("error", e.getMessage());
+        return ResponseEntity.badRequest().body(response);
+    }
+
+    private Map<String, Object> pageResponse(ItemPageDTO page) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("items", page.getItems());
+        response.put("count", page.getSize());
+        response.put("hasMore", page.isHasMore());
+        response.put("nextCursor", page.getNextCursor());
+        return response;
+    }
+}
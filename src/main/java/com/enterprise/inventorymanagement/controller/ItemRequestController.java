@@ -3,6 +3,7 @@ package com.enterprise.inventorymanagement.controller;
 import com.enterprise.inventorymanagement.exceptions.ResourceNotFoundException;
 import com.enterprise.inventorymanagement.model.dto.ItemRequestDTO;
 import com.enterprise.inventorymanagement.model.request.RequestStatus;
+import com.enterprise.inventorymanagement.service.ApprovalCoalescer;
 import com.enterprise.inventorymanagement.service.ItemRequestService;
 import com.enterprise.inventorymanagement.service.UserDetailsImpl;
 import jakarta.validation.Valid;
@@ -16,6 +17,8 @@ import org.springframework.web.bind.annotation.*;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @RestController
 @RequestMapping("/api/requests")
@@ -23,10 +26,12 @@ import java.util.Map;
 public class ItemRequestController {
 
     private final ItemRequestService itemRequestService;
+    private final ApprovalCoalescer approvalCoalescer;
 
     @Autowired
-    public ItemRequestController(ItemRequestService itemRequestService) {
+    public ItemRequestController(ItemRequestService itemRequestService, ApprovalCoalescer approvalCoalescer) {
         this.itemRequestService = itemRequestService;
+        this.approvalCoalescer = approvalCoalescer;
     }
 
     /**
@@ -148,36 +153,48 @@ public class ItemRequestController {
     }
 
     /**
-     * Handle a request (Warehouse Operator)
+     * Handle a request (Warehouse Operator); approvals arriving together are applied in one transaction
      */
     @PostMapping("/{requestId}/process")
     @PreAuthorize("hasAuthority('MANAGE_WAREHOUSE')")
-    public ResponseEntity<Map<String, Object>> handleRequest(
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> handleRequest(
             @PathVariable Long requestId,
             @RequestParam boolean approved,
             @RequestParam(required = false) String responseComments) {
+        if (approved) {
+            return approvalCoalescer.approve(requestId, responseComments)
+                    .handle((ignored, failure) -> failure == null
+                            ? processed(requestId, "approved")
+                            : processingFailed(failure instanceof CompletionException ? failure.getCause() : failure));
+        }
         try {
-            itemRequestService.handleItemRequest(requestId, approved, responseComments);
-            String status = approved ? "approved" : "rejected";
-            
-            Map<String, Object> response = new HashMap<>();
-            response.put("message", String.format("Request %s successfully", status));
-            response.put("requestId", requestId);
-            response.put("status", status);
-            return ResponseEntity.ok(response);
-        } catch (ResourceNotFoundException e) {
-            Map<String, Object> response = new HashMap<>();
+            itemRequestService.handleItemRequest(requestId, false, responseComments);
+            return CompletableFuture.completedFuture(processed(requestId, "rejected"));
+        } catch (Exception e) {
+            return CompletableFuture.completedFuture(processingFailed(e));
+        }
+    }
+
+    private ResponseEntity<Map<String, Object>> processed(Long requestId, String status) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", String.format("Request %s successfully", status));
+        response.put("requestId", requestId);
+        response.put("status", status);
+        return ResponseEntity.ok(response);
+    }
+
+    private ResponseEntity<Map<String, Object>> processingFailed(Throwable e) {
+        Map<String, Object> response = new HashMap<>();
+        if (e instanceof ResourceNotFoundException) {
             response.put("error", e.getMessage());
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
-        } catch (IllegalStateException e) {
-            Map<String, Object> response = new HashMap<>();
+        }
+        if (e instanceof IllegalStateException) {
             response.put("error", e.getMessage());
             return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
-        } catch (Exception e) {
-            Map<String, Object> response = new HashMap<>();
-            response.put("error", "An unexpected error occurred");
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
         }
+        response.put("error", "An unexpected error occurred");
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
     }
 
     @PutMapping("/{requestId}/approve")
@@ -0,0 +1,38 @@
+package com.enterprise.inventorymanagement.controller;
+
+import com.enterprise.inventorymanagement.config.AdmissionPriority;
+import com.enterprise.inventorymanagement.config.RequestPriority;
+import com.enterprise.inventorymanagement.service.RequestEventBroker;
+import com.enterprise.inventorymanagement.service.UserDetailsImpl;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/events")
+@CrossOrigin(origins = "http://localhost:3000", allowCredentials = "true", maxAge = 3600)
+public class RequestEventController {
+
+    private final RequestEventBroker eventBroker;
+
+    @Autowired
+    public RequestEventController(RequestEventBroker eventBroker) {
+        this.eventBroker = eventBroker;
+    }
+
+    /**
+     * Stream of request and stock events visible to the current user, as Server-Sent Events.
+     * An open stream holds no database connection, so admission control leaves it alone.
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @AdmissionPriority(RequestPriority.CRITICAL)
+    public SseEmitter streamEvents(
+            @AuthenticationPrincipal UserDetailsImpl userDetails,
+            @RequestParam(required = false) Long warehouseId,
+            @RequestParam(required = false) Long departmentId,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return eventBroker.subscribe(userDetails, warehouseId, departmentId, lastEventId);
+    }
+}
@@ -1,5 +1,9 @@
 package com.enterprise.inventorymanagement.controller;
 
+import com.enterprise.inventorymanagement.config.AdmissionPriority;
+import com.enterprise.inventorymanagement.config.ReplicaRoutingDataSource;
+import com.enterprise.inventorymanagement.config.RequestPriority;
+import com.enterprise.inventorymanagement.exceptions.PasswordHashingRejectedException;
 import com.enterprise.inventorymanagement.exceptions.ResourceNotFoundException;
 import com.enterprise.inventorymanagement.model.RoleName;
 import com.enterprise.inventorymanagement.model.dto.EnterpriseInviteDTO;
@@ -8,11 +12,16 @@ import com.enterprise.inventorymanagement.model.dto.UserDTO;
 import com.enterprise.inventorymanagement.model.request.LoginRequest;
 import com.enterprise.inventorymanagement.model.request.UserRegistrationRequest;
 import com.enterprise.inventorymanagement.security.JwtTokenProvider;
+import com.enterprise.inventorymanagement.security.PasswordHashingExecutor;
 import com.enterprise.inventorymanagement.service.UserDetailsImpl;
 import com.enterprise.inventorymanagement.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -22,6 +31,7 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/users")
@@ -31,13 +41,18 @@ public class UserController {
     private final UserService userService;
     private final AuthenticationManager authenticationManager;
     private final JwtTokenProvider tokenProvider;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final MeterRegistry meterRegistry;
 
     @Autowired
     public UserController(UserService userService, AuthenticationManager authenticationManager,
-                          JwtTokenProvider tokenProvider) {
+                          JwtTokenProvider tokenProvider, PasswordHashingExecutor passwordHashingExecutor,
+                          MeterRegistry meterRegistry) {
         this.userService = userService;
         this.authenticationManager = authenticationManager;
         this.tokenProvider = tokenProvider;
+        this.passwordHashingExecutor = passwordHashingExecutor;
+        this.meterRegistry = meterRegistry;
     }
 
     /**
@@ -55,20 +70,38 @@ public class UserController {
     }
 
     /**
-     * User Authentication (Sign-in)
+     * User Authentication (Sign-in), verified on the password hashing pool
      */
     @PostMapping("/login")
-    public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
+    @AdmissionPriority(RequestPriority.CRITICAL)
+    public CompletableFuture<ResponseEntity<?>> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
         try {
-            Authentication authentication = authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(
-                            loginRequest.getUsername(),
-                            loginRequest.getPassword()
-                    )
-            );
+            return passwordHashingExecutor.submit(() -> login(loginRequest));
+        } catch (PasswordHashingRejectedException e) {
+            log.warn("Login rejected for user {}: {}", loginRequest.getUsername(), e.getMessage());
+            meterRegistry.counter("security.login.rejected").increment();
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body("Too many logins in progress, please retry shortly"));
+        }
+    }
+
+    private ResponseEntity<?> login(LoginRequest loginRequest) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failure";
+        try {
+            // Runs on the hashing pool without a security context; a rehashed password counts as the user's write
+            Authentication authentication = ReplicaRoutingDataSource.callAs(List.of(loginRequest.getUsername()),
+                    () -> authenticationManager.authenticate(
+                            new UsernamePasswordAuthenticationToken(
+                                    loginRequest.getUsername(),
+                                    loginRequest.getPassword()
+                            )
+                    ));
 
             String jwt = tokenProvider.generateToken(authentication);
             UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+            outcome = "success";
 
             return ResponseEntity.ok(new JwtResponse(
                     jwt,
@@ -82,6 +115,8 @@ public class UserController {
         } catch (Exception e) {
             log.error("Authentication failed for user {}: {}", loginRequest.getUsername(), e.getMessage());
             return ResponseEntity.status(401).body("Invalid username or password");
+        } finally {
+            sample.stop(meterRegistry.timer("security.login", "outcome", outcome));
         }
     }
 
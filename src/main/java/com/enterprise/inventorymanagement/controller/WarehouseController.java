@@ -1,17 +1,22 @@
 package com.enterprise.inventorymanagement.controller;
 
+import com.enterprise.inventorymanagement.config.StatementBudget;
 import com.enterprise.inventorymanagement.model.Warehouse;
 import com.enterprise.inventorymanagement.model.dto.ItemDTO;
 import com.enterprise.inventorymanagement.model.dto.ItemRequestDTO;
 import com.enterprise.inventorymanagement.model.dto.WarehouseDTO;
+import com.enterprise.inventorymanagement.model.dto.WarehouseStockSummaryDTO;
 import com.enterprise.inventorymanagement.model.request.RequestStatus;
+import com.enterprise.inventorymanagement.service.ScopeVersions;
 import com.enterprise.inventorymanagement.service.WarehouseService;
 import com.enterprise.inventorymanagement.service.UserDetailsImpl;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import jakarta.validation.Valid;
 import java.util.List;
@@ -22,10 +27,12 @@ import java.util.Map;
 public class WarehouseController {
 
     private final WarehouseService warehouseService;
+    private final ScopeVersions scopeVersions;
 
     @Autowired
-    public WarehouseController(WarehouseService warehouseService) {
+    public WarehouseController(WarehouseService warehouseService, ScopeVersions scopeVersions) {
         this.warehouseService = warehouseService;
+        this.scopeVersions = scopeVersions;
     }
 
     @PostMapping
@@ -37,12 +44,21 @@ public class WarehouseController {
     }
 
     @GetMapping
+    @StatementBudget(1)
     @PreAuthorize("hasAuthority('VIEW_WAREHOUSES')")
     public ResponseEntity<List<WarehouseDTO>> getEnterpriseWarehouses(
             @AuthenticationPrincipal UserDetailsImpl userDetails) {
         return ResponseEntity.ok(warehouseService.getWarehousesByEnterpriseId(userDetails.getEnterpriseId()));
     }
 
+    @GetMapping("/stock-summary")
+    @StatementBudget(1)
+    @PreAuthorize("hasAuthority('VIEW_WAREHOUSES')")
+    public ResponseEntity<List<WarehouseStockSummaryDTO>> getEnterpriseStockSummary(
+            @AuthenticationPrincipal UserDetailsImpl userDetails) {
+        return ResponseEntity.ok(warehouseService.getStockSummariesByEnterpriseId(userDetails.getEnterpriseId()));
+    }
+
     @GetMapping("/{id}")
     @PreAuthorize("hasAuthority('VIEW_WAREHOUSES')")
     public ResponseEntity<WarehouseDTO> getWarehouse(@PathVariable Long id) {
@@ -89,9 +105,15 @@ public class WarehouseController {
     }
 
     @GetMapping("/{id}/items")
+    @StatementBudget(1)
     @PreAuthorize("hasAuthority('VIEW_WAREHOUSE_ITEMS')")
-    public ResponseEntity<List<ItemDTO>> getWarehouseItems(@PathVariable Long id) {
-        return ResponseEntity.ok(warehouseService.getWarehouseItems(id));
+    public ResponseEntity<List<ItemDTO>> getWarehouseItems(@PathVariable Long id, WebRequest webRequest) {
+        if (webRequest.checkNotModified(scopeVersions.etag(ScopeVersions.Scope.WAREHOUSE, id))) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(warehouseService.getWarehouseItems(id));
     }
 
     @PostMapping("/{id}/items")
@@ -0,0 +1,8 @@
+package com.enterprise.inventorymanagement.exceptions;
+
+public class StatementBudgetExceededException extends RuntimeException {
+
+    public StatementBudgetExceededException(String message) {
+        super(message);
+    }
+}
@@ -1,5 +1,7 @@
 package com.enterprise.inventorymanagement.model;
 
+import com.enterprise.inventorymanagement.security.PrincipalChangeListener;
+import com.enterprise.inventorymanagement.service.ScopeVersionListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
@@ -16,9 +18,11 @@ import java.util.Set;
 @Setter
 @ToString(exclude = {"enterprise", "manager", "employees", "items"})
 @Table(name = "departments")
+@EntityListeners({PrincipalChangeListener.class, ScopeVersionListener.class})
 public class Department {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "departments_id_seq")
+    @SequenceGenerator(name = "departments_id_seq", sequenceName = "departments_id_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Department name is required")
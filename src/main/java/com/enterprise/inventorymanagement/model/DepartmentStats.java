@@ -0,0 +1,44 @@
+package com.enterprise.inventorymanagement.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Running item and headcount totals of one department. Maintained by database triggers (see V62);
+ * the application only writes it when {@code DepartmentStatsReconciler} repairs drift.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(name = "department_stats")
+public class DepartmentStats {
+
+    @Id
+    @Column(name = "department_id")
+    private Long departmentId;
+
+    @Column(name = "total_units", nullable = false)
+    private Long totalUnits = 0L;
+
+    @Column(name = "distinct_skus", nullable = false)
+    private Integer distinctSkus = 0;
+
+    // Item rows including emptied ones, which the enterprise department listing reports as its item count
+    @Column(name = "item_rows", nullable = false)
+    private Long itemRows = 0L;
+
+    @Column(name = "headcount", nullable = false)
+    private Integer headcount = 0;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public DepartmentStats(Long departmentId) {
+        this.departmentId = departmentId;
+    }
+}
@@ -1,22 +1,41 @@
 package com.enterprise.inventorymanagement.model;
 
+import com.enterprise.inventorymanagement.service.ScopeVersionListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.HashSet;
 import java.util.Set;
-import java.util.ArrayList;
-import java.util.List;
 
 @Entity
 @Data
+@EqualsAndHashCode(exclude = {"employees", "departments"})
+@ToString(exclude = {"employees", "departments"})
 @Table(name = "enterprises")
+@EntityListeners(ScopeVersionListener.class)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "enterprises")
+@NamedEntityGraph(name = Enterprise.WITH_EMPLOYEES_GRAPH,
+        attributeNodes = {
+                @NamedAttributeNode(value = "employees", subgraph = "employee"),
+                @NamedAttributeNode("departments")
+        },
+        subgraphs = @NamedSubgraph(name = "employee", attributeNodes = {
+                @NamedAttributeNode("role"),
+                @NamedAttributeNode("department")
+        }))
 public class Enterprise {
+    public static final String WITH_EMPLOYEES_GRAPH = "Enterprise.withEmployees";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "enterprises_id_seq")
+    @SequenceGenerator(name = "enterprises_id_seq", sequenceName = "enterprises_id_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Company name is required")
@@ -32,11 +51,11 @@ public class Enterprise {
     @Email(message = "Email should be valid")
     private String contactEmail;
 
-    @OneToMany(mappedBy = "enterprise", fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "enterprise", fetch = FetchType.LAZY)
     private Set<User> employees = new HashSet<>();
 
-    @OneToMany(mappedBy = "enterprise", fetch = FetchType.EAGER)
-    private List<Department> departments = new ArrayList<>();
+    @OneToMany(mappedBy = "enterprise", fetch = FetchType.LAZY)
+    private Set<Department> departments = new HashSet<>();
 
     // Helper method to avoid circular loading
     public Long getId() {
@@ -9,7 +9,8 @@ import java.time.LocalDateTime;
 @Data
 public class EnterpriseInvite {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "enterprise_invites_id_seq")
+    @SequenceGenerator(name = "enterprise_invites_id_seq", sequenceName = "enterprise_invites_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -1,5 +1,6 @@
 package com.enterprise.inventorymanagement.model;
 
+import com.enterprise.inventorymanagement.service.ScopeVersionListener;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -11,9 +12,11 @@ import java.time.LocalDateTime;
 @Table(name = "inventory_items")
 @Data
 @NoArgsConstructor
+@EntityListeners(ScopeVersionListener.class)
 public class InventoryItem {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inventory_items_id_seq")
+    @SequenceGenerator(name = "inventory_items_id_seq", sequenceName = "inventory_items_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -43,7 +46,7 @@ public class InventoryItem {
     @JoinColumn(name = "enterprise_id", nullable = false)
     private Enterprise enterprise;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
 
@@ -0,0 +1,6 @@
+package com.enterprise.inventorymanagement.model;
+
+public enum ItemSort {
+    NAME,
+    UPDATED_AT
+}
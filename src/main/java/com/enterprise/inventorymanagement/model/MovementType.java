@@ -0,0 +1,9 @@
+package com.enterprise.inventorymanagement.model;
+
+public enum MovementType {
+    OPENING,
+    CREATED,
+    ADJUSTED,
+    TRANSFERRED,
+    DELETED
+}
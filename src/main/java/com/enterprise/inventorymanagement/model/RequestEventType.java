@@ -0,0 +1,8 @@
+package com.enterprise.inventorymanagement.model;
+
+public enum RequestEventType {
+    REQUEST_CREATED,
+    REQUEST_APPROVED,
+    REQUEST_REJECTED,
+    STOCK_CHANGED
+}
@@ -1,26 +1,41 @@
 package com.enterprise.inventorymanagement.model;
 
+import com.enterprise.inventorymanagement.security.PrincipalChangeListener;
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
 @Table(name = "roles")
+@EntityListeners(PrincipalChangeListener.class)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "roles")
+@NaturalIdCache(region = "roles-by-name")
 @Data
+@EqualsAndHashCode(exclude = "permissions")
+@ToString(exclude = "permissions")
 @NoArgsConstructor
 public class Role {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "roles_id_seq")
+    @SequenceGenerator(name = "roles_id_seq", sequenceName = "roles_id_seq", allocationSize = 50)
     private Long id;
 
+    @NaturalId
     @Enumerated(EnumType.STRING)
     @Column(length = 60)
     private RoleName name;
 
-    @ManyToMany(fetch = FetchType.EAGER)
+    @ManyToMany(fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "role-permissions")
     @JoinTable(name = "role_permissions",
             joinColumns = @JoinColumn(name = "role_id"),
             inverseJoinColumns = @JoinColumn(name = "permission_id"))
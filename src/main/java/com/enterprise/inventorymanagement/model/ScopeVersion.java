@@ -0,0 +1,36 @@
+package com.enterprise.inventorymanagement.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Version of the item listings of one enterprise, warehouse or department, or the generation of all the
+ * listings of one enterprise (see V64). Only written with plain SQL by {@code ScopeVersions}, in the
+ * transaction that changed the scope.
+ */
+@Entity
+@Immutable
+@Getter
+@Table(name = "scope_versions")
+public class ScopeVersion {
+
+    @Id
+    @Column(name = "scope_key", length = 40)
+    private String scopeKey;
+
+    // The enterprise whose generation is part of the scope's ETags
+    @Column(name = "enterprise_id")
+    private Long enterpriseId;
+
+    @Column(nullable = false)
+    private Long version;
+
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+}
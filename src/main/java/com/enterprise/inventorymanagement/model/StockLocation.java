@@ -0,0 +1,48 @@
+package com.enterprise.inventorymanagement.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Where an inventory item row holds its stock: checked out to a user, in a department, or in a warehouse.
+ */
+@Embeddable
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+public class StockLocation {
+
+    public enum Type {
+        WAREHOUSE,
+        DEPARTMENT,
+        USER
+    }
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private Type type;
+
+    private Long locationId;
+
+    /**
+     * Current location of the item, or null if it is not placed anywhere
+     */
+    public static StockLocation of(InventoryItem item) {
+        if (item.getUser() != null) {
+            return new StockLocation(Type.USER, item.getUser().getId());
+        }
+        if (item.getDepartment() != null) {
+            return new StockLocation(Type.DEPARTMENT, item.getDepartment().getId());
+        }
+        if (item.getWarehouse() != null) {
+            return new StockLocation(Type.WAREHOUSE, item.getWarehouse().getId());
+        }
+        return null;
+    }
+}
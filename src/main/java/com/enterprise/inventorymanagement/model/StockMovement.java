@@ -0,0 +1,69 @@
+package com.enterprise.inventorymanagement.model;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * One change of an inventory item's quantity. Written once by {@code StockLedger}, never updated.
+ */
+@Entity
+@Immutable
+@Getter
+@Builder
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@Table(name = "stock_movements")
+public class StockMovement {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_movements_id_seq")
+    @SequenceGenerator(name = "stock_movements_id_seq", sequenceName = "stock_movements_id_seq", allocationSize = 50)
+    private Long id;
+
+    // Application clock; snapshots go by the writing transaction instead (see V63)
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+
+    @Column(name = "enterprise_id", nullable = false)
+    private Long enterpriseId;
+
+    @Column(name = "item_id", nullable = false)
+    private Long itemId;
+
+    @Column(name = "item_name", nullable = false)
+    private String itemName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "movement_type", nullable = false, length = 20)
+    private MovementType movementType;
+
+    @Embedded
+    @AttributeOverrides({
+        @AttributeOverride(name = "type", column = @Column(name = "from_location_type", length = 20)),
+        @AttributeOverride(name = "locationId", column = @Column(name = "from_location_id"))
+    })
+    private StockLocation from;
+
+    @Embedded
+    @AttributeOverrides({
+        @AttributeOverride(name = "type", column = @Column(name = "to_location_type", length = 20)),
+        @AttributeOverride(name = "locationId", column = @Column(name = "to_location_id"))
+    })
+    private StockLocation to;
+
+    @Column(nullable = false)
+    private Integer delta;
+
+    @Column(name = "actor_id")
+    private Long actorId;
+
+    @Column(name = "request_id")
+    private Long requestId;
+}
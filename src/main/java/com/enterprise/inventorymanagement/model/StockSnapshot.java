@@ -0,0 +1,40 @@
+package com.enterprise.inventorymanagement.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Marks a set of per-item balances in stock_snapshot_balances that account for every movement committed before
+ * the snapshot was taken at {@link #cutoff}. Which transactions those are is kept in the visible column, which the
+ * database fills in and only the ledger's native queries read.
+ */
+@Entity
+@Getter
+@NoArgsConstructor
+@Table(name = "stock_snapshots")
+public class StockSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDateTime cutoff;
+
+    @Column(name = "item_count", nullable = false)
+    private Integer itemCount = 0;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    public StockSnapshot(LocalDateTime cutoff) {
+        this.cutoff = cutoff;
+    }
+
+    public void setItemCount(Integer itemCount) {
+        this.itemCount = itemCount;
+    }
+}
@@ -0,0 +1,40 @@
+package com.enterprise.inventorymanagement.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.io.Serializable;
+
+/**
+ * Balance of one item in a {@link StockSnapshot}. Written in bulk by the snapshot job.
+ */
+@Entity
+@Immutable
+@Getter
+@IdClass(StockSnapshotBalance.Key.class)
+@Table(name = "stock_snapshot_balances")
+public class StockSnapshotBalance {
+
+    @Id
+    @Column(name = "snapshot_id")
+    private Long snapshotId;
+
+    @Id
+    @Column(name = "item_id")
+    private Long itemId;
+
+    @Column(nullable = false)
+    private Long balance;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long snapshotId;
+        private Long itemId;
+    }
+}
@@ -1,15 +1,21 @@
 package com.enterprise.inventorymanagement.model;
 
+import com.enterprise.inventorymanagement.security.PrincipalChangeListener;
+import com.enterprise.inventorymanagement.service.ScopeVersionListener;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 
@@ -18,10 +24,20 @@ import java.util.Set;
 @Setter
 @ToString(exclude = {"department", "enterprise", "role"})
 @Table(name = "users")
+@NamedEntityGraph(name = User.PRINCIPAL_GRAPH,
+        attributeNodes = {
+                @NamedAttributeNode(value = "role", subgraph = "role"),
+                @NamedAttributeNode("department")
+        },
+        subgraphs = @NamedSubgraph(name = "role", attributeNodes = @NamedAttributeNode("permissions")))
+@EntityListeners({PrincipalChangeListener.class, ScopeVersionListener.class})
 public class User {
+    public static final String PRINCIPAL_GRAPH = "User.principal";
+
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_id_seq")
+    @SequenceGenerator(name = "users_id_seq", sequenceName = "users_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "full_name", length = 100)
@@ -44,7 +60,7 @@ public class User {
     @Email(message = "Email should be valid")
     private String email;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "role_id", nullable = false)
     private Role role;
 
@@ -72,6 +88,21 @@ public class User {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    @JsonIgnore
+    @Column(name = "token_version", nullable = false)
+    private int tokenVersion;
+
+    @JsonIgnore
+    @Column(name = "token_version_updated_at", nullable = false)
+    private LocalDateTime tokenVersionUpdatedAt;
+
+    // What issued tokens carry about this user, as of load time
+    @JsonIgnore
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private List<Object> loadedPrincipalState;
+
     // Helper method to get permissions
     public Set<Permission> getPermissions() {
         return role != null ? role.getPermissions() : new HashSet<>();
@@ -92,6 +123,31 @@ public class User {
         return department != null ? department.getId() : null;
     }
 
+    @PostLoad
+    @PostPersist
+    protected void capturePrincipalState() {
+        loadedPrincipalState = principalState();
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        tokenVersionUpdatedAt = LocalDateTime.now();
+    }
+
+    // Invalidates tokens issued before a change to anything they carry
+    @PreUpdate
+    protected void onUpdate() {
+        if (loadedPrincipalState != null && !loadedPrincipalState.equals(principalState())) {
+            tokenVersion++;
+            tokenVersionUpdatedAt = LocalDateTime.now();
+        }
+    }
+
+    private List<Object> principalState() {
+        return Arrays.asList(username, fullName, email, password, active,
+                role != null ? role.getId() : null, getEnterpriseId(), getDepartmentId());
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
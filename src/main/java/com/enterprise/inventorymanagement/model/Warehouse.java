@@ -1,9 +1,11 @@
 package com.enterprise.inventorymanagement.model;
 
+import com.enterprise.inventorymanagement.service.ScopeVersionListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.Data;
+
 import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
@@ -11,9 +13,11 @@ import java.util.Set;
 @Entity
 @Data
 @Table(name = "warehouses")
+@EntityListeners(ScopeVersionListener.class)
 public class Warehouse {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "warehouses_id_seq")
+    @SequenceGenerator(name = "warehouses_id_seq", sequenceName = "warehouses_id_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Warehouse name is required")
@@ -0,0 +1,34 @@
+package com.enterprise.inventorymanagement.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Running stock totals of one warehouse. Maintained by the database (see V61), never written by the application.
+ */
+@Entity
+@Immutable
+@Getter
+@Table(name = "warehouse_stock_summary")
+public class WarehouseStockSummary {
+
+    @Id
+    @Column(name = "warehouse_id")
+    private Long warehouseId;
+
+    @Column(name = "total_units", nullable = false)
+    private Long totalUnits;
+
+    @Column(name = "distinct_skus", nullable = false)
+    private Integer distinctSkus;
+
+    @Column(name = "total_value", nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalValue;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -20,6 +20,15 @@ public class DepartmentDTO {
     private Long managerId;
     private String managerName;
     private int employeeCount;
-    private int itemCount;
+    private long itemCount;
+    private int distinctSkus;
     private Set<Long> employeeIds;
+
+    // Listing projection over department_stats; member ids are filled in afterwards with one more query
+    public DepartmentDTO(Long id, String name, String description, Long enterpriseId, String enterpriseName,
+                         Long managerId, String managerName, Integer employeeCount, Long itemCount,
+                         Integer distinctSkus) {
+        this(id, name, description, enterpriseId, enterpriseName, managerId, managerName,
+                employeeCount, itemCount, distinctSkus, null);
+    }
 }
\ No newline at end of file
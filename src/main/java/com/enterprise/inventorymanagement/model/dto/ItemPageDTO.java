@@ -0,0 +1,19 @@
+package com.enterprise.inventorymanagement.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemPageDTO {
+    private List<ItemDTO> items;
+    private int size;
+    private boolean hasMore;
+    private String nextCursor;
+}
@@ -0,0 +1,32 @@
+package com.enterprise.inventorymanagement.model.dto;
+
+import com.enterprise.inventorymanagement.model.RequestEventType;
+import com.enterprise.inventorymanagement.model.request.RequestStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * A change pushed to the clients subscribed to {@code /api/events}. It only says what changed and
+ * where; clients refetch the details they show.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RequestEventDTO {
+    private Long id;
+    private RequestEventType type;
+    private Long requestId;
+    private RequestStatus status;
+    private Long enterpriseId;
+    private Long warehouseId;
+    private Long departmentId;
+    private Long userId;
+    private List<Long> itemIds;
+    private LocalDateTime occurredAt;
+}
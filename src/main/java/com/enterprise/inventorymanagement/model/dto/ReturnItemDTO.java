@@ -0,0 +1,28 @@
+package com.enterprise.inventorymanagement.model.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One line of a bulk return. Department returns name the target warehouse,
+ * employee returns name the target department.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReturnItemDTO {
+    @NotNull(message = "Item ID is required")
+    private Long itemId;
+
+    @NotNull(message = "Quantity is required")
+    @Min(value = 1, message = "Quantity must be at least 1")
+    private Integer quantity;
+
+    private Long warehouseId;
+    private Long departmentId;
+}
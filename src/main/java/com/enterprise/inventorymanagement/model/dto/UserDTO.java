@@ -1,14 +1,18 @@
 package com.enterprise.inventorymanagement.model.dto;
 
 import com.enterprise.inventorymanagement.model.RoleName;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
 import java.time.LocalDateTime;
 
 @Getter
 @Setter
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class UserDTO {
     private Long id;
     private String fullName;
@@ -18,7 +22,16 @@ public class UserDTO {
     private String roleName;
     private Long enterpriseId;
     private Long managerId;
+    private String managerName;
     private Long departmentId;
     private String departmentName;
     private LocalDateTime createdAt;
+
+    // Listing projection: role, manager and department names come from the joins of one query
+    public UserDTO(Long id, String fullName, String username, String email, Boolean active, RoleName role,
+                   Long enterpriseId, Long managerId, String managerName, Long departmentId,
+                   String departmentName, LocalDateTime createdAt) {
+        this(id, fullName, username, email, active, role != null ? role.toString() : null,
+                enterpriseId, managerId, managerName, departmentId, departmentName, createdAt);
+    }
 }
@@ -1,10 +1,14 @@
 package com.enterprise.inventorymanagement.model.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class WarehouseDTO {
     private Long id;
     private String name;
@@ -0,0 +1,22 @@
+package com.enterprise.inventorymanagement.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WarehouseStockSummaryDTO {
+    private Long warehouseId;
+    private String warehouseName;
+    private Long totalUnits;
+    private Integer distinctSkus;
+    private BigDecimal totalValue;
+    private LocalDateTime updatedAt;
+}
@@ -16,7 +16,8 @@ import java.util.List;
 public class EmployeeItemRequest {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "employee_item_requests_id_seq")
+    @SequenceGenerator(name = "employee_item_requests_id_seq", sequenceName = "employee_item_requests_id_seq", allocationSize = 50)
     private Long id;
 
     // The employee who made the request
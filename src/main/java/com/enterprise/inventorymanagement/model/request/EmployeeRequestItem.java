@@ -12,7 +12,8 @@ import lombok.Setter;
 public class EmployeeRequestItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "employee_request_items_id_seq")
+    @SequenceGenerator(name = "employee_request_items_id_seq", sequenceName = "employee_request_items_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -16,7 +16,8 @@ import java.util.List;
 public class ItemRequest {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "item_requests_id_seq")
+    @SequenceGenerator(name = "item_requests_id_seq", sequenceName = "item_requests_id_seq", allocationSize = 50)
     private Long id;
 
     // The user (department manager) who made the request
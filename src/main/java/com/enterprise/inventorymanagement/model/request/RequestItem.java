@@ -12,7 +12,8 @@ import lombok.Setter;
 @Table(name = "request_items")
 public class RequestItem {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "request_items_id_seq")
+    @SequenceGenerator(name = "request_items_id_seq", sequenceName = "request_items_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
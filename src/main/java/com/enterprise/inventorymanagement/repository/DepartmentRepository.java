@@ -1,18 +1,73 @@
 package com.enterprise.inventorymanagement.repository;
 
 import com.enterprise.inventorymanagement.model.Department;
+import com.enterprise.inventorymanagement.model.dto.DepartmentDTO;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Repository
 public interface DepartmentRepository extends JpaRepository<Department, Long> {
     @Query("SELECT d FROM Department d WHERE d.enterprise.id = :enterpriseId")
     List<Department> findByEnterpriseId(@Param("enterpriseId") Long enterpriseId);
+
+    // Counts come from department_stats; departments without a stats row yet report zeros
+    String DTO_SELECT = "SELECT new com.enterprise.inventorymanagement.model.dto.DepartmentDTO(" +
+           "d.id, d.name, d.description, e.id, e.name, m.id, m.fullName, COALESCE(s.headcount, 0), ";
+    String DTO_FROM = "COALESCE(s.distinctSkus, 0)) " +
+           "FROM Department d " +
+           "JOIN d.enterprise e " +
+           "LEFT JOIN d.manager m " +
+           "LEFT JOIN DepartmentStats s ON s.departmentId = d.id " +
+           "WHERE e.id = :enterpriseId ORDER BY d.id";
+
+    /**
+     * Member of a department, for filling the member ids of a listing
+     */
+    interface Membership {
+        Long getDepartmentId();
+        Long getUserId();
+    }
+
+    // itemCount is the total number of units held
+    @Query(DTO_SELECT + "COALESCE(s.totalUnits, 0L), " + DTO_FROM)
+    List<DepartmentDTO> findAllDtoByEnterpriseId(@Param("enterpriseId") Long enterpriseId);
+
+    // itemCount is the number of item rows, including emptied ones, as the enterprise listing has always reported
+    @Query(DTO_SELECT + "COALESCE(s.itemRows, 0L), " + DTO_FROM)
+    List<DepartmentDTO> findAllDtoWithItemRowCountByEnterpriseId(@Param("enterpriseId") Long enterpriseId);
+
+    @Query("SELECT d.id AS departmentId, u.id AS userId FROM Department d JOIN d.employees u " +
+           "WHERE d.enterprise.id = :enterpriseId")
+    List<Membership> findMembershipsByEnterpriseId(@Param("enterpriseId") Long enterpriseId);
+
+    /**
+     * Fills the member ids of a department listing of the enterprise with one query. The listings have
+     * always included them, so they cost a second statement next to the department_stats read.
+     */
+    default List<DepartmentDTO> withEmployeeIds(Long enterpriseId, List<DepartmentDTO> departments) {
+        Map<Long, DepartmentDTO> byId = new HashMap<>();
+        for (DepartmentDTO department : departments) {
+            department.setEmployeeIds(new HashSet<>());
+            byId.put(department.getId(), department);
+        }
+        if (!byId.isEmpty()) {
+            for (Membership membership : findMembershipsByEnterpriseId(enterpriseId)) {
+                DepartmentDTO department = byId.get(membership.getDepartmentId());
+                if (department != null) {
+                    department.getEmployeeIds().add(membership.getUserId());
+                }
+            }
+        }
+        return departments;
+    }
     
     @Query("SELECT d FROM Department d WHERE d.id = :id AND d.enterprise.id = :enterpriseId")
     Optional<Department> findByIdAndEnterpriseId(@Param("id") Long id, @Param("enterpriseId") Long enterpriseId);
@@ -0,0 +1,46 @@
+package com.enterprise.inventorymanagement.repository;
+
+import com.enterprise.inventorymanagement.model.DepartmentStats;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface DepartmentStatsRepository extends JpaRepository<DepartmentStats, Long> {
+
+    // Recounts statistics from the item and membership rows, bypassing department_stats
+    String ACTUAL_SELECT = "SELECT d.id AS departmentId, " +
+           "(SELECT COALESCE(SUM(i.quantity), 0) FROM InventoryItem i WHERE i.department.id = d.id) AS totalUnits, " +
+           "(SELECT COUNT(i) FROM InventoryItem i WHERE i.department.id = d.id AND i.quantity > 0) AS distinctSkus, " +
+           "(SELECT COUNT(i) FROM InventoryItem i WHERE i.department.id = d.id) AS itemRows, " +
+           "(SELECT COUNT(e) FROM Department d2 JOIN d2.employees e WHERE d2.id = d.id) AS headcount " +
+           "FROM Department d ";
+
+    /**
+     * Statistics of one department as recounted from its items and members
+     */
+    interface Actual {
+        Long getDepartmentId();
+        Long getTotalUnits();
+        Long getDistinctSkus();
+        Long getItemRows();
+        Long getHeadcount();
+    }
+
+    // Locks the row the triggers update, so a recount cannot interleave with a concurrent delta
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM DepartmentStats s WHERE s.departmentId = :departmentId")
+    Optional<DepartmentStats> findForUpdate(@Param("departmentId") Long departmentId);
+
+    @Query(ACTUAL_SELECT + "ORDER BY d.id")
+    List<Actual> computeAll();
+
+    @Query(ACTUAL_SELECT + "WHERE d.id = :departmentId")
+    Optional<Actual> compute(@Param("departmentId") Long departmentId);
+}
@@ -2,6 +2,7 @@ package com.enterprise.inventorymanagement.repository;
 
 import com.enterprise.inventorymanagement.model.Enterprise;
 import jakarta.validation.constraints.NotNull;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -13,18 +14,11 @@ public interface EnterpriseRepository extends JpaRepository<Enterprise, Long> {
 
     @NotNull Optional<Enterprise> findById(@NotNull Long id);
 
-    @Query("SELECT DISTINCT e FROM Enterprise e " +
-           "LEFT JOIN FETCH e.employees emp " +
-           "LEFT JOIN FETCH emp.role " +
-           "LEFT JOIN FETCH emp.department " +
-           "LEFT JOIN FETCH e.departments d " +
-           "WHERE e.id = :id")
+    @EntityGraph(Enterprise.WITH_EMPLOYEES_GRAPH)
+    @Query("SELECT e FROM Enterprise e WHERE e.id = :id")
     Optional<Enterprise> findByIdWithEmployees(@Param("id") Long id);
 
-    @Query("SELECT DISTINCT e FROM Enterprise e " +
-           "LEFT JOIN FETCH e.employees emp " +
-           "LEFT JOIN FETCH emp.role " +
-           "LEFT JOIN FETCH emp.department " +
-           "LEFT JOIN FETCH e.departments")
+    @EntityGraph(Enterprise.WITH_EMPLOYEES_GRAPH)
+    @Query("SELECT e FROM Enterprise e")
     List<Enterprise> findAllWithEmployees();
 }
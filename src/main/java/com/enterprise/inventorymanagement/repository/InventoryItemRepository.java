@@ -1,20 +1,68 @@
 package com.enterprise.inventorymanagement.repository;
 
 import com.enterprise.inventorymanagement.model.InventoryItem;
+import com.enterprise.inventorymanagement.model.dto.ItemDTO;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface InventoryItemRepository extends JpaRepository<InventoryItem, Long> {
 
+    // Read-side projection: one statement per listing, no entity or association loads
+    String ITEM_DTO_SELECT = "SELECT new com.enterprise.inventorymanagement.model.dto.ItemDTO(" +
+           "i.id, i.name, i.description, i.quantity, w.id, w.name, d.id, d.name, e.id, e.name, " +
+           "u.id, u.username, i.checkedOutAt, i.dueDate, i.createdAt, i.updatedAt) " +
+           "FROM InventoryItem i " +
+           "JOIN i.enterprise e " +
+           "LEFT JOIN i.warehouse w " +
+           "LEFT JOIN i.department d " +
+           "LEFT JOIN i.user u ";
+
     List<InventoryItem> findByQuantityGreaterThan(int quantity);
 
     Optional<InventoryItem> findByName(String name);
 
-    List<InventoryItem> findByNameContainingIgnoreCase(String keyword);
+    /**
+     * Set the word similarity threshold used by {@code <%} for the rest of the current transaction only
+     */
+    @Query(value = "SELECT set_config('pg_trgm.word_similarity_threshold', :threshold, true)", nativeQuery = true)
+    String setWordSimilarityThreshold(@Param("threshold") String threshold);
+
+    /**
+     * Ranked ids of items matching a search term within one enterprise.
+     * Matches substrings of name and description, and tolerates typos through trigram word
+     * similarity at the threshold set by {@link #setWordSimilarityThreshold}; both branches are
+     * served by the GIN index from V58.
+     * @param term The lower-cased search term
+     * @param pattern The same term with LIKE wildcards escaped
+     */
+    @Query(value = "SELECT i.id FROM inventory_items i " +
+           "WHERE i.enterprise_id = :enterpriseId " +
+           "AND (i.search_text LIKE '%' || :pattern || '%' ESCAPE '\\' " +
+           "OR :term <% i.search_text) " +
+           "ORDER BY (lower(i.name) = :term) DESC, " +
+           "(lower(i.name) LIKE :pattern || '%' ESCAPE '\\') DESC, " +
+           "word_similarity(:term, i.search_text) DESC, " +
+           "i.id ASC " +
+           "LIMIT :limit OFFSET :offset", nativeQuery = true)
+    List<Long> searchIdsByEnterpriseId(
+            @Param("enterpriseId") Long enterpriseId,
+            @Param("term") String term,
+            @Param("pattern") String pattern,
+            @Param("limit") int limit,
+            @Param("offset") int offset);
+
+    @Query(ITEM_DTO_SELECT + "WHERE i.id IN :ids")
+    List<ItemDTO> findAllDtoByIdIn(@Param("ids") Collection<Long> ids);
 
     @Query("SELECT DISTINCT i FROM InventoryItem i " +
            "LEFT JOIN FETCH i.enterprise e " +
@@ -28,19 +76,77 @@ public interface InventoryItemRepository extends JpaRepository<InventoryItem, Lo
     @Query("SELECT COUNT(i) > 0 FROM InventoryItem i WHERE i.name = :name AND i.enterprise.id = :enterpriseId")
     boolean existsByNameAndEnterpriseId(@Param("name") String name, @Param("enterpriseId") Long enterpriseId);
 
-    @Query("SELECT i FROM InventoryItem i WHERE i.enterprise.id = :enterpriseId")
-    List<InventoryItem> findAllByEnterpriseId(@Param("enterpriseId") Long enterpriseId);
+    @Query(ITEM_DTO_SELECT + "WHERE i.id = :id")
+    Optional<ItemDTO> findDtoById(@Param("id") Long id);
+
+    @Query(ITEM_DTO_SELECT + "WHERE i.enterprise.id = :enterpriseId")
+    List<ItemDTO> findAllByEnterpriseId(@Param("enterpriseId") Long enterpriseId);
 
-    @Query("SELECT i FROM InventoryItem i WHERE i.warehouse.id = :warehouseId AND i.department IS NULL")
-    List<InventoryItem> findAllByWarehouseId(@Param("warehouseId") Long warehouseId);
+    @Query(ITEM_DTO_SELECT + "WHERE i.enterprise.id = :enterpriseId " +
+           "AND (i.name > :name OR (i.name = :name AND i.id > :id)) " +
+           "ORDER BY i.name ASC, i.id ASC")
+    List<ItemDTO> findPageByEnterpriseIdOrderByName(
+            @Param("enterpriseId") Long enterpriseId,
+            @Param("name") String name,
+            @Param("id") Long id,
+            Pageable pageable);
+
+    @Query(ITEM_DTO_SELECT + "WHERE i.enterprise.id = :enterpriseId " +
+           "AND (i.updatedAt < :updatedAt OR (i.updatedAt = :updatedAt AND i.id < :id)) " +
+           "ORDER BY i.updatedAt DESC, i.id DESC")
+    List<ItemDTO> findPageByEnterpriseIdOrderByUpdatedAt(
+            @Param("enterpriseId") Long enterpriseId,
+            @Param("updatedAt") LocalDateTime updatedAt,
+            @Param("id") Long id,
+            Pageable pageable);
+
+    @Query(ITEM_DTO_SELECT + "WHERE i.warehouse.id = :warehouseId AND i.department IS NULL " +
+           "AND (i.name > :name OR (i.name = :name AND i.id > :id)) " +
+           "ORDER BY i.name ASC, i.id ASC")
+    List<ItemDTO> findPageByWarehouseIdOrderByName(
+            @Param("warehouseId") Long warehouseId,
+            @Param("name") String name,
+            @Param("id") Long id,
+            Pageable pageable);
+
+    @Query(ITEM_DTO_SELECT + "WHERE i.warehouse.id = :warehouseId AND i.department IS NULL " +
+           "AND (i.updatedAt < :updatedAt OR (i.updatedAt = :updatedAt AND i.id < :id)) " +
+           "ORDER BY i.updatedAt DESC, i.id DESC")
+    List<ItemDTO> findPageByWarehouseIdOrderByUpdatedAt(
+            @Param("warehouseId") Long warehouseId,
+            @Param("updatedAt") LocalDateTime updatedAt,
+            @Param("id") Long id,
+            Pageable pageable);
+
+    @Query(ITEM_DTO_SELECT + "WHERE i.department.id = :departmentId AND i.user IS NULL " +
+           "AND (i.name > :name OR (i.name = :name AND i.id > :id)) " +
+           "ORDER BY i.name ASC, i.id ASC")
+    List<ItemDTO> findPageByDepartmentIdOrderByName(
+            @Param("departmentId") Long departmentId,
+            @Param("name") String name,
+            @Param("id") Long id,
+            Pageable pageable);
+
+    @Query(ITEM_DTO_SELECT + "WHERE i.department.id = :departmentId AND i.user IS NULL " +
+           "AND (i.updatedAt < :updatedAt OR (i.updatedAt = :updatedAt AND i.id < :id)) " +
+           "ORDER BY i.updatedAt DESC, i.id DESC")
+    List<ItemDTO> findPageByDepartmentIdOrderByUpdatedAt(
+            @Param("departmentId") Long departmentId,
+            @Param("updatedAt") LocalDateTime updatedAt,
+            @Param("id") Long id,
+            Pageable pageable);
+
+    @Query(ITEM_DTO_SELECT + "WHERE i.warehouse.id = :warehouseId AND i.department IS NULL")
+    List<ItemDTO> findAllByWarehouseId(@Param("warehouseId") Long warehouseId);
 
     @Query("SELECT SUM(i.quantity) FROM InventoryItem i WHERE i.warehouse.id = :warehouseId")
     Integer countItemsByWarehouseId(@Param("warehouseId") Long warehouseId);
 
-    @Query("SELECT i FROM InventoryItem i WHERE i.department.id = :departmentId AND i.user IS NULL")
-    List<InventoryItem> findAllByDepartmentId(@Param("departmentId") Long departmentId);
+    @Query(ITEM_DTO_SELECT + "WHERE i.department.id = :departmentId AND i.user IS NULL")
+    List<ItemDTO> findAllByDepartmentId(@Param("departmentId") Long departmentId);
 
-    List<InventoryItem> findAllByUserId(Long userId);
+    @Query(ITEM_DTO_SELECT + "WHERE i.user.id = :userId")
+    List<ItemDTO> findAllByUserId(@Param("userId") Long userId);
 
     List<InventoryItem> findByDepartment_Id(Long departmentId);
 
@@ -53,12 +159,48 @@ public interface InventoryItemRepository extends JpaRepository<InventoryItem, Lo
             @Param("departmentId") Long departmentId,
             @Param("userId") Long userId);
 
-    @Query("SELECT i FROM InventoryItem i WHERE i.warehouse.id = :warehouseId AND i.department IS NULL")
-    List<InventoryItem> findByWarehouse_Id(@Param("warehouseId") Long warehouseId);
-
     @Query("SELECT i FROM InventoryItem i WHERE i.name = :name AND i.warehouse.id = :warehouseId AND i.department IS NULL")
     Optional<InventoryItem> findByNameAndWarehouse_Id(@Param("name") String name, @Param("warehouseId") Long warehouseId);
 
     @Query("SELECT i FROM InventoryItem i WHERE i.name = :name AND i.department.id = :departmentId AND i.user IS NULL")
     Optional<InventoryItem> findByNameAndDepartment_Id(@Param("name") String name, @Param("departmentId") Long departmentId);
+
+    @Query("SELECT i FROM InventoryItem i LEFT JOIN FETCH i.user WHERE i.id IN :ids")
+    List<InventoryItem> findAllByIdInWithUser(@Param("ids") Collection<Long> ids);
+
+    // Served by the partial (warehouse_id, name, id) index; id order keeps concurrent row updates in a stable order
+    @Query("SELECT i FROM InventoryItem i WHERE i.warehouse.id IN :warehouseIds AND i.department IS NULL " +
+           "AND i.name IN :names ORDER BY i.id")
+    List<InventoryItem> findWarehouseStockByNames(@Param("warehouseIds") Collection<Long> warehouseIds,
+                                                  @Param("names") Collection<String> names);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM InventoryItem i WHERE i.warehouse.id IN :warehouseIds AND i.department IS NULL " +
+           "AND i.name IN :names ORDER BY i.id")
+    List<InventoryItem> findWarehouseStockByNamesForUpdate(@Param("warehouseIds") Collection<Long> warehouseIds,
+                                                           @Param("names") Collection<String> names);
+
+    @Query("SELECT i FROM InventoryItem i WHERE i.department.id IN :departmentIds AND i.user IS NULL AND i.name IN :names")
+    List<InventoryItem> findDepartmentStockByNames(@Param("departmentIds") Collection<Long> departmentIds,
+                                                   @Param("names") Collection<String> names);
+
+    @Query("SELECT i.quantity FROM InventoryItem i WHERE i.id = :id")
+    Optional<Integer> findQuantityById(@Param("id") Long id);
+
+    // Conditional decrement: returns 0 instead of going negative when the stock moved underneath us
+    @Modifying
+    @Query("UPDATE InventoryItem i SET i.quantity = i.quantity - :amount, i.updatedAt = LOCAL DATETIME " +
+           "WHERE i.id = :id AND i.quantity >= :amount")
+    int decrementQuantity(@Param("id") Long id, @Param("amount") int amount);
+
+    @Modifying
+    @Query("UPDATE InventoryItem i SET i.quantity = i.quantity + :amount, i.updatedAt = LOCAL DATETIME WHERE i.id = :id")
+    int incrementQuantity(@Param("id") Long id, @Param("amount") int amount);
+
+    // Drained rows still referenced by a request line are kept at zero
+    @Modifying
+    @Query("DELETE FROM InventoryItem i WHERE i.id IN :ids AND i.quantity = 0 " +
+           "AND NOT EXISTS (SELECT r.id FROM RequestItem r WHERE r.inventoryItem = i) " +
+           "AND NOT EXISTS (SELECT e.id FROM EmployeeRequestItem e WHERE e.inventoryItem = i)")
+    int deleteEmptyByIdIn(@Param("ids") Collection<Long> ids);
 }
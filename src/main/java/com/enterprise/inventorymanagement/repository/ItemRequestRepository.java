@@ -2,11 +2,16 @@ package com.enterprise.inventorymanagement.repository;
 
 import com.enterprise.inventorymanagement.model.request.ItemRequest;
 import com.enterprise.inventorymanagement.model.request.RequestStatus;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -74,4 +79,36 @@ public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long>
            "LEFT JOIN FETCH r.targetDepartment " +
            "WHERE r.targetDepartment.id = :departmentId AND r.status = :status")
     List<ItemRequest> findByTargetDepartmentIdAndStatus(@Param("departmentId") Long departmentId, @Param("status") RequestStatus status);
+
+    // Moves a request out of PENDING only once, however many operators act on it concurrently
+    @Modifying
+    @Query("UPDATE ItemRequest r SET r.status = :status, r.responseComments = :responseComments, " +
+           "r.processedDate = :processedDate " +
+           "WHERE r.id = :id AND r.status = com.enterprise.inventorymanagement.model.request.RequestStatus.PENDING")
+    int completePendingRequest(@Param("id") Long id,
+                               @Param("status") RequestStatus status,
+                               @Param("responseComments") String responseComments,
+                               @Param("processedDate") LocalDateTime processedDate);
+
+    // Id order, so batches locking overlapping requests queue behind each other instead of deadlocking
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM ItemRequest r WHERE r.id IN :ids ORDER BY r.id")
+    List<ItemRequest> findAllByIdInForUpdate(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT DISTINCT r FROM ItemRequest r " +
+           "LEFT JOIN FETCH r.requestItems ri " +
+           "LEFT JOIN FETCH ri.inventoryItem " +
+           "LEFT JOIN FETCH r.sourceWarehouse " +
+           "LEFT JOIN FETCH r.targetDepartment " +
+           "WHERE r.id IN :ids")
+    List<ItemRequest> findAllByIdInWithItems(@Param("ids") Collection<Long> ids);
+
+    // [request id, source warehouse id] pairs
+    @Query("SELECT r.id, r.sourceWarehouse.id FROM ItemRequest r WHERE r.id IN :ids")
+    List<Object[]> findSourceWarehouseIds(@Param("ids") Collection<Long> ids);
+
+    // [enterprise id, warehouse id, department id, requester id] of a request, for its status events
+    @Query("SELECT w.enterprise.id, w.id, r.targetDepartment.id, r.requester.id FROM ItemRequest r " +
+           "JOIN r.sourceWarehouse w WHERE r.id = :id")
+    List<Object[]> findEventScope(@Param("id") Long id);
 }
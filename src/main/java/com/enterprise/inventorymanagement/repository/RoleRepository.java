@@ -1,11 +1,7 @@
 package com.enterprise.inventorymanagement.repository;
 
 import com.enterprise.inventorymanagement.model.Role;
-import com.enterprise.inventorymanagement.model.RoleName;
 import org.springframework.data.jpa.repository.JpaRepository;
 
-import java.util.Optional;
-
-public interface RoleRepository extends JpaRepository<Role, Long> {
-    Optional<Role> findByName(RoleName name);
+public interface RoleRepository extends JpaRepository<Role, Long>, RoleRepositoryCustom {
 }
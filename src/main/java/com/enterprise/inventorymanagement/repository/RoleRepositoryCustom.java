@@ -0,0 +1,14 @@
+package com.enterprise.inventorymanagement.repository;
+
+import com.enterprise.inventorymanagement.model.Role;
+import com.enterprise.inventorymanagement.model.RoleName;
+
+import java.util.Optional;
+
+public interface RoleRepositoryCustom {
+
+    /**
+     * Resolves a role through its natural id, so repeated lookups are served by the second-level cache.
+     */
+    Optional<Role> findByName(RoleName name);
+}
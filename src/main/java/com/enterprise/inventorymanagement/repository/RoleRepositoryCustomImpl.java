@@ -0,0 +1,22 @@
+package com.enterprise.inventorymanagement.repository;
+
+import com.enterprise.inventorymanagement.model.Role;
+import com.enterprise.inventorymanagement.model.RoleName;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+class RoleRepositoryCustomImpl implements RoleRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Role> findByName(RoleName name) {
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(Role.class).loadOptional(name);
+    }
+}
@@ -0,0 +1,22 @@
+package com.enterprise.inventorymanagement.repository;
+
+import com.enterprise.inventorymanagement.model.StockMovement;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface StockMovementRepository extends JpaRepository<StockMovement, Long> {
+
+    // Bounded by time so the BRIN index on occurred_at limits the scan to the requested window
+    @Query("SELECT m FROM StockMovement m WHERE m.itemId = :itemId " +
+           "AND m.occurredAt >= :from AND m.occurredAt < :to ORDER BY m.occurredAt, m.id")
+    List<StockMovement> findItemHistory(
+            @Param("itemId") Long itemId,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
+}
@@ -0,0 +1,71 @@
+package com.enterprise.inventorymanagement.repository;
+
+import com.enterprise.inventorymanagement.model.StockSnapshot;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface StockSnapshotRepository extends JpaRepository<StockSnapshot, Long> {
+
+    // Latest snapshot balances plus the movements of the transactions its database snapshot does not see,
+    // read as one statement so a snapshot committing meanwhile cannot be half applied. Transactions below
+    // the snapshot's xmin were all folded in, so only the tail of the history is scanned.
+    String CURRENT_BALANCES =
+           "WITH latest AS (SELECT id, visible FROM stock_snapshots ORDER BY cutoff DESC, id DESC LIMIT 1) " +
+           "SELECT t.item_id, SUM(t.amount) FROM (" +
+           "SELECT b.item_id, b.balance AS amount FROM stock_snapshot_balances b " +
+           "WHERE b.snapshot_id = (SELECT id FROM latest) " +
+           "UNION ALL " +
+           "SELECT m.item_id, m.delta AS amount FROM stock_movements m " +
+           "WHERE NOT EXISTS (SELECT 1 FROM latest) " +
+           "OR (m.xact_id >= (SELECT pg_snapshot_xmin(visible) FROM latest) " +
+           "AND NOT pg_visible_in_snapshot(m.xact_id, (SELECT visible FROM latest)))" +
+           ") t ";
+
+    Optional<StockSnapshot> findFirstByOrderByCutoffDescIdDesc();
+
+    List<StockSnapshot> findAllByOrderByCutoffDescIdDesc();
+
+    /**
+     * Rows of [item id, balance] for every item with a non-zero balance
+     */
+    @Query(value = CURRENT_BALANCES + "GROUP BY t.item_id HAVING SUM(t.amount) <> 0", nativeQuery = true)
+    List<Object[]> findCurrentBalances();
+
+    @Query(value = CURRENT_BALANCES + "WHERE t.item_id = :itemId GROUP BY t.item_id", nativeQuery = true)
+    List<Object[]> findCurrentBalance(@Param("itemId") Long itemId);
+
+    /**
+     * Writes the balances of a new snapshot: the previous snapshot's balances plus the movements of the
+     * transactions that committed between the two database snapshots. A transaction that commits after
+     * the new snapshot is left to the next one, however long ago its movements were stamped.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "stock_snapshot_balances"))
+    @Query(value = "INSERT INTO stock_snapshot_balances (snapshot_id, item_id, balance) " +
+           "SELECT :snapshotId, t.item_id, SUM(t.amount) FROM (" +
+           "SELECT b.item_id, b.balance AS amount FROM stock_snapshot_balances b WHERE b.snapshot_id = :previousId " +
+           "UNION ALL " +
+           "SELECT m.item_id, m.delta AS amount FROM stock_movements m " +
+           "JOIN stock_snapshots s ON s.id = :snapshotId " +
+           "LEFT JOIN stock_snapshots p ON p.id = :previousId " +
+           "WHERE pg_visible_in_snapshot(m.xact_id, s.visible) " +
+           "AND (p.id IS NULL " +
+           "OR (m.xact_id >= pg_snapshot_xmin(p.visible) AND NOT pg_visible_in_snapshot(m.xact_id, p.visible)))" +
+           ") t GROUP BY t.item_id HAVING SUM(t.amount) <> 0", nativeQuery = true)
+    int insertBalances(@Param("snapshotId") Long snapshotId, @Param("previousId") Long previousId);
+
+    @Modifying
+    @Query("DELETE FROM StockSnapshotBalance b WHERE b.snapshotId IN :snapshotIds")
+    int deleteBalancesBySnapshotIdIn(@Param("snapshotIds") Collection<Long> snapshotIds);
+}
@@ -1,25 +1,68 @@
 package com.enterprise.inventorymanagement.repository;
 
+import com.enterprise.inventorymanagement.model.RoleName;
 import com.enterprise.inventorymanagement.model.User;
+import com.enterprise.inventorymanagement.model.dto.UserDTO;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
+
+    // Role, permissions and department in one statement, for building a principal
+    @EntityGraph(User.PRINCIPAL_GRAPH)
+    Optional<User> findPrincipalByUsername(String username);
+    @EntityGraph(User.PRINCIPAL_GRAPH)
+    Optional<User> findPrincipalById(Long id);
+
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
     @Query("SELECT u FROM User u LEFT JOIN FETCH u.department WHERE u.id = :id")
     Optional<User> findByIdWithDepartment(@Param("id") Long id);
+    // Keyset page of a department's members in id order, which the department_employees primary key serves
+    @Query("SELECT new com.enterprise.inventorymanagement.model.dto.UserDTO(" +
+           "u.id, u.fullName, u.username, u.email, u.active, r.name, u.enterprise.id, m.id, m.fullName, " +
+           "d.id, d.name, u.createdAt) " +
+           "FROM Department d " +
+           "JOIN d.employees u " +
+           "JOIN u.role r " +
+           "LEFT JOIN u.manager m " +
+           "WHERE d.id = :departmentId AND u.id > :afterId " +
+           "AND (:role IS NULL OR r.name = :role) " +
+           "AND (lower(u.fullName) LIKE :pattern ESCAPE '\\' OR lower(u.username) LIKE :pattern ESCAPE '\\') " +
+           "ORDER BY u.id ASC")
+    List<UserDTO> findEmployeePageByDepartmentId(
+            @Param("departmentId") Long departmentId,
+            @Param("afterId") Long afterId,
+            @Param("role") RoleName role,
+            @Param("pattern") String pattern,
+            Pageable pageable);
+
     @Query("SELECT u FROM User u WHERE u.manager.id = :managerId")
     List<User> findByManagerId(@Param("managerId") Long managerId);
-    @Query("SELECT DISTINCT u FROM User u LEFT JOIN FETCH u.enterprise LEFT JOIN FETCH u.department WHERE u.enterprise.id = :enterpriseId")
+    @Query("SELECT DISTINCT u FROM User u LEFT JOIN FETCH u.enterprise LEFT JOIN FETCH u.department JOIN FETCH u.role WHERE u.enterprise.id = :enterpriseId")
     List<User> findByEnterpriseId(@Param("enterpriseId") Long enterpriseId);
     Optional<User> findByEmailAndActive(String email, boolean active);
 
+    // Bulk update on purpose: re-hashing the same password must not bump the token version
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password WHERE u.username = :username")
+    int updatePasswordHash(@Param("username") String username, @Param("password") String password);
+
+    // Invalidates the tokens of a department's members, which carry its name
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE User u SET u.tokenVersion = u.tokenVersion + 1, u.tokenVersionUpdatedAt = :now " +
+           "WHERE u.department.id = :departmentId")
+    int bumpTokenVersionsByDepartmentId(@Param("departmentId") Long departmentId, @Param("now") LocalDateTime now);
+
     @Query("SELECT DISTINCT u FROM User u " +
            "LEFT JOIN FETCH u.department " +
            "LEFT JOIN FETCH u.role " +
@@ -27,4 +70,17 @@ public interface UserRepository extends JpaRepository<User, Long> {
            "AND u.department IS NULL " +
            "AND u.enterprise.id = :enterpriseId")
     List<User> findAvailableEmployees(@Param("enterpriseId") Long enterpriseId);
+
+    interface TokenVersion {
+        Long getId();
+        int getTokenVersion();
+        LocalDateTime getTokenVersionUpdatedAt();
+    }
+
+    @Query("SELECT u.id AS id, u.tokenVersion AS tokenVersion, u.tokenVersionUpdatedAt AS tokenVersionUpdatedAt FROM User u")
+    List<TokenVersion> findAllTokenVersions();
+
+    @Query("SELECT u.id AS id, u.tokenVersion AS tokenVersion, u.tokenVersionUpdatedAt AS tokenVersionUpdatedAt " +
+           "FROM User u WHERE u.tokenVersionUpdatedAt >= :since")
+    List<TokenVersion> findTokenVersionsChangedSince(@Param("since") LocalDateTime since);
 }
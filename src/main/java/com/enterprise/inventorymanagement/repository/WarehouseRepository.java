@@ -1,6 +1,8 @@
 package com.enterprise.inventorymanagement.repository;
 
 import com.enterprise.inventorymanagement.model.Warehouse;
+import com.enterprise.inventorymanagement.model.dto.WarehouseDTO;
+import com.enterprise.inventorymanagement.model.dto.WarehouseStockSummaryDTO;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -11,13 +13,35 @@ import java.util.Optional;
 
 @Repository
 public interface WarehouseRepository extends JpaRepository<Warehouse, Long> {
-    @Query("SELECT DISTINCT w FROM Warehouse w " +
-           "LEFT JOIN FETCH w.enterprise " +
-           "LEFT JOIN FETCH w.manager " +
-           "LEFT JOIN FETCH w.operator " +
-           "WHERE w.enterprise.id = :enterpriseId")
-    List<Warehouse> findByEnterpriseId(@Param("enterpriseId") Long enterpriseId);
-    
+
+    // Read-side projection: warehouse, manager and operator names and the unit count in one grouped statement
+    String WAREHOUSE_DTO_SELECT = "SELECT new com.enterprise.inventorymanagement.model.dto.WarehouseDTO(" +
+           "w.id, w.name, w.description, w.location, m.id, e.id, e.name, m.fullName, o.id, o.fullName, " +
+           "CAST(COALESCE(SUM(i.quantity), 0) AS Integer)) " +
+           "FROM Warehouse w " +
+           "JOIN w.enterprise e " +
+           "LEFT JOIN w.manager m " +
+           "LEFT JOIN w.operator o " +
+           "LEFT JOIN w.items i ";
+    String WAREHOUSE_DTO_GROUP_BY = "GROUP BY w.id, w.name, w.description, w.location, m.id, e.id, e.name, " +
+           "m.fullName, o.id, o.fullName ";
+
+    @Query(WAREHOUSE_DTO_SELECT + "WHERE e.id = :enterpriseId " + WAREHOUSE_DTO_GROUP_BY + "ORDER BY w.id")
+    List<WarehouseDTO> findAllDtoByEnterpriseId(@Param("enterpriseId") Long enterpriseId);
+
+    @Query(WAREHOUSE_DTO_SELECT + "WHERE w.id = :id " + WAREHOUSE_DTO_GROUP_BY)
+    Optional<WarehouseDTO> findDtoById(@Param("id") Long id);
+
+    @Query(WAREHOUSE_DTO_SELECT + "WHERE o.id = :operatorId " + WAREHOUSE_DTO_GROUP_BY)
+    Optional<WarehouseDTO> findDtoByOperatorId(@Param("operatorId") Long operatorId);
+
+    // Warehouses without stock yet have no summary row and report zeros
+    @Query("SELECT new com.enterprise.inventorymanagement.model.dto.WarehouseStockSummaryDTO(" +
+           "w.id, w.name, COALESCE(s.totalUnits, 0L), COALESCE(s.distinctSkus, 0), COALESCE(s.totalValue, 0), s.updatedAt) " +
+           "FROM Warehouse w LEFT JOIN WarehouseStockSummary s ON s.warehouseId = w.id " +
+           "WHERE w.enterprise.id = :enterpriseId ORDER BY w.id")
+    List<WarehouseStockSummaryDTO> findStockSummariesByEnterpriseId(@Param("enterpriseId") Long enterpriseId);
+
     @Query("SELECT w FROM Warehouse w WHERE w.id = :id AND w.enterprise.id = :enterpriseId")
     Optional<Warehouse> findByIdAndEnterpriseId(@Param("id") Long id, @Param("enterpriseId") Long enterpriseId);
     
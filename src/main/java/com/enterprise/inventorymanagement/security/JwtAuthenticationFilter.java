@@ -1,6 +1,9 @@
 package com.enterprise.inventorymanagement.security;
 
 import com.enterprise.inventorymanagement.service.UserDetailsServiceImpl;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -27,20 +30,36 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Present only when claims-based authentication is enabled
+    @Autowired(required = false)
+    private TokenVersionRegistry tokenVersionRegistry;
+
     private static final Logger log = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
+        Timer.Sample sample = null;
+        String outcome = "error";
         try {
             String jwt = getJwtFromRequest(request);
             log.debug("Processing request for path: {}", request.getServletPath());
             log.debug("JWT token present: {}", jwt != null);
 
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)
-                    && SecurityContextHolder.getContext().getAuthentication() == null) {
-                Long userId = tokenProvider.getUserIdFromJWT(jwt);
-                UserDetails userDetails = userDetailsService.loadUserById(userId);
+            Claims claims = null;
+            if (StringUtils.hasText(jwt) && SecurityContextHolder.getContext().getAuthentication() == null) {
+                sample = Timer.start(meterRegistry);
+                // Verified once; everything below reads the same claims
+                claims = tokenProvider.getVerifiedClaims(jwt);
+                outcome = claims != null ? "disabled" : "invalid";
+            }
+
+            if (claims != null) {
+                Long userId = Long.parseLong(claims.getSubject());
+                UserDetails userDetails = loadUserDetails(claims, userId);
 
                 if (userDetails != null && userDetails.isEnabled()) {
                     UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
@@ -52,6 +71,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                     authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authentication);
                     log.debug("Authentication set in SecurityContext for user: {}", userDetails.getUsername());
+                    outcome = "authenticated";
                 } else {
                     log.warn("User {} is disabled or not found; skipping authentication", userId);
                 }
@@ -60,10 +80,24 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             log.error("Cannot set user authentication: {}", ex.getMessage());
             log.error("Stack trace:", ex);
         }
+        if (sample != null) {
+            sample.stop(meterRegistry.timer("security.jwt.authentication", "outcome", outcome));
+        }
 
         filterChain.doFilter(request, response);
     }
 
+    // Trust the token's own claims while its version is current, otherwise rebuild the principal from the database
+    private UserDetails loadUserDetails(Claims claims, Long userId) {
+        if (tokenVersionRegistry != null) {
+            if (tokenVersionRegistry.isCurrent(userId, tokenProvider.getTokenVersion(claims))) {
+                return tokenProvider.getUserDetailsFromClaims(claims);
+            }
+            log.debug("Token of user {} carries an outdated version; loading the user", userId);
+        }
+        return userDetailsService.loadUserById(userId);
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
@@ -15,13 +15,16 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 import com.enterprise.inventorymanagement.service.UserDetailsImpl;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Component
@@ -35,8 +38,15 @@ public class JwtTokenProvider {
     @Value("${app.jwtExpirationMs:${JWT_EXPIRATION_MS:86400000}}")
     private int jwtExpirationMs;
 
+    @Value("${app.security.token-cache.max-size:10000}")
+    private int tokenCacheMaxSize;
+
+    @Value("${app.security.token-cache.ttl-ms:300000}")
+    private long tokenCacheTtlMs;
+
     private SecretKey key;
     private JwtParser jwtParser;
+    private VerifiedTokenCache verifiedTokens;
 
     @PostConstruct
     public void init() {
@@ -53,6 +63,7 @@ public class JwtTokenProvider {
         jwtParser = Jwts.parserBuilder()
                 .setSigningKey(key)
                 .build();
+        verifiedTokens = new VerifiedTokenCache(tokenCacheMaxSize, tokenCacheTtlMs);
     }
 
     public String generateToken(Authentication authentication) {
@@ -84,6 +95,7 @@ public class JwtTokenProvider {
                 .claim("departmentName", userPrincipal.getDepartmentName())
                 .claim("role", roleWithPrefix)
                 .claim("authorities", authorities)
+                .claim("tokenVersion", userPrincipal.getTokenVersion())
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
                 .signWith(key, SignatureAlgorithm.HS512)
@@ -120,17 +132,75 @@ public class JwtTokenProvider {
         return claims;
     }
 
+    /**
+     * Build the principal straight from verified claims, without touching the database
+     */
+    public UserDetailsImpl getUserDetailsFromClaims(Claims claims) {
+        String role = claims.get("role", String.class);
+        Integer tokenVersion = getTokenVersion(claims);
+
+        Set<GrantedAuthority> authorities = new HashSet<>();
+        authorities.add(new SimpleGrantedAuthority(role));
+        List<?> additional = claims.get("authorities", List.class);
+        if (additional != null) {
+            additional.forEach(authority -> authorities.add(new SimpleGrantedAuthority(String.valueOf(authority))));
+        }
+
+        return new UserDetailsImpl(
+                Long.parseLong(claims.getSubject()),
+                claims.get("username", String.class),
+                claims.get("fullName", String.class),
+                claims.get("email", String.class),
+                null,
+                claims.get("enterpriseId", Long.class),
+                claims.get("departmentId", Long.class),
+                claims.get("departmentName", String.class),
+                role,
+                authorities,
+                true,
+                tokenVersion != null ? tokenVersion : 0
+        );
+    }
+
+    /**
+     * The token version the claims were issued with, or null for tokens that predate versioning
+     */
+    public Integer getTokenVersion(Claims claims) {
+        return claims.get("tokenVersion", Integer.class);
+    }
+
     public boolean validateToken(String authToken) {
+        return getVerifiedClaims(authToken) != null;
+    }
+
+    /**
+     * Verify a token and return its claims, or null when the token is not valid.
+     * Tokens verified recently are served from a cache until they expire.
+     */
+    public Claims getVerifiedClaims(String authToken) {
+        Claims cached = verifiedTokens.get(authToken);
+        if (cached != null) {
+            return cached;
+        }
+
+        Claims claims = verify(authToken);
+        if (claims != null) {
+            verifiedTokens.put(authToken, claims);
+        }
+        return claims;
+    }
+
+    private Claims verify(String authToken) {
         try {
             Claims claims = jwtParser.parseClaimsJws(authToken).getBody();
 
             if (claims.get("role") == null) {
                 logger.error("Token validation failed: no role claim");
-                return false;
+                return null;
             }
             
             logger.debug("Token validation successful");
-            return true;
+            return claims;
         } catch (SignatureException ex) {
             logger.error("Invalid JWT signature: {}", ex.getMessage());
         } catch (MalformedJwtException ex) {
@@ -142,6 +212,6 @@ public class JwtTokenProvider {
         } catch (IllegalArgumentException ex) {
             logger.error("JWT claims string is empty: {}", ex.getMessage());
         }
-        return false;
+        return null;
     }
 }
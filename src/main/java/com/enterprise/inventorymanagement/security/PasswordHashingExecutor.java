@@ -0,0 +1,147 @@
+package com.enterprise.inventorymanagement.security;
+
+import com.enterprise.inventorymanagement.exceptions.PasswordHashingRejectedException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Fixed-size pool with a bounded queue that runs password hashing and verification off the
+ * servlet threads. Once every worker is busy and the queue is full, new work is rejected at once
+ * with {@link PasswordHashingRejectedException}, so a login storm cannot take the other endpoints down.
+ */
+@Component
+public class PasswordHashingExecutor implements MeterBinder {
+
+    private final ThreadPoolExecutor executor;
+    private final AtomicLong rejected = new AtomicLong();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder totalRunNanos = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxRunNanos = new AtomicLong();
+
+    public PasswordHashingExecutor(@Value("${app.security.password-hashing.threads:0}") int threads,
+                                   @Value("${app.security.password-hashing.queue-capacity:200}") int queueCapacity) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), threadFactory(),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Run a task that hashes or verifies a password on the hashing pool
+     *
+     * @throws PasswordHashingRejectedException if the pool and its queue are full
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        long queuedAt = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> run(task, queuedAt), executor);
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            throw new PasswordHashingRejectedException("Password hashing capacity exhausted");
+        }
+    }
+
+    public int getPoolSize() {
+        return executor.getMaximumPoolSize();
+    }
+
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public int getQueueCapacity() {
+        return executor.getQueue().size() + executor.getQueue().remainingCapacity();
+    }
+
+    public long getCompletedCount() {
+        return completed.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    public double getAverageRunMillis() {
+        long count = completed.sum();
+        return count == 0 ? 0 : totalRunNanos.sum() / 1_000_000.0 / count;
+    }
+
+    public double getAverageWaitMillis() {
+        long count = completed.sum();
+        return count == 0 ? 0 : totalWaitNanos.sum() / 1_000_000.0 / count;
+    }
+
+    public double getMaxRunMillis() {
+        return maxRunNanos.get() / 1_000_000.0;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("password.hashing.queue.depth", this, PasswordHashingExecutor::getQueueDepth)
+                .description("Logins waiting for a hashing worker")
+                .register(registry);
+        Gauge.builder("password.hashing.active", this, PasswordHashingExecutor::getActiveCount)
+                .description("Hashing workers currently busy")
+                .register(registry);
+        FunctionCounter.builder("password.hashing.rejected", this, PasswordHashingExecutor::getRejectedCount)
+                .description("Logins rejected because the hashing pool was saturated")
+                .register(registry);
+        FunctionTimer.builder("password.hashing.run", this, PasswordHashingExecutor::getCompletedCount,
+                        executor -> executor.totalRunNanos.sum(), TimeUnit.NANOSECONDS)
+                .description("Time spent hashing or verifying on a worker")
+                .register(registry);
+        FunctionTimer.builder("password.hashing.wait", this, PasswordHashingExecutor::getCompletedCount,
+                        executor -> executor.totalWaitNanos.sum(), TimeUnit.NANOSECONDS)
+                .description("Time spent queued before a worker picked the task up")
+                .register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private <T> T run(Supplier<T> task, long queuedAt) {
+        long startedAt = System.nanoTime();
+        try {
+            return task.get();
+        } finally {
+            long runNanos = System.nanoTime() - startedAt;
+            totalWaitNanos.add(startedAt - queuedAt);
+            totalRunNanos.add(runNanos);
+            maxRunNanos.accumulateAndGet(runNanos, Math::max);
+            completed.increment();
+        }
+    }
+
+    private static ThreadFactory threadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "password-hashing-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,103 @@
+package com.enterprise.inventorymanagement.security;
+
+import com.enterprise.inventorymanagement.service.UserDetailsImpl;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Size-bounded, time-limited cache of the principals built for authenticated requests,
+ * keyed by user id. Caffeine evicts by frequency and recency once it is full, in constant time per miss. Entries are dropped by {@link PrincipalChangeListener} when the user,
+ * their department or their role changes, and expire after the configured TTL otherwise.
+ */
+@Component
+public class PrincipalCache {
+
+    private final Cache<Long, UserDetailsImpl> entries;
+    private final AtomicLong invalidations = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    private final boolean enabled;
+
+    public PrincipalCache(@Value("${app.security.principal-cache.enabled:true}") boolean enabled,
+                          @Value("${app.security.principal-cache.max-size:10000}") int maxSize,
+                          @Value("${app.security.principal-cache.ttl:60s}") Duration ttl) {
+        this.enabled = enabled;
+        // Evictions run on the calling thread, so the bound holds as soon as a put returns
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .executor(Runnable::run)
+                .build();
+    }
+
+    /**
+     * Return the cached principal of a user, building it with the loader on a miss
+     */
+    public UserDetailsImpl get(Long userId, Function<Long, UserDetailsImpl> loader) {
+        if (!enabled) {
+            return loader.apply(userId);
+        }
+
+        UserDetailsImpl cached = entries.getIfPresent(userId);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached;
+        }
+
+        misses.incrementAndGet();
+        long observed = invalidations.get();
+        UserDetailsImpl principal = loader.apply(userId);
+        // A principal loaded while an invalidation ran may already be stale
+        if (invalidations.get() == observed) {
+            entries.put(userId, principal);
+        }
+        return principal;
+    }
+
+    public void invalidate(Long userId) {
+        invalidations.incrementAndGet();
+        entries.invalidate(userId);
+        afterTransaction(() -> entries.invalidate(userId));
+    }
+
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        entries.invalidateAll();
+        afterTransaction(entries::invalidateAll);
+    }
+
+    public long size() {
+        entries.cleanUp();
+        return entries.estimatedSize();
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    // Requests running before the change commits can still load the old row, so evict once more afterwards
+    private void afterTransaction(Runnable eviction) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidations.incrementAndGet();
+                    eviction.run();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.enterprise.inventorymanagement.security;
+
+import com.enterprise.inventorymanagement.model.User;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Drops cached principals when an entity they were built from is updated or removed.
+ * A changed user evicts only that user; department and role changes clear the cache.
+ * User changes are also forwarded to the token version registry when claims-based
+ * authentication is enabled.
+ */
+public class PrincipalChangeListener {
+
+    private final ObjectProvider<PrincipalCache> principalCache;
+    private final ObjectProvider<TokenVersionRegistry> tokenVersions;
+
+    public PrincipalChangeListener(ObjectProvider<PrincipalCache> principalCache,
+                                   ObjectProvider<TokenVersionRegistry> tokenVersions) {
+        this.principalCache = principalCache;
+        this.tokenVersions = tokenVersions;
+    }
+
+    @PostPersist
+    public void onCreate(Object entity) {
+        if (entity instanceof User user) {
+            tokenVersions.ifAvailable(registry -> registry.update(user.getId(), user.getTokenVersion()));
+        }
+    }
+
+    @PostUpdate
+    public void onUpdate(Object entity) {
+        onChange(entity);
+        if (entity instanceof User user) {
+            tokenVersions.ifAvailable(registry -> registry.update(user.getId(), user.getTokenVersion()));
+        }
+    }
+
+    @PostRemove
+    public void onRemove(Object entity) {
+        onChange(entity);
+        if (entity instanceof User user) {
+            tokenVersions.ifAvailable(registry -> registry.remove(user.getId()));
+        }
+    }
+
+    private void onChange(Object entity) {
+        principalCache.ifAvailable(cache -> {
+            if (entity instanceof User user) {
+                cache.invalidate(user.getId());
+            } else {
+                cache.invalidateAll();
+            }
+        });
+    }
+}
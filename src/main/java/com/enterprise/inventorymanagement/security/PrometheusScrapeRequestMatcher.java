@@ -0,0 +1,32 @@
+package com.enterprise.inventorymanagement.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+/**
+ * Matches Prometheus scrapes that arrive on the separate management port. That port is only
+ * reachable from inside the deployment, so the scraper needs no token there; on the application
+ * port the endpoint stays behind the admin rule like the rest of the actuator.
+ */
+public class PrometheusScrapeRequestMatcher implements RequestMatcher {
+
+    private static final RequestMatcher PROMETHEUS = new AntPathRequestMatcher("/actuator/prometheus");
+
+    private final Integer managementPort;
+
+    /**
+     * @param managementPort the configured {@code management.server.port}, or null when the
+     *                       actuator shares the application port and nothing should match
+     */
+    public PrometheusScrapeRequestMatcher(Integer managementPort) {
+        this.managementPort = managementPort;
+    }
+
+    @Override
+    public boolean matches(HttpServletRequest request) {
+        return managementPort != null && managementPort > 0
+                && request.getLocalPort() == managementPort
+                && PROMETHEUS.matches(request);
+    }
+}
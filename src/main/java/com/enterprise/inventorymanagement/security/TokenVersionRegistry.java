@@ -0,0 +1,102 @@
+package com.enterprise.inventorymanagement.security;
+
+import com.enterprise.inventorymanagement.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory copy of every user's token version, used by claims-based authentication to
+ * decide whether a token's claims can still be trusted. Changes made on this instance are
+ * applied on commit; changes made elsewhere are picked up by a periodic incremental refresh,
+ * and a slower full reload drops deleted users.
+ */
+@Component
+@ConditionalOnProperty(name = "app.security.claims-auth.enabled", havingValue = "true")
+public class TokenVersionRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenVersionRegistry.class);
+
+    // Re-read a window before the newest change seen, to tolerate clock drift between instances
+    private static final long REFRESH_OVERLAP_SECONDS = 30;
+
+    private final UserRepository userRepository;
+    private final Map<Long, Integer> versions = new ConcurrentHashMap<>();
+    private volatile LocalDateTime lastChange = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    public TokenVersionRegistry(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * Whether a token carrying the given version is current for the user
+     */
+    public boolean isCurrent(Long userId, Integer tokenVersion) {
+        Integer current = versions.get(userId);
+        return current != null && current.equals(tokenVersion);
+    }
+
+    public void update(Long userId, int tokenVersion) {
+        afterCommit(() -> versions.merge(userId, tokenVersion, Math::max));
+    }
+
+    public void remove(Long userId) {
+        versions.remove(userId);
+        afterCommit(() -> versions.remove(userId));
+    }
+
+    /**
+     * Pick up versions bumped in bulk, which no entity listener sees, once the current transaction commits
+     */
+    public void refreshOnCommit() {
+        afterCommit(this::refresh);
+    }
+
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${app.security.claims-auth.full-reload-ms:600000}",
+               initialDelayString = "${app.security.claims-auth.full-reload-ms:600000}")
+    public void reload() {
+        List<UserRepository.TokenVersion> all = userRepository.findAllTokenVersions();
+        versions.keySet().retainAll(all.stream().map(UserRepository.TokenVersion::getId).collect(Collectors.toSet()));
+        apply(all);
+        logger.debug("Loaded token versions of {} users", all.size());
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.claims-auth.refresh-ms:5000}")
+    public void refresh() {
+        apply(userRepository.findTokenVersionsChangedSince(lastChange.minusSeconds(REFRESH_OVERLAP_SECONDS)));
+    }
+
+    private void apply(List<UserRepository.TokenVersion> changes) {
+        for (UserRepository.TokenVersion change : changes) {
+            versions.merge(change.getId(), change.getTokenVersion(), Math::max);
+            if (change.getTokenVersionUpdatedAt().isAfter(lastChange)) {
+                lastChange = change.getTokenVersionUpdatedAt();
+            }
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
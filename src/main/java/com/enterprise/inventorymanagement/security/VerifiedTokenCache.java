@@ -0,0 +1,89 @@
+package com.enterprise.inventorymanagement.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded cache of recently verified tokens, keyed by the SHA-256 digest of the token so
+ * raw credentials are never held as keys. An entry never outlives the token's own expiry.
+ * Caffeine evicts by frequency and recency once it is full, in constant time per miss.
+ */
+final class VerifiedTokenCache {
+
+    private record Entry(Claims claims, long expiresAt) {
+    }
+
+    // Each entry lives until its own expiry, fixed when it is put and kept on reads
+    private static final Expiry<String, Entry> UNTIL_EXPIRY = new Expiry<>() {
+        @Override
+        public long expireAfterCreate(String key, Entry entry, long currentTime) {
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, entry.expiresAt() - System.currentTimeMillis()));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, entry, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    };
+
+    private final Cache<String, Entry> entries;
+    private final int maxSize;
+    private final long ttlMs;
+
+    VerifiedTokenCache(int maxSize, long ttlMs) {
+        this.maxSize = maxSize;
+        this.ttlMs = ttlMs;
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(Math.max(0, maxSize))
+                .expireAfter(UNTIL_EXPIRY)
+                .executor(Runnable::run)
+                .build();
+    }
+
+    Claims get(String token) {
+        if (maxSize <= 0) {
+            return null;
+        }
+        Entry entry = entries.getIfPresent(digest(token));
+        // The token expiry is wall-clock time, so it is checked on that clock as well
+        if (entry == null || entry.expiresAt() <= System.currentTimeMillis()) {
+            return null;
+        }
+        return entry.claims();
+    }
+
+    void put(String token, Claims claims) {
+        if (maxSize <= 0) {
+            return;
+        }
+        long expiresAt = System.currentTimeMillis() + ttlMs;
+        Date expiration = claims.getExpiration();
+        if (expiration != null) {
+            expiresAt = Math.min(expiresAt, expiration.getTime());
+        }
+        entries.put(digest(token), new Entry(claims, expiresAt));
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package com.enterprise.inventorymanagement.service;
+
+import com.enterprise.inventorymanagement.config.ReplicaRoutingDataSource;
+import com.enterprise.inventorymanagement.repository.ItemRequestRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects the approvals that arrive within a short window, groups them by source warehouse and
+ * approves each group in one transaction with {@link ItemRequestService#approveItemRequests}, so a
+ * burst of one-click approvals takes one round of row locks and one update per stock row instead of
+ * a transaction per click. Every caller still gets the outcome of its own request. When the queue is
+ * full or coalescing is disabled, the approval runs on the caller's thread as before.
+ */
+@Component
+public class ApprovalCoalescer implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApprovalCoalescer.class);
+
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    // actor is the approver's username, for read-your-writes once the approval commits on a worker
+    private record PendingApproval(ItemRequestService.Approval approval, String actor,
+                                   CompletableFuture<Void> result) {
+    }
+
+    private final ItemRequestService itemRequestService;
+    private final ItemRequestRepository itemRequestRepository;
+    private final StockLedger stockLedger;
+    private final AuthenticationFacade authenticationFacade;
+    private final boolean enabled;
+    private final long windowNanos;
+    private final int maxBatch;
+    private final BlockingQueue<PendingApproval> queue;
+    private final ThreadPoolExecutor workers;
+    private final Thread collector;
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+    private volatile boolean running = true;
+
+    public ApprovalCoalescer(ItemRequestService itemRequestService,
+                             ItemRequestRepository itemRequestRepository,
+                             StockLedger stockLedger,
+                             AuthenticationFacade authenticationFacade,
+                             @Value("${app.approvals.coalescing.enabled:true}") boolean enabled,
+                             @Value("${app.approvals.coalescing.window:5ms}") Duration window,
+                             @Value("${app.approvals.coalescing.max-batch:100}") int maxBatch,
+                             @Value("${app.approvals.coalescing.threads:2}") int threads,
+                             @Value("${app.approvals.coalescing.queue-capacity:1000}") int queueCapacity) {
+        this.itemRequestService = itemRequestService;
+        this.itemRequestRepository = itemRequestRepository;
+        this.stockLedger = stockLedger;
+        this.authenticationFacade = authenticationFacade;
+        this.enabled = enabled;
+        this.windowNanos = window.toNanos();
+        this.maxBatch = Math.max(1, maxBatch);
+        this.queue = new LinkedBlockingQueue<>(Math.max(1, queueCapacity));
+        // A full worker queue makes the collector approve the group itself, which slows collection down
+        this.workers = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads * 2), threadFactory("approval-worker-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.collector = new Thread(this::collect, "approval-collector");
+        collector.setDaemon(true);
+        if (enabled) {
+            collector.start();
+        }
+    }
+
+    /**
+     * Approve a request together with the approvals arriving at about the same time
+     *
+     * @return completes once the request is approved, or exceptionally with the reason it was not
+     */
+    public CompletableFuture<Void> approve(Long requestId, String responseComments) {
+        if (enabled && running) {
+            PendingApproval pending = new PendingApproval(
+                    new ItemRequestService.Approval(requestId, responseComments, stockLedger.currentActorId()),
+                    currentActor(), new CompletableFuture<>());
+            if (queue.offer(pending)) {
+                return pending.result();
+            }
+            fallbacks.increment();
+        }
+        try {
+            itemRequestService.handleItemRequest(requestId, true, responseComments);
+            return CompletableFuture.completedFuture(null);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public long getBatchCount() {
+        return batches.sum();
+    }
+
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    public long getFallbackCount() {
+        return fallbacks.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("approvals.coalescing.queue.depth", this, ApprovalCoalescer::getQueueDepth)
+                .description("Approvals waiting to be grouped")
+                .register(registry);
+        FunctionCounter.builder("approvals.coalescing.batches", this, ApprovalCoalescer::getBatchCount)
+                .description("Approval transactions run for grouped approvals")
+                .register(registry);
+        FunctionCounter.builder("approvals.coalescing.approvals", this, ApprovalCoalescer::getCoalescedCount)
+                .description("Approvals handled in a group transaction")
+                .register(registry);
+        FunctionCounter.builder("approvals.coalescing.fallbacks", this, ApprovalCoalescer::getFallbackCount)
+                .description("Approvals run alone: a queue was full, their group failed or they repeated another")
+                .register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        collector.join(TimeUnit.SECONDS.toMillis(5));
+        List<PendingApproval> left = new ArrayList<>();
+        queue.drainTo(left);
+        if (!left.isEmpty()) {
+            dispatch(left);
+        }
+        workers.shutdown();
+        workers.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    private void collect() {
+        while (running || !queue.isEmpty()) {
+            List<PendingApproval> batch = new ArrayList<>();
+            try {
+                PendingApproval first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + windowNanos;
+                while (batch.size() < maxBatch) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingApproval next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                dispatch(batch);
+                return;
+            }
+            dispatch(batch);
+        }
+    }
+
+    private void dispatch(List<PendingApproval> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        Map<Long, Long> warehouseIds = new HashMap<>();
+        try {
+            for (Object[] row : itemRequestRepository.findSourceWarehouseIds(
+                    batch.stream().map(pending -> pending.approval().requestId()).toList())) {
+                warehouseIds.put((Long) row[0], (Long) row[1]);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Could not look up the warehouses of {} approvals, approving them together", batch.size(), e);
+        }
+        // Unknown requests share the null group and are reported as not found there
+        Map<Long, List<PendingApproval>> groups = new LinkedHashMap<>();
+        for (PendingApproval pending : batch) {
+            groups.computeIfAbsent(warehouseIds.get(pending.approval().requestId()), warehouse -> new ArrayList<>())
+                    .add(pending);
+        }
+        for (List<PendingApproval> group : groups.values()) {
+            workers.execute(() -> approveGroup(group));
+        }
+    }
+
+    private void approveGroup(List<PendingApproval> group) {
+        // A request approved twice within one window is approved once; the repeats see that outcome afterwards
+        List<PendingApproval> distinct = new ArrayList<>();
+        List<PendingApproval> repeats = new ArrayList<>();
+        Set<Long> requestIds = new HashSet<>();
+        for (PendingApproval pending : group) {
+            (requestIds.add(pending.approval().requestId()) ? distinct : repeats).add(pending);
+        }
+        try {
+            Map<Long, RuntimeException> failures = approveAs(distinct);
+            batches.increment();
+            coalesced.add(distinct.size());
+            for (PendingApproval pending : distinct) {
+                complete(pending, failures.get(pending.approval().requestId()));
+            }
+        } catch (RuntimeException e) {
+            // A deadlock or lock timeout in the group should not fail every approval in it
+            logger.warn("Approving {} requests together failed, approving them one by one", distinct.size(), e);
+            distinct.forEach(this::approveAlone);
+        }
+        repeats.forEach(this::approveAlone);
+    }
+
+    private void approveAlone(PendingApproval pending) {
+        fallbacks.increment();
+        try {
+            Map<Long, RuntimeException> failures = approveAs(List.of(pending));
+            complete(pending, failures.get(pending.approval().requestId()));
+        } catch (RuntimeException e) {
+            pending.result().completeExceptionally(e);
+        }
+    }
+
+    // The workers have no security context, so the approvers are named for the transaction explicitly
+    private Map<Long, RuntimeException> approveAs(List<PendingApproval> approvals) {
+        List<String> actors = approvals.stream()
+                .map(PendingApproval::actor)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        return ReplicaRoutingDataSource.callAs(actors, () -> itemRequestService.approveItemRequests(
+                approvals.stream().map(PendingApproval::approval).toList()));
+    }
+
+    private String currentActor() {
+        Authentication authentication = authenticationFacade.getAuthentication();
+        return authentication == null || !authentication.isAuthenticated() ? null : authentication.getName();
+    }
+
+    private static void complete(PendingApproval pending, RuntimeException failure) {
+        if (failure == null) {
+            pending.result().complete(null);
+        } else {
+            pending.result().completeExceptionally(failure);
+        }
+    }
+
+    private static ThreadFactory threadFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
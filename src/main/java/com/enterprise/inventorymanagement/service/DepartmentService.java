@@ -2,8 +2,9 @@ package com.enterprise.inventorymanagement.service;
 
 import com.enterprise.inventorymanagement.exceptions.ResourceNotFoundException;
 import com.enterprise.inventorymanagement.model.Department;
-import com.enterprise.inventorymanagement.model.User;
+import com.enterprise.inventorymanagement.model.RoleName;
 import com.enterprise.inventorymanagement.model.dto.DepartmentDTO;
+import com.enterprise.inventorymanagement.model.dto.EmployeePageDTO;
 import java.util.List;
 
 public interface DepartmentService {
@@ -39,9 +40,10 @@ public interface DepartmentService {
     Department getDepartmentById(Long departmentId) throws ResourceNotFoundException;
 
     /**
-     * Get all employees in a department with complete user data
+     * Get one page of a department's employees, optionally filtered by name or username and by role
      */
-    List<User> getDepartmentEmployeesWithData(Long departmentId) throws ResourceNotFoundException;
+    EmployeePageDTO getDepartmentEmployeesPage(Long departmentId, String search, RoleName role, String cursor, Integer size)
+            throws ResourceNotFoundException;
 
     void addEmployeeToDepartment(Long departmentId, Long userId, Long enterpriseId) throws ResourceNotFoundException, IllegalArgumentException;
 }
@@ -6,16 +6,24 @@ import com.enterprise.inventorymanagement.model.Enterprise;
 import com.enterprise.inventorymanagement.model.RoleName;
 import com.enterprise.inventorymanagement.model.User;
 import com.enterprise.inventorymanagement.model.dto.DepartmentDTO;
+import com.enterprise.inventorymanagement.model.dto.EmployeePageDTO;
+import com.enterprise.inventorymanagement.model.dto.UserDTO;
 import com.enterprise.inventorymanagement.repository.DepartmentRepository;
 import com.enterprise.inventorymanagement.repository.EnterpriseRepository;
 import com.enterprise.inventorymanagement.repository.UserRepository;
+import com.enterprise.inventorymanagement.security.TokenVersionRegistry;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Collections;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Locale;
+import java.util.Objects;
 
 @Service
 @Transactional
@@ -24,15 +32,24 @@ public class DepartmentServiceImpl implements DepartmentService {
     private final DepartmentRepository departmentRepository;
     private final EnterpriseRepository enterpriseRepository;
     private final UserRepository userRepository;
+    private final ObjectProvider<TokenVersionRegistry> tokenVersions;
+
+    @Value("${app.department.employees.page.default-size:50}")
+    private int defaultPageSize;
+
+    @Value("${app.department.employees.page.max-size:200}")
+    private int maxPageSize;
 
     @Autowired
     public DepartmentServiceImpl(
             DepartmentRepository departmentRepository,
             EnterpriseRepository enterpriseRepository,
-            UserRepository userRepository) {
+            UserRepository userRepository,
+            ObjectProvider<TokenVersionRegistry> tokenVersions) {
         this.departmentRepository = departmentRepository;
         this.enterpriseRepository = enterpriseRepository;
         this.userRepository = userRepository;
+        this.tokenVersions = tokenVersions;
     }
 
     @Override
@@ -56,10 +73,17 @@ public class DepartmentServiceImpl implements DepartmentService {
         Department department = departmentRepository.findById(departmentId)
                 .orElseThrow(() -> new ResourceNotFoundException("Department not found with id: " + departmentId));
 
+        boolean renamed = !Objects.equals(department.getName(), departmentDetails.getName());
         department.setName(departmentDetails.getName());
         department.setDescription(departmentDetails.getDescription());
+        Department saved = departmentRepository.save(department);
 
-        return departmentRepository.save(department);
+        // Tokens carry the department name, so the members' tokens are no longer trusted
+        if (renamed) {
+            userRepository.bumpTokenVersionsByDepartmentId(departmentId, LocalDateTime.now());
+            tokenVersions.ifAvailable(TokenVersionRegistry::refreshOnCommit);
+        }
+        return saved;
     }
 
     @Override
@@ -106,10 +130,8 @@ public class DepartmentServiceImpl implements DepartmentService {
             throw new ResourceNotFoundException("Enterprise not found with id: " + enterpriseId);
         }
 
-        return departmentRepository.findByEnterpriseId(enterpriseId)
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return departmentRepository.withEmployeeIds(enterpriseId,
+                departmentRepository.findAllDtoByEnterpriseId(enterpriseId));
     }
 
     @Override
@@ -158,37 +180,30 @@ public class DepartmentServiceImpl implements DepartmentService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<User> getDepartmentEmployeesWithData(Long departmentId) throws ResourceNotFoundException {
-        Department department = departmentRepository.findById(departmentId)
-                .orElseThrow(() -> new ResourceNotFoundException("Department not found with id: " + departmentId));
-        
-        return department.getEmployees().stream()
-                .map(user -> userRepository.findByIdWithDepartment(user.getId())
-                        .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + user.getId())))
-                .collect(Collectors.toList());
-    }
+    public EmployeePageDTO getDepartmentEmployeesPage(Long departmentId, String search, RoleName role,
+                                                      String cursor, Integer size) {
+        int pageSize = size != null ? size : defaultPageSize;
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be greater than zero");
+        }
+        pageSize = Math.min(pageSize, maxPageSize);
+        String term = search != null ? search.trim().toLowerCase(Locale.ROOT) : "";
+        String pattern = "%" + term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+
+        // Fetch one row past the page so hasMore is known without a COUNT query
+        List<UserDTO> rows = userRepository.findEmployeePageByDepartmentId(
+                departmentId, EmployeeCursor.decode(cursor), role, pattern, PageRequest.of(0, pageSize + 1));
+        if (rows.isEmpty() && !departmentRepository.existsById(departmentId)) {
+            throw new ResourceNotFoundException("Department not found with id: " + departmentId);
+        }
 
-    private DepartmentDTO convertToDTO(Department department) {
-        int totalItemCount = department.getItems() != null ? 
-            department.getItems().stream()
-                .mapToInt(item -> item.getQuantity() != null ? item.getQuantity() : 0)
-                .sum() : 0;
-
-        return DepartmentDTO.builder()
-                .id(department.getId())
-                .name(department.getName())
-                .description(department.getDescription())
-                .enterpriseId(department.getEnterprise().getId())
-                .enterpriseName(department.getEnterprise().getName())
-                .managerId(department.getManager() != null ? department.getManager().getId() : null)
-                .managerName(department.getManager() != null ? department.getManager().getFullName() : null)
-                .employeeCount(department.getEmployees() != null ? department.getEmployees().size() : 0)
-                .itemCount(totalItemCount)
-                .employeeIds(department.getEmployees() != null ? 
-                        department.getEmployees().stream()
-                                .map(User::getId)
-                                .collect(Collectors.toSet()) : 
-                        Collections.emptySet())
+        boolean hasMore = rows.size() > pageSize;
+        List<UserDTO> page = hasMore ? new ArrayList<>(rows.subList(0, pageSize)) : rows;
+        return EmployeePageDTO.builder()
+                .employees(page)
+                .size(page.size())
+                .hasMore(hasMore)
+                .nextCursor(hasMore ? EmployeeCursor.encode(page.get(page.size() - 1).getId()) : null)
                 .build();
     }
 }
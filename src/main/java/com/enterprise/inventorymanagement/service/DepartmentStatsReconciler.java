@@ -0,0 +1,103 @@
+package com.enterprise.inventorymanagement.service;
+
+import com.enterprise.inventorymanagement.model.DepartmentStats;
+import com.enterprise.inventorymanagement.repository.DepartmentStatsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Recounts department statistics from the item and membership rows and repairs any department
+ * whose stored counters drifted. Candidates are found with one unlocked pass; each one is then
+ * recounted again under the stats row lock in its own transaction, so trigger deltas committed
+ * meanwhile are neither lost nor counted twice. A department that fails to repair is skipped and
+ * left for the next run.
+ */
+@Component
+@ConditionalOnProperty(name = "app.department-stats.reconcile.enabled", havingValue = "true", matchIfMissing = true)
+public class DepartmentStatsReconciler {
+
+    private static final Logger logger = LoggerFactory.getLogger(DepartmentStatsReconciler.class);
+
+    private final DepartmentStatsRepository statsRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public DepartmentStatsReconciler(DepartmentStatsRepository statsRepository,
+                                     PlatformTransactionManager transactionManager) {
+        this.statsRepository = statsRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * @return the number of departments whose statistics were corrected
+     */
+    @Scheduled(fixedDelayString = "${app.department-stats.reconcile.interval-ms:3600000}",
+               initialDelayString = "${app.department-stats.reconcile.initial-delay-ms:300000}")
+    public int reconcile() {
+        Map<Long, DepartmentStats> stored = statsRepository.findAll().stream()
+                .collect(Collectors.toMap(DepartmentStats::getDepartmentId, Function.identity()));
+        List<Long> drifted = statsRepository.computeAll().stream()
+                .filter(actual -> !matches(stored.get(actual.getDepartmentId()), actual))
+                .map(DepartmentStatsRepository.Actual::getDepartmentId)
+                .collect(Collectors.toList());
+
+        int repaired = 0;
+        for (Long departmentId : drifted) {
+            try {
+                Boolean fixed = transactionTemplate.execute(status -> repair(departmentId));
+                if (Boolean.TRUE.equals(fixed)) {
+                    repaired++;
+                }
+            } catch (DataAccessException e) {
+                // e.g. a trigger created the missing stats row first; the next run recounts this department
+                logger.warn("Could not repair statistics of department {}: {}", departmentId, e.getMessage());
+            }
+        }
+        if (repaired > 0) {
+            logger.warn("Repaired drifted statistics of {} departments", repaired);
+        }
+        return repaired;
+    }
+
+    private boolean repair(Long departmentId) {
+        DepartmentStats stats = statsRepository.findForUpdate(departmentId)
+                .orElseGet(() -> new DepartmentStats(departmentId));
+        DepartmentStatsRepository.Actual actual = statsRepository.compute(departmentId).orElse(null);
+        if (actual == null || matches(stats, actual)) {
+            return false;
+        }
+        logger.debug("Department {} statistics drifted: units {} -> {}, skus {} -> {}, rows {} -> {}, "
+                        + "headcount {} -> {}", departmentId, stats.getTotalUnits(), actual.getTotalUnits(),
+                stats.getDistinctSkus(), actual.getDistinctSkus(), stats.getItemRows(), actual.getItemRows(),
+                stats.getHeadcount(), actual.getHeadcount());
+        stats.setTotalUnits(actual.getTotalUnits());
+        stats.setDistinctSkus(actual.getDistinctSkus().intValue());
+        stats.setItemRows(actual.getItemRows());
+        stats.setHeadcount(actual.getHeadcount().intValue());
+        stats.setUpdatedAt(LocalDateTime.now());
+        statsRepository.save(stats);
+        return true;
+    }
+
+    private static boolean matches(DepartmentStats stats, DepartmentStatsRepository.Actual actual) {
+        if (stats == null) {
+            return actual.getTotalUnits() == 0 && actual.getDistinctSkus() == 0 && actual.getItemRows() == 0
+                    && actual.getHeadcount() == 0;
+        }
+        return stats.getTotalUnits().equals(actual.getTotalUnits())
+                && stats.getDistinctSkus() == actual.getDistinctSkus().intValue()
+                && stats.getItemRows().equals(actual.getItemRows())
+                && stats.getHeadcount() == actual.getHeadcount().intValue();
+    }
+}
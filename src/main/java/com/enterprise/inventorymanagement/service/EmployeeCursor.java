@@ -0,0 +1,40 @@
+package com.enterprise.inventorymanagement.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset position for paged department employee listings.
+ * Encodes the id of the last employee of a page; the next page continues after it.
+ */
+final class EmployeeCursor {
+
+    private static final String PREFIX = "EMPLOYEE:";
+
+    private EmployeeCursor() {
+    }
+
+    static String encode(Long lastId) {
+        String raw = PREFIX + lastId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a token previously produced by {@link #encode(Long)} into the id to continue after
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    static long decode(String token) {
+        if (token == null || token.isBlank()) {
+            return 0L;
+        }
+        String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        if (!raw.startsWith(PREFIX)) {
+            throw new IllegalArgumentException("Cursor does not belong to an employee listing");
+        }
+        try {
+            return Long.parseLong(raw.substring(PREFIX.length()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
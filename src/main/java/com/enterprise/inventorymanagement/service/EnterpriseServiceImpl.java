@@ -161,9 +161,8 @@ public class EnterpriseServiceImpl implements EnterpriseService {
 
     @Override
     public List<DepartmentDTO> getEnterpriseDepartments(Long enterpriseId) {
-        return departmentRepository.findByEnterpriseId(enterpriseId).stream()
-                .map(this::convertToDepartmentDTO)
-                .collect(Collectors.toList());
+        return departmentRepository.withEmployeeIds(enterpriseId,
+                departmentRepository.findAllDtoWithItemRowCountByEnterpriseId(enterpriseId));
     }
 
     @Override
@@ -1,7 +1,10 @@
 package com.enterprise.inventorymanagement.service;
 
 import com.enterprise.inventorymanagement.model.InventoryItem;
+import com.enterprise.inventorymanagement.model.ItemSort;
 import com.enterprise.inventorymanagement.model.dto.ItemDTO;
+import com.enterprise.inventorymanagement.model.dto.ItemPageDTO;
+import com.enterprise.inventorymanagement.model.dto.ReturnItemDTO;
 import jakarta.transaction.Transactional;
 
 import java.util.List;
@@ -47,9 +50,44 @@ public interface InventoryManagementService {
     List<ItemDTO> getItemsByDepartmentId(Long departmentId);
 
     /**
-     * Search items by name
+     * Get one page of items in an enterprise
+     * @param enterpriseId The ID of the enterprise
+     * @param sort The sort order of the listing
+     * @param cursor The nextCursor of the previous page, or null for the first page
+     * @param size The requested page size, or null for the configured default
+     * @return The page of items and the cursor of the following page
      */
-    List<ItemDTO> searchItemsByName(String keyword);
+    ItemPageDTO getItemsPageByEnterpriseId(Long enterpriseId, ItemSort sort, String cursor, Integer size);
+
+    /**
+     * Get one page of items stored in a warehouse
+     * @param warehouseId The ID of the warehouse
+     * @param sort The sort order of the listing
+     * @param cursor The nextCursor of the previous page, or null for the first page
+     * @param size The requested page size, or null for the configured default
+     * @return The page of items and the cursor of the following page
+     */
+    ItemPageDTO getItemsPageByWarehouseId(Long warehouseId, ItemSort sort, String cursor, Integer size);
+
+    /**
+     * Get one page of items held by a department
+     * @param departmentId The ID of the department
+     * @param sort The sort order of the listing
+     * @param cursor The nextCursor of the previous page, or null for the first page
+     * @param size The requested page size, or null for the configured default
+     * @return The page of items and the cursor of the following page
+     */
+    ItemPageDTO getItemsPageByDepartmentId(Long departmentId, ItemSort sort, String cursor, Integer size);
+
+    /**
+     * Search items of an enterprise by name and description, best matches first
+     * @param enterpriseId The ID of the enterprise to search in
+     * @param query The search text; prefixes and small typos still match
+     * @param cursor The nextCursor of the previous page, or null for the first page
+     * @param size The requested page size, or null for the configured default
+     * @return The page of matching items and the cursor of the following page
+     */
+    ItemPageDTO searchItems(Long enterpriseId, String query, String cursor, Integer size);
 
     /**
      * Check if an item exists by name in an enterprise
@@ -82,4 +120,20 @@ public interface InventoryManagementService {
      */
     @Transactional
     void returnItemToDepartment(Long itemId, Integer quantity, Long userId, Long departmentId);
-} 
\ No newline at end of file
+
+    /**
+     * Return several department items to warehouses in one transaction
+     * @param departmentId The ID of the department returning the items
+     * @param returnItems The lines to return, each naming its target warehouse
+     */
+    @Transactional
+    void returnItemsToWarehouse(Long departmentId, List<ReturnItemDTO> returnItems);
+
+    /**
+     * Return several items held by an employee to departments in one transaction
+     * @param userId The ID of the user returning the items
+     * @param returnItems The lines to return, each naming its target department
+     */
+    @Transactional
+    void returnItemsToDepartment(Long userId, List<ReturnItemDTO> returnItems);
+}
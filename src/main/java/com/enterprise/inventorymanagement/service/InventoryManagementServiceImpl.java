@@ -4,20 +4,34 @@ import com.enterprise.inventorymanagement.exceptions.ResourceNotFoundException;
 import com.enterprise.inventorymanagement.model.Department;
 import com.enterprise.inventorymanagement.model.Enterprise;
 import com.enterprise.inventorymanagement.model.InventoryItem;
-import com.enterprise.inventorymanagement.model.User;
+import com.enterprise.inventorymanagement.model.ItemSort;
+import com.enterprise.inventorymanagement.model.StockLocation;
 import com.enterprise.inventorymanagement.model.Warehouse;
 import com.enterprise.inventorymanagement.model.dto.ItemDTO;
+import com.enterprise.inventorymanagement.model.dto.ItemPageDTO;
+import com.enterprise.inventorymanagement.model.dto.ReturnItemDTO;
 import com.enterprise.inventorymanagement.repository.DepartmentRepository;
 import com.enterprise.inventorymanagement.repository.EnterpriseRepository;
 import com.enterprise.inventorymanagement.repository.InventoryItemRepository;
-import com.enterprise.inventorymanagement.repository.UserRepository;
 import com.enterprise.inventorymanagement.repository.WarehouseRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 @Service
 public class InventoryManagementServiceImpl implements InventoryManagementService {
@@ -26,24 +40,34 @@ public class InventoryManagementServiceImpl implements InventoryManagementServic
     private final EnterpriseRepository enterpriseRepository;
     private final WarehouseRepository warehouseRepository;
     private final DepartmentRepository departmentRepository;
-    private final UserRepository userRepository;
+    private final StockLedger stockLedger;
+
+    @Value("${app.inventory.page.default-size:50}")
+    private int defaultPageSize;
+
+    @Value("${app.inventory.page.max-size:500}")
+    private int maxPageSize;
+
+    @Value("${app.inventory.search.word-similarity-threshold:0.4}")
+    private double wordSimilarityThreshold;
 
     public InventoryManagementServiceImpl(
             InventoryItemRepository inventoryItemRepository,
             EnterpriseRepository enterpriseRepository,
             WarehouseRepository warehouseRepository,
             DepartmentRepository departmentRepository,
-            UserRepository userRepository
+            StockLedger stockLedger
     ) {
         this.inventoryItemRepository = inventoryItemRepository;
         this.enterpriseRepository = enterpriseRepository;
         this.warehouseRepository = warehouseRepository;
         this.departmentRepository = departmentRepository;
-        this.userRepository = userRepository;
+        this.stockLedger = stockLedger;
     }
 
     @Override
     @Transactional
+    @Timed(value = "inventory.items.create", description = "Creating an inventory item")
     public ItemDTO createItem(Long enterpriseId, ItemDTO itemDTO) {
         Enterprise enterprise = enterpriseRepository.findById(enterpriseId)
                 .orElseThrow(() -> new ResourceNotFoundException("Enterprise not found"));
@@ -77,6 +101,7 @@ public class InventoryManagementServiceImpl implements InventoryManagementServic
         }
 
         InventoryItem saved = inventoryItemRepository.save(item);
+        stockLedger.batch().created(saved).write();
         return toDto(saved);
     }
 
@@ -85,6 +110,8 @@ public class InventoryManagementServiceImpl implements InventoryManagementServic
     public ItemDTO updateItem(Long id, ItemDTO itemDTO) {
         InventoryItem item = inventoryItemRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Item not found"));
+        int previousQuantity = item.getQuantity();
+        StockLocation previousLocation = StockLocation.of(item);
 
         item.setName(itemDTO.getName());
         item.setDescription(itemDTO.getDescription());
@@ -111,53 +138,118 @@ public class InventoryManagementServiceImpl implements InventoryManagementServic
         }
 
         InventoryItem saved = inventoryItemRepository.save(item);
+        stockLedger.batch().adjusted(saved, previousQuantity, previousLocation).write();
         return toDto(saved);
     }
 
     @Override
     @Transactional
     public void deleteItem(Long id) {
-        if (!inventoryItemRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Item not found");
-        }
-        inventoryItemRepository.deleteById(id);
+        InventoryItem item = inventoryItemRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Item not found"));
+        stockLedger.batch().deleted(item).write();
+        inventoryItemRepository.delete(item);
     }
 
     @Override
     public Optional<ItemDTO> getItemById(Long id) {
-        return inventoryItemRepository.findByIdWithRelationships(id).map(this::toDto);
+        return inventoryItemRepository.findDtoById(id);
     }
 
     @Override
     public List<ItemDTO> getAllItemsByEnterpriseId(Long enterpriseId) {
-        return inventoryItemRepository.findAllByEnterpriseId(enterpriseId)
-                .stream()
-                .map(this::toDto)
-                .collect(Collectors.toList());
+        return inventoryItemRepository.findAllByEnterpriseId(enterpriseId);
     }
 
     @Override
     public List<ItemDTO> getItemsByWarehouseId(Long warehouseId) {
-        return inventoryItemRepository.findAllByWarehouseId(warehouseId)
-                .stream()
-                .map(this::toDto)
-                .collect(Collectors.toList());
+        return inventoryItemRepository.findAllByWarehouseId(warehouseId);
     }
 
     @Override
     public List<ItemDTO> getItemsByDepartmentId(Long departmentId) {
-        return inventoryItemRepository.findAllByDepartmentId(departmentId)
-                .stream()
-                .map(this::toDto)
-                .collect(Collectors.toList());
+        return inventoryItemRepository.findAllByDepartmentId(departmentId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ItemPageDTO getItemsPageByEnterpriseId(Long enterpriseId, ItemSort sort, String cursor, Integer size) {
+        ItemSort order = sort != null ? sort : ItemSort.NAME;
+        ItemCursor position = ItemCursor.decode(cursor, order);
+        Pageable limit = pageLimit(size);
+        List<ItemDTO> rows = order == ItemSort.UPDATED_AT
+                ? inventoryItemRepository.findPageByEnterpriseIdOrderByUpdatedAt(
+                        enterpriseId, position.getUpdatedAt(), position.getId(), limit)
+                : inventoryItemRepository.findPageByEnterpriseIdOrderByName(
+                        enterpriseId, position.getName(), position.getId(), limit);
+        return toPage(rows, order, limit.getPageSize() - 1);
     }
 
     @Override
-    public List<ItemDTO> searchItemsByName(String keyword) {
-        return inventoryItemRepository.findByNameContainingIgnoreCase(keyword)
-                .stream()
-                .map(this::toDto)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public ItemPageDTO getItemsPageByWarehouseId(Long warehouseId, ItemSort sort, String cursor, Integer size) {
+        ItemSort order = sort != null ? sort : ItemSort.NAME;
+        ItemCursor position = ItemCursor.decode(cursor, order);
+        Pageable limit = pageLimit(size);
+        List<ItemDTO> rows = order == ItemSort.UPDATED_AT
+                ? inventoryItemRepository.findPageByWarehouseIdOrderByUpdatedAt(
+                        warehouseId, position.getUpdatedAt(), position.getId(), limit)
+                : inventoryItemRepository.findPageByWarehouseIdOrderByName(
+                        warehouseId, position.getName(), position.getId(), limit);
+        return toPage(rows, order, limit.getPageSize() - 1);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ItemPageDTO getItemsPageByDepartmentId(Long departmentId, ItemSort sort, String cursor, Integer size) {
+        ItemSort order = sort != null ? sort : ItemSort.NAME;
+        ItemCursor position = ItemCursor.decode(cursor, order);
+        Pageable limit = pageLimit(size);
+        List<ItemDTO> rows = order == ItemSort.UPDATED_AT
+                ? inventoryItemRepository.findPageByDepartmentIdOrderByUpdatedAt(
+                        departmentId, position.getUpdatedAt(), position.getId(), limit)
+                : inventoryItemRepository.findPageByDepartmentIdOrderByName(
+                        departmentId, position.getName(), position.getId(), limit);
+        return toPage(rows, order, limit.getPageSize() - 1);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ItemPageDTO searchItems(Long enterpriseId, String query, String cursor, Integer size) {
+        String term = query != null ? query.trim().toLowerCase(Locale.ROOT) : "";
+        if (term.isEmpty()) {
+            throw new IllegalArgumentException("Search query must not be empty");
+        }
+
+        int offset = ItemCursor.decodeOffset(cursor);
+        Pageable limit = pageLimit(size);
+        int pageSize = limit.getPageSize() - 1;
+        // Transaction-local, so pooled connections keep the server default
+        inventoryItemRepository.setWordSimilarityThreshold(String.valueOf(wordSimilarityThreshold));
+        List<Long> ids = inventoryItemRepository.searchIdsByEnterpriseId(
+                enterpriseId, term, escapeLike(term), limit.getPageSize(), offset);
+
+        boolean hasMore = ids.size() > pageSize;
+        List<Long> pageIds = hasMore ? ids.subList(0, pageSize) : ids;
+        List<ItemDTO> items = new ArrayList<>(pageIds.size());
+        if (!pageIds.isEmpty()) {
+            // Restore the ranking order of the id query
+            Map<Long, ItemDTO> byId = new HashMap<>();
+            inventoryItemRepository.findAllDtoByIdIn(pageIds).forEach(item -> byId.put(item.getId(), item));
+            for (Long id : pageIds) {
+                ItemDTO item = byId.get(id);
+                if (item != null) {
+                    items.add(item);
+                }
+            }
+        }
+
+        return ItemPageDTO.builder()
+                .items(items)
+                .size(items.size())
+                .hasMore(hasMore)
+                .nextCursor(hasMore ? ItemCursor.encodeOffset(offset + pageSize) : null)
+                .build();
     }
 
     @Override
@@ -167,117 +259,242 @@ public class InventoryManagementServiceImpl implements InventoryManagementServic
 
     @Override
     public List<ItemDTO> getItemsInUseByUserId(Long userId) {
-        return inventoryItemRepository.findAllByUserId(userId)
-                .stream()
-                .map(this::toDto)
-                .collect(Collectors.toList());
+        return inventoryItemRepository.findAllByUserId(userId);
     }
 
     @Override
     @Transactional
+    @Timed(value = "inventory.returns", extraTags = {"target", "warehouse"}, description = "Returning items")
     public void returnItemToWarehouse(Long itemId, Integer quantity, Long departmentId, Long warehouseId) {
-        if (quantity == null || quantity <= 0) {
-            throw new IllegalArgumentException("Quantity must be greater than zero");
-        }
+        returnItemsToWarehouse(departmentId, List.of(ReturnItemDTO.builder()
+                .itemId(itemId)
+                .quantity(quantity)
+                .warehouseId(warehouseId)
+                .build()));
+    }
 
-        InventoryItem departmentItem = inventoryItemRepository.findById(itemId)
-                .orElseThrow(() -> new ResourceNotFoundException("Item not found"));
+    @Override
+    @Transactional
+    @Timed(value = "inventory.returns", extraTags = {"target", "department"}, description = "Returning items")
+    public void returnItemToDepartment(Long itemId, Integer quantity, Long userId, Long departmentId) {
+        returnItemsToDepartment(userId, List.of(ReturnItemDTO.builder()
+                .itemId(itemId)
+                .quantity(quantity)
+                .departmentId(departmentId)
+                .build()));
+    }
 
+    @Override
+    @Transactional
+    @Timed(value = "inventory.returns", extraTags = {"target", "warehouse"}, description = "Returning items")
+    public void returnItemsToWarehouse(Long departmentId, List<ReturnItemDTO> returnItems) {
         Department department = departmentRepository.findById(departmentId)
                 .orElseThrow(() -> new ResourceNotFoundException("Department not found"));
 
-        Warehouse warehouse = warehouseRepository.findById(warehouseId)
-                .orElseThrow(() -> new ResourceNotFoundException("Warehouse not found"));
+        // target warehouse id -> source item id -> quantity
+        Map<Long, Map<Long, Integer>> returns = groupReturns(returnItems, ReturnItemDTO::getWarehouseId, "Warehouse");
+        Map<Long, InventoryItem> sources = loadReturnSources(returns);
 
-        if (!departmentItem.getEnterprise().getId().equals(warehouse.getEnterprise().getId())
-                || !departmentItem.getEnterprise().getId().equals(department.getEnterprise().getId())) {
-            throw new IllegalArgumentException("Cross-enterprise item return is not allowed");
+        Map<Long, Warehouse> warehouses = new HashMap<>();
+        for (Warehouse warehouse : warehouseRepository.findAllById(returns.keySet())) {
+            warehouses.put(warehouse.getId(), warehouse);
         }
-
-        if (departmentItem.getDepartment() == null || !departmentItem.getDepartment().getId().equals(departmentId)) {
-            throw new IllegalArgumentException("Item does not belong to the provided department");
+        for (Long warehouseId : returns.keySet()) {
+            Warehouse warehouse = warehouses.get(warehouseId);
+            if (warehouse == null) {
+                throw new ResourceNotFoundException("Warehouse not found");
+            }
+            if (!warehouse.getEnterprise().getId().equals(department.getEnterprise().getId())) {
+                throw new IllegalArgumentException("Cross-enterprise item return is not allowed");
+            }
         }
 
-        if (departmentItem.getQuantity() < quantity) {
-            throw new IllegalArgumentException("Insufficient quantity to return");
+        for (InventoryItem departmentItem : sources.values()) {
+            if (!departmentItem.getEnterprise().getId().equals(department.getEnterprise().getId())) {
+                throw new IllegalArgumentException("Cross-enterprise item return is not allowed");
+            }
+            if (departmentItem.getDepartment() == null || !departmentItem.getDepartment().getId().equals(departmentId)) {
+                throw new IllegalArgumentException("Item does not belong to the provided department");
+            }
         }
 
-        departmentItem.setQuantity(departmentItem.getQuantity() - quantity);
-        if (departmentItem.getQuantity() == 0) {
-            inventoryItemRepository.delete(departmentItem);
-        } else {
-            inventoryItemRepository.save(departmentItem);
+        Map<String, InventoryItem> targets = new HashMap<>();
+        for (InventoryItem item : inventoryItemRepository.findWarehouseStockByNames(returns.keySet(), itemNames(sources))) {
+            targets.putIfAbsent(targetKey(item.getWarehouse().getId(), item.getName()), item);
         }
 
-        InventoryItem warehouseItem = inventoryItemRepository
-                .findByNameAndWarehouse_Id(departmentItem.getName(), warehouseId)
-                .orElseGet(() -> {
-                    InventoryItem newItem = new InventoryItem();
-                    newItem.setName(departmentItem.getName());
-                    newItem.setDescription(departmentItem.getDescription());
-                    newItem.setEnterprise(departmentItem.getEnterprise());
-                    newItem.setWarehouse(warehouse);
-                    newItem.setQuantity(0);
-                    newItem.setMinimumQuantity(departmentItem.getMinimumQuantity());
-                    newItem.setPrice(departmentItem.getPrice());
-                    return newItem;
-                });
-
-        warehouseItem.setQuantity(warehouseItem.getQuantity() + quantity);
-        inventoryItemRepository.save(warehouseItem);
+        applyReturns(returns, sources, targets, (warehouseId, source) -> {
+            InventoryItem newItem = copyForReturn(source);
+            newItem.setWarehouse(warehouses.get(warehouseId));
+            return newItem;
+        });
     }
 
     @Override
     @Transactional
-    public void returnItemToDepartment(Long itemId, Integer quantity, Long userId, Long departmentId) {
-        if (quantity == null || quantity <= 0) {
-            throw new IllegalArgumentException("Quantity must be greater than zero");
+    @Timed(value = "inventory.returns", extraTags = {"target", "department"}, description = "Returning items")
+    public void returnItemsToDepartment(Long userId, List<ReturnItemDTO> returnItems) {
+        // target department id -> source item id -> quantity
+        Map<Long, Map<Long, Integer>> returns = groupReturns(returnItems, ReturnItemDTO::getDepartmentId, "Department");
+        Map<Long, InventoryItem> sources = loadReturnSources(returns);
+
+        Map<Long, Department> departments = new HashMap<>();
+        for (Department department : departmentRepository.findAllById(returns.keySet())) {
+            departments.put(department.getId(), department);
+        }
+        for (Long departmentId : returns.keySet()) {
+            if (!departments.containsKey(departmentId)) {
+                throw new ResourceNotFoundException("Department not found");
+            }
         }
 
-        InventoryItem userItem = inventoryItemRepository.findById(itemId)
-                .orElseThrow(() -> new ResourceNotFoundException("Item not found"));
+        for (Map.Entry<Long, Map<Long, Integer>> entry : returns.entrySet()) {
+            Department department = departments.get(entry.getKey());
+            for (Long itemId : entry.getValue().keySet()) {
+                InventoryItem userItem = sources.get(itemId);
+                if (!userItem.getEnterprise().getId().equals(department.getEnterprise().getId())) {
+                    throw new IllegalArgumentException("Cross-enterprise item return is not allowed");
+                }
+                if (userItem.getUser() == null || !userItem.getUser().getId().equals(userId)) {
+                    throw new IllegalArgumentException("Item is not assigned to the user");
+                }
+            }
+        }
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        Map<String, InventoryItem> targets = new HashMap<>();
+        for (InventoryItem item : inventoryItemRepository.findDepartmentStockByNames(returns.keySet(), itemNames(sources))) {
+            targets.putIfAbsent(targetKey(item.getDepartment().getId(), item.getName()), item);
+        }
 
-        Department department = departmentRepository.findById(departmentId)
-                .orElseThrow(() -> new ResourceNotFoundException("Department not found"));
+        applyReturns(returns, sources, targets, (departmentId, source) -> {
+            InventoryItem newItem = copyForReturn(source);
+            newItem.setDepartment(departments.get(departmentId));
+            return newItem;
+        });
+    }
 
-        if (!userItem.getEnterprise().getId().equals(department.getEnterprise().getId())) {
-            throw new IllegalArgumentException("Cross-enterprise item return is not allowed");
+    // Sums the lines per target and per source row so repeated lines are applied once
+    private Map<Long, Map<Long, Integer>> groupReturns(List<ReturnItemDTO> returnItems,
+                                                        Function<ReturnItemDTO, Long> target,
+                                                        String targetName) {
+        if (returnItems == null || returnItems.isEmpty()) {
+            throw new IllegalArgumentException("No items to return");
+        }
+        Map<Long, Map<Long, Integer>> returns = new LinkedHashMap<>();
+        for (ReturnItemDTO line : returnItems) {
+            if (line.getQuantity() == null || line.getQuantity() <= 0) {
+                throw new IllegalArgumentException("Quantity must be greater than zero");
+            }
+            if (line.getItemId() == null) {
+                throw new IllegalArgumentException("Item ID is required");
+            }
+            Long targetId = target.apply(line);
+            if (targetId == null) {
+                throw new IllegalArgumentException(targetName + " ID is required");
+            }
+            returns.computeIfAbsent(targetId, id -> new LinkedHashMap<>())
+                    .merge(line.getItemId(), line.getQuantity(), Integer::sum);
         }
+        return returns;
+    }
+
+    private Map<Long, InventoryItem> loadReturnSources(Map<Long, Map<Long, Integer>> returns) {
+        Set<Long> itemIds = new HashSet<>();
+        returns.values().forEach(lines -> itemIds.addAll(lines.keySet()));
 
-        if (userItem.getUser() == null || !userItem.getUser().getId().equals(userId)) {
-            throw new IllegalArgumentException("Item is not assigned to the user");
+        Map<Long, InventoryItem> sources = new HashMap<>();
+        for (InventoryItem item : inventoryItemRepository.findAllByIdInWithUser(itemIds)) {
+            sources.put(item.getId(), item);
+        }
+        if (sources.size() != itemIds.size()) {
+            throw new ResourceNotFoundException("Item not found");
         }
+        return sources;
+    }
 
-        if (userItem.getQuantity() < quantity) {
-            throw new IllegalArgumentException("Insufficient quantity to return");
+    // Moves the grouped quantities; every change is flushed together when the transaction commits
+    private void applyReturns(Map<Long, Map<Long, Integer>> returns,
+                              Map<Long, InventoryItem> sources,
+                              Map<String, InventoryItem> targets,
+                              BiFunction<Long, InventoryItem, InventoryItem> newTarget) {
+        Map<Long, Integer> taken = new HashMap<>();
+        returns.values().forEach(lines -> lines.forEach((itemId, quantity) -> taken.merge(itemId, quantity, Integer::sum)));
+
+        taken.forEach((itemId, quantity) -> {
+            if (sources.get(itemId).getQuantity() < quantity) {
+                throw new IllegalArgumentException("Insufficient quantity to return");
+            }
+        });
+
+        List<InventoryItem> emptied = new ArrayList<>();
+        for (Map.Entry<Long, Integer> entry : taken.entrySet()) {
+            InventoryItem source = sources.get(entry.getKey());
+            source.setQuantity(source.getQuantity() - entry.getValue());
+            if (source.getQuantity() == 0) {
+                emptied.add(source);
+            }
         }
 
-        userItem.setQuantity(userItem.getQuantity() - quantity);
-        if (userItem.getQuantity() == 0) {
-            inventoryItemRepository.delete(userItem);
-        } else {
-            inventoryItemRepository.save(userItem);
+        StockLedger.Batch movements = stockLedger.batch();
+        for (Map.Entry<Long, Map<Long, Integer>> entry : returns.entrySet()) {
+            Long targetId = entry.getKey();
+            entry.getValue().forEach((itemId, quantity) -> {
+                InventoryItem source = sources.get(itemId);
+                // Persisted right away so the movement carries its id; the insert still goes out with the batch
+                InventoryItem target = targets.computeIfAbsent(targetKey(targetId, source.getName()),
+                        key -> inventoryItemRepository.save(newTarget.apply(targetId, source)));
+                target.setQuantity(target.getQuantity() + quantity);
+                movements.transferred(source, target, quantity);
+            });
         }
 
-        InventoryItem departmentItem = inventoryItemRepository
-                .findByNameAndDepartment_Id(userItem.getName(), departmentId)
-                .orElseGet(() -> {
-                    InventoryItem newItem = new InventoryItem();
-                    newItem.setName(userItem.getName());
-                    newItem.setDescription(userItem.getDescription());
-                    newItem.setEnterprise(userItem.getEnterprise());
-                    newItem.setDepartment(department);
-                    newItem.setQuantity(0);
-                    newItem.setMinimumQuantity(userItem.getMinimumQuantity());
-                    newItem.setPrice(userItem.getPrice());
-                    return newItem;
-                });
-
-        departmentItem.setQuantity(departmentItem.getQuantity() + quantity);
-        inventoryItemRepository.save(departmentItem);
+        movements.write();
+        inventoryItemRepository.deleteAll(emptied);
+    }
+
+    private InventoryItem copyForReturn(InventoryItem source) {
+        InventoryItem newItem = new InventoryItem();
+        newItem.setName(source.getName());
+        newItem.setDescription(source.getDescription());
+        newItem.setEnterprise(source.getEnterprise());
+        newItem.setQuantity(0);
+        newItem.setMinimumQuantity(source.getMinimumQuantity());
+        newItem.setPrice(source.getPrice());
+        return newItem;
+    }
+
+    private Set<String> itemNames(Map<Long, InventoryItem> items) {
+        Set<String> names = new HashSet<>();
+        items.values().forEach(item -> names.add(item.getName()));
+        return names;
+    }
+
+    private String targetKey(Long targetId, String name) {
+        return targetId + ":" + name;
+    }
+
+    // Fetch one row past the page so hasMore is known without a COUNT query
+    private Pageable pageLimit(Integer size) {
+        int pageSize = size != null ? size : defaultPageSize;
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be greater than zero");
+        }
+        return PageRequest.of(0, Math.min(pageSize, maxPageSize) + 1);
+    }
+
+    private String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private ItemPageDTO toPage(List<ItemDTO> rows, ItemSort sort, int pageSize) {
+        boolean hasMore = rows.size() > pageSize;
+        List<ItemDTO> page = hasMore ? new ArrayList<>(rows.subList(0, pageSize)) : rows;
+        return ItemPageDTO.builder()
+                .items(page)
+                .size(page.size())
+                .hasMore(hasMore)
+                .nextCursor(hasMore ? ItemCursor.after(sort, page.get(page.size() - 1)).encode() : null)
+                .build();
     }
 
     private ItemDTO toDto(InventoryItem item) {
@@ -0,0 +1,116 @@
+package com.enterprise.inventorymanagement.service;
+
+import com.enterprise.inventorymanagement.model.ItemSort;
+import com.enterprise.inventorymanagement.model.dto.ItemDTO;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset position for paged item listings.
+ * Encodes the sort key and id of the last item of a page so the next page
+ * can continue with a range scan instead of an OFFSET.
+ */
+final class ItemCursor {
+
+    private static final LocalDateTime UPDATED_AT_START = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    private final ItemSort sort;
+    private final Long id;
+    private final String name;
+    private final LocalDateTime updatedAt;
+
+    private ItemCursor(ItemSort sort, Long id, String name, LocalDateTime updatedAt) {
+        this.sort = sort;
+        this.id = id;
+        this.name = name;
+        this.updatedAt = updatedAt;
+    }
+
+    /**
+     * Position before the first item for the given sort order
+     */
+    static ItemCursor start(ItemSort sort) {
+        return sort == ItemSort.UPDATED_AT
+                ? new ItemCursor(sort, Long.MAX_VALUE, null, UPDATED_AT_START)
+                : new ItemCursor(sort, 0L, "", null);
+    }
+
+    static ItemCursor after(ItemSort sort, ItemDTO item) {
+        return new ItemCursor(sort, item.getId(), item.getName(), item.getUpdatedAt());
+    }
+
+    /**
+     * Decode a token previously produced by {@link #encode()}
+     * @throws IllegalArgumentException if the token is malformed or belongs to another sort order
+     */
+    static ItemCursor decode(String token, ItemSort sort) {
+        if (token == null || token.isBlank()) {
+            return start(sort);
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":", 3);
+            if (parts.length != 3 || !parts[0].equals(sort.name())) {
+                throw new IllegalArgumentException("Cursor does not match the requested sort order");
+            }
+            Long id = Long.parseLong(parts[1]);
+            return sort == ItemSort.UPDATED_AT
+                    ? new ItemCursor(sort, id, null, LocalDateTime.parse(parts[2]))
+                    : new ItemCursor(sort, id, parts[2], null);
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    /**
+     * Encode the position of the next page of a ranked search result
+     */
+    static String encodeOffset(int offset) {
+        String raw = "SEARCH:" + offset;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a token previously produced by {@link #encodeOffset(int)}
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    static int decodeOffset(String token) {
+        if (token == null || token.isBlank()) {
+            return 0;
+        }
+        String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        if (!raw.startsWith("SEARCH:")) {
+            throw new IllegalArgumentException("Cursor does not belong to a search result");
+        }
+        try {
+            int offset = Integer.parseInt(raw.substring("SEARCH:".length()));
+            if (offset < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return offset;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    String encode() {
+        String key = sort == ItemSort.UPDATED_AT ? updatedAt.toString() : name;
+        String raw = sort.name() + ":" + id + ":" + key;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    Long getId() {
+        return id;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
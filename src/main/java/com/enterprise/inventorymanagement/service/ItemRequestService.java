@@ -5,6 +5,7 @@ import com.enterprise.inventorymanagement.model.request.RequestStatus;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
 
 public interface ItemRequestService {
     /**
@@ -25,6 +26,15 @@ public interface ItemRequestService {
     @Transactional
     void handleItemRequest(Long requestId, boolean approved, String responseComments);
 
+    /**
+     * Approve several requests in one transaction, with one update per stock row touched.
+     * Requests that cannot be approved stay as they are and do not affect the others.
+     * @param approvals The requests to approve, in the order they arrived
+     * @return The failure of each request that was not approved, by request ID
+     */
+    @Transactional
+    Map<Long, RuntimeException> approveItemRequests(List<Approval> approvals);
+
     /**
      * Get all requests for a specific warehouse
      * @param warehouseId The ID of the warehouse
@@ -91,5 +101,10 @@ public interface ItemRequestService {
      */
     @Transactional
     void rejectItemRequest(Long requestId, String comments);
-}
 
+    /**
+     * One approval of a batch, with the user it is recorded for in the stock ledger
+     */
+    record Approval(Long requestId, String responseComments, Long actorId) {
+    }
+}
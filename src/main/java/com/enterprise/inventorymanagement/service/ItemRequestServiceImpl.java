@@ -6,27 +6,42 @@ import com.enterprise.inventorymanagement.model.request.RequestItem;
 import com.enterprise.inventorymanagement.model.User;
 import com.enterprise.inventorymanagement.model.InventoryItem;
 import com.enterprise.inventorymanagement.model.Department;
+import com.enterprise.inventorymanagement.model.RequestEventType;
 import com.enterprise.inventorymanagement.model.Warehouse;
 import com.enterprise.inventorymanagement.model.dto.ItemRequestDTO;
+import com.enterprise.inventorymanagement.model.dto.RequestEventDTO;
 import com.enterprise.inventorymanagement.model.dto.RequestItemDTO;
 import com.enterprise.inventorymanagement.model.request.RequestStatus;
 import com.enterprise.inventorymanagement.repository.*;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class ItemRequestServiceImpl implements ItemRequestService {
 
+    private static final int MAX_STOCK_UPDATE_ATTEMPTS = 3;
+
     private final ItemRequestRepository itemRequestRepository;
     private final UserRepository userRepository;
     private final InventoryItemRepository inventoryItemRepository;
     private final WarehouseRepository warehouseRepository;
     private final DepartmentRepository departmentRepository;
+    private final StockLedger stockLedger;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
     public ItemRequestServiceImpl(
@@ -34,16 +49,21 @@ public class ItemRequestServiceImpl implements ItemRequestService {
             UserRepository userRepository,
             InventoryItemRepository inventoryItemRepository,
             WarehouseRepository warehouseRepository,
-            DepartmentRepository departmentRepository) {
+            DepartmentRepository departmentRepository,
+            StockLedger stockLedger,
+            ApplicationEventPublisher eventPublisher) {
         this.itemRequestRepository = itemRequestRepository;
         this.userRepository = userRepository;
         this.inventoryItemRepository = inventoryItemRepository;
         this.warehouseRepository = warehouseRepository;
         this.departmentRepository = departmentRepository;
+        this.stockLedger = stockLedger;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
     @Transactional
+    @Timed(value = "inventory.requests.create", description = "Creating a warehouse item request")
     public ItemRequestDTO createItemRequest(Long userId, ItemRequestDTO requestDTO) {
         User requester = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
@@ -61,9 +81,17 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         request = itemRequestRepository.save(request);
 
         if (requestDTO.getRequestItems() != null) {
+            Map<Long, InventoryItem> items = inventoryItemRepository.findAllById(requestDTO.getRequestItems().stream()
+                            .map(RequestItemDTO::getItemId)
+                            .collect(Collectors.toSet()))
+                    .stream()
+                    .collect(Collectors.toMap(InventoryItem::getId, Function.identity()));
+
             for (RequestItemDTO itemDTO : requestDTO.getRequestItems()) {
-                InventoryItem item = inventoryItemRepository.findById(itemDTO.getItemId())
-                        .orElseThrow(() -> new ResourceNotFoundException("Item not found: " + itemDTO.getItemId()));
+                InventoryItem item = items.get(itemDTO.getItemId());
+                if (item == null) {
+                    throw new ResourceNotFoundException("Item not found: " + itemDTO.getItemId());
+                }
 
                 if (itemDTO.getQuantity() > item.getQuantity()) {
                     throw new IllegalArgumentException(
@@ -86,88 +114,327 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         request = itemRequestRepository.findById(request.getId())
                 .orElseThrow(() -> new ResourceNotFoundException("Request not found after creation"));
 
+        publishRequestEvent(RequestEventType.REQUEST_CREATED, request);
         return convertToRequestDTO(request);
     }
 
     @Override
     @Transactional
+    @Timed(value = "inventory.requests.handle", description = "Approving or rejecting a warehouse item request")
     public void handleItemRequest(Long requestId, boolean approved, String responseComments) {
+        RequestStatus status = approved ? RequestStatus.APPROVED : RequestStatus.REJECTED;
+        if (itemRequestRepository.completePendingRequest(requestId, status, responseComments, LocalDateTime.now()) == 0) {
+            if (!itemRequestRepository.existsById(requestId)) {
+                throw new ResourceNotFoundException("Request not found");
+            }
+            throw new IllegalStateException("Request has already been processed");
+        }
+
+        if (!approved) {
+            for (Object[] scope : itemRequestRepository.findEventScope(requestId)) {
+                eventPublisher.publishEvent(RequestEventDTO.builder()
+                        .type(RequestEventType.REQUEST_REJECTED)
+                        .requestId(requestId)
+                        .status(RequestStatus.REJECTED)
+                        .enterpriseId((Long) scope[0])
+                        .warehouseId((Long) scope[1])
+                        .departmentId((Long) scope[2])
+                        .userId((Long) scope[3])
+                        .occurredAt(LocalDateTime.now())
+                        .build());
+            }
+            return;
+        }
+
         ItemRequest request = itemRequestRepository.findByIdWithItems(requestId)
                 .orElseThrow(() -> new ResourceNotFoundException("Request not found"));
+        publishRequestEvent(RequestEventType.REQUEST_APPROVED, request);
+        Department targetDepartment = departmentRepository.findById(request.getTargetDepartment().getId())
+                .orElseThrow(() -> new ResourceNotFoundException("Target department not found"));
+
+        // Lines naming the same item are combined, so each warehouse row is decremented once per request
+        // and its loaded quantity is only stale when another approval got there first
+        Map<String, Integer> requested = new LinkedHashMap<>();
+        Map<String, InventoryItem> requestedItems = new HashMap<>();
+        for (RequestItem requestItem : request.getRequestItems()) {
+            String name = requestItem.getInventoryItem().getName();
+            requested.merge(name, requestItem.getQuantity(), Integer::sum);
+            requestedItems.putIfAbsent(name, requestItem.getInventoryItem());
+        }
 
-        if (request.getStatus() != RequestStatus.PENDING) {
-            throw new IllegalStateException("Request has already been processed");
+        // One statement each for the warehouse and department rows of every requested name
+        Map<String, List<InventoryItem>> warehouseStock = inventoryItemRepository
+                .findWarehouseStockByNames(List.of(request.getSourceWarehouse().getId()), requested.keySet())
+                .stream()
+                .collect(Collectors.groupingBy(InventoryItem::getName));
+        Map<String, InventoryItem> departmentStock = new HashMap<>();
+        for (InventoryItem item : inventoryItemRepository.findDepartmentStockByNames(
+                List.of(targetDepartment.getId()), requested.keySet())) {
+            departmentStock.putIfAbsent(item.getName(), item);
         }
 
-        request.setStatus(approved ? RequestStatus.APPROVED : RequestStatus.REJECTED);
-        request.setResponseComments(responseComments);
-        request.setProcessedDate(LocalDateTime.now());
+        StockLedger.Batch movements = stockLedger.batch(requestId);
+        Set<Long> touchedWarehouseItems = new HashSet<>();
+        for (Map.Entry<String, Integer> line : requested.entrySet()) {
+            String name = line.getKey();
+            int quantity = line.getValue();
+            List<InventoryItem> warehouseItems = warehouseStock.getOrDefault(name, List.of());
+
+            Map<Long, Integer> deducted = deductWarehouseStock(warehouseItems, quantity, name);
+            warehouseItems.forEach(item -> touchedWarehouseItems.add(item.getId()));
+
+            // Add to department inventory
+            InventoryItem departmentItem = departmentStock.get(name);
+            if (departmentItem != null) {
+                inventoryItemRepository.incrementQuantity(departmentItem.getId(), quantity);
+            } else {
+                // This is a new item for the department
+                InventoryItem requestedItem = requestedItems.get(name);
+                departmentItem = new InventoryItem();
+                departmentItem.setName(name);
+                departmentItem.setDescription(requestedItem.getDescription());
+                departmentItem.setDepartment(targetDepartment);
+                departmentItem.setQuantity(quantity);
+                departmentItem.setEnterprise(targetDepartment.getEnterprise());
+                departmentItem.setMinimumQuantity(requestedItem.getMinimumQuantity());
+                departmentItem.setPrice(requestedItem.getPrice());
+                departmentItem.setWarehouse(request.getSourceWarehouse());
+                departmentItem = inventoryItemRepository.save(departmentItem);
+            }
 
-        if (approved) {
-            Department targetDepartment = departmentRepository.findById(request.getTargetDepartment().getId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Target department not found"));
-                
-            for (RequestItem requestItem : request.getRequestItems()) {
-                // Get all warehouse items with the same name
-                List<InventoryItem> warehouseItems = inventoryItemRepository.findByWarehouse_Id(request.getSourceWarehouse().getId())
-                    .stream()
-                    .filter(item -> item.getName().equals(requestItem.getInventoryItem().getName()))
-                    .collect(Collectors.toList());
+            for (InventoryItem warehouseItem : warehouseItems) {
+                Integer taken = deducted.get(warehouseItem.getId());
+                if (taken != null) {
+                    movements.transferred(warehouseItem, departmentItem, taken);
+                }
+            }
+        }
+        movements.write();
 
-                // Calculate total available quantity
-                int totalAvailable = warehouseItems.stream()
-                    .mapToInt(InventoryItem::getQuantity)
-                    .sum();
+        if (!touchedWarehouseItems.isEmpty()) {
+            inventoryItemRepository.deleteEmptyByIdIn(touchedWarehouseItems);
+        }
+    }
 
-                if (totalAvailable < requestItem.getQuantity()) {
+    /**
+     * Takes the quantity from the given rows with conditional decrements, so the
+     * stock can never go negative however many approvals run at once. A row whose
+     * quantity changed since it was read is re-read a bounded number of times.
+     * @return the quantity taken from each row, by item id
+     */
+    private Map<Long, Integer> deductWarehouseStock(List<InventoryItem> warehouseItems, int quantity, String itemName) {
+        Map<Long, Integer> deducted = new LinkedHashMap<>();
+        int remaining = quantity;
+        for (InventoryItem warehouseItem : warehouseItems) {
+            int available = warehouseItem.getQuantity();
+            for (int attempt = 1; remaining > 0 && available > 0; attempt++) {
+                int deductFromThis = Math.min(available, remaining);
+                if (inventoryItemRepository.decrementQuantity(warehouseItem.getId(), deductFromThis) == 1) {
+                    remaining -= deductFromThis;
+                    deducted.merge(warehouseItem.getId(), deductFromThis, Integer::sum);
+                    break;
+                }
+                if (attempt >= MAX_STOCK_UPDATE_ATTEMPTS) {
                     throw new IllegalStateException(
-                        String.format("Insufficient quantity available for item: %s", requestItem.getInventoryItem().getName())
+                        String.format("Stock of item %s is changing concurrently, please retry", itemName)
                     );
                 }
+                available = inventoryItemRepository.findQuantityById(warehouseItem.getId()).orElse(0);
+            }
+            if (remaining == 0) {
+                return deducted;
+            }
+        }
+        throw new IllegalStateException(
+            String.format("Insufficient quantity available for item: %s", itemName)
+        );
+    }
 
-                // Deduct from warehouse inventory
-                int remainingToDeduct = requestItem.getQuantity();
-                for (InventoryItem warehouseItem : warehouseItems) {
-                    if (remainingToDeduct <= 0) break;
+    @Override
+    @Transactional
+    @Timed(value = "inventory.requests.approve.batch", description = "Approving a batch of warehouse item requests")
+    public Map<Long, RuntimeException> approveItemRequests(List<Approval> approvals) {
+        Map<Long, RuntimeException> failures = new HashMap<>();
+        Set<Long> requestIds = approvals.stream().map(Approval::requestId).collect(Collectors.toSet());
+
+        // Lock the requests, then the stock rows, each in id order
+        Map<Long, ItemRequest> locked = itemRequestRepository.findAllByIdInForUpdate(requestIds).stream()
+                .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+        List<Approval> pending = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        for (Approval approval : approvals) {
+            ItemRequest request = locked.get(approval.requestId());
+            if (request == null) {
+                failures.put(approval.requestId(), new ResourceNotFoundException("Request not found"));
+            } else if (request.getStatus() != RequestStatus.PENDING || !seen.add(approval.requestId())) {
+                failures.put(approval.requestId(), new IllegalStateException("Request has already been processed"));
+            } else {
+                pending.add(approval);
+            }
+        }
+        if (pending.isEmpty()) {
+            return failures;
+        }
 
-                    int deductFromThis = Math.min(warehouseItem.getQuantity(), remainingToDeduct);
-                    warehouseItem.setQuantity(warehouseItem.getQuantity() - deductFromThis);
-                    remainingToDeduct -= deductFromThis;
+        Map<Long, ItemRequest> requests = itemRequestRepository.findAllByIdInWithItems(
+                        pending.stream().map(Approval::requestId).toList())
+                .stream()
+                .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+        Set<Long> warehouseIds = new HashSet<>();
+        Set<String> names = new HashSet<>();
+        for (ItemRequest request : requests.values()) {
+            warehouseIds.add(request.getSourceWarehouse().getId());
+            request.getRequestItems().forEach(requestItem -> names.add(requestItem.getInventoryItem().getName()));
+        }
+        Map<StockKey, List<InventoryItem>> warehouseStock = new HashMap<>();
+        Map<Long, Integer> available = new HashMap<>();
+        for (InventoryItem item : inventoryItemRepository.findWarehouseStockByNamesForUpdate(warehouseIds, names)) {
+            warehouseStock.computeIfAbsent(new StockKey(item.getWarehouse().getId(), item.getName()),
+                    key -> new ArrayList<>()).add(item);
+            available.put(item.getId(), item.getQuantity());
+        }
 
-                    if (warehouseItem.getQuantity() == 0) {
-                        inventoryItemRepository.delete(warehouseItem);
-                    } else {
-                        inventoryItemRepository.save(warehouseItem);
+        // Allocate in arrival order; a request that cannot be met in full takes nothing
+        Map<Long, List<Allocation>> allocations = new LinkedHashMap<>();
+        for (Approval approval : pending) {
+            ItemRequest request = requests.get(approval.requestId());
+            List<Allocation> allocated = new ArrayList<>();
+            Map<Long, Integer> taken = new HashMap<>();
+            for (RequestItem requestItem : request.getRequestItems()) {
+                String name = requestItem.getInventoryItem().getName();
+                int remaining = requestItem.getQuantity();
+                for (InventoryItem warehouseItem : warehouseStock.getOrDefault(
+                        new StockKey(request.getSourceWarehouse().getId(), name), List.of())) {
+                    int free = available.get(warehouseItem.getId()) - taken.getOrDefault(warehouseItem.getId(), 0);
+                    int take = Math.min(free, remaining);
+                    if (take > 0) {
+                        taken.merge(warehouseItem.getId(), take, Integer::sum);
+                        allocated.add(new Allocation(requestItem, warehouseItem, take));
+                        remaining -= take;
+                    }
+                    if (remaining == 0) {
+                        break;
                     }
                 }
-                
-                // Add to department inventory
-                InventoryItem departmentItem = inventoryItemRepository
-                    .findByNameAndDepartment_Id(requestItem.getInventoryItem().getName(), targetDepartment.getId())
-                    .orElse(new InventoryItem());
-                
-                if (departmentItem.getId() == null) {
-                    // This is a new item for the department
-                    departmentItem.setName(requestItem.getInventoryItem().getName());
-                    departmentItem.setDescription(requestItem.getInventoryItem().getDescription());
+                if (remaining > 0) {
+                    failures.put(approval.requestId(), new IllegalStateException(
+                        String.format("Insufficient quantity available for item: %s", name)
+                    ));
+                    break;
+                }
+            }
+            if (!failures.containsKey(approval.requestId())) {
+                taken.forEach((itemId, quantity) -> available.merge(itemId, -quantity, Integer::sum));
+                allocations.put(approval.requestId(), allocated);
+            }
+        }
+        if (allocations.isEmpty()) {
+            return failures;
+        }
+
+        // The rows are locked, so the new quantities are written as plain updates on flush
+        Set<Long> touchedWarehouseItems = new HashSet<>();
+        for (List<InventoryItem> items : warehouseStock.values()) {
+            for (InventoryItem item : items) {
+                int quantity = available.get(item.getId());
+                if (item.getQuantity() != quantity) {
+                    item.setQuantity(quantity);
+                    touchedWarehouseItems.add(item.getId());
+                }
+            }
+        }
+
+        // One increment per existing department row, one new row per department and name otherwise
+        Set<Long> departmentIds = allocations.keySet().stream()
+                .map(requestId -> requests.get(requestId).getTargetDepartment().getId())
+                .collect(Collectors.toSet());
+        Map<StockKey, InventoryItem> departmentStock = new HashMap<>();
+        for (InventoryItem item : inventoryItemRepository.findDepartmentStockByNames(departmentIds, names)) {
+            departmentStock.putIfAbsent(new StockKey(item.getDepartment().getId(), item.getName()), item);
+        }
+        Map<StockKey, Integer> incoming = new LinkedHashMap<>();
+        for (Map.Entry<Long, List<Allocation>> entry : allocations.entrySet()) {
+            ItemRequest request = requests.get(entry.getKey());
+            for (Allocation allocation : entry.getValue()) {
+                StockKey key = new StockKey(request.getTargetDepartment().getId(),
+                        allocation.warehouseItem().getName());
+                incoming.merge(key, allocation.quantity(), Integer::sum);
+                if (!departmentStock.containsKey(key)) {
+                    Department targetDepartment = request.getTargetDepartment();
+                    InventoryItem template = allocation.requestItem().getInventoryItem();
+                    InventoryItem departmentItem = new InventoryItem();
+                    departmentItem.setName(template.getName());
+                    departmentItem.setDescription(template.getDescription());
                     departmentItem.setDepartment(targetDepartment);
-                    departmentItem.setQuantity(requestItem.getQuantity());
+                    departmentItem.setQuantity(0);
                     departmentItem.setEnterprise(targetDepartment.getEnterprise());
-                    departmentItem.setMinimumQuantity(requestItem.getInventoryItem().getMinimumQuantity());
-                    departmentItem.setPrice(requestItem.getInventoryItem().getPrice());
+                    departmentItem.setMinimumQuantity(template.getMinimumQuantity());
+                    departmentItem.setPrice(template.getPrice());
                     departmentItem.setWarehouse(request.getSourceWarehouse());
-                } else {
-                    // Update existing item quantity
-                    departmentItem.setQuantity(departmentItem.getQuantity() + requestItem.getQuantity());
+                    departmentStock.put(key, departmentItem);
                 }
-                
-                // Save the department item
-                inventoryItemRepository.save(departmentItem);
             }
         }
+        List<InventoryItem> createdDepartmentItems = new ArrayList<>();
+        incoming.forEach((key, quantity) -> {
+            InventoryItem departmentItem = departmentStock.get(key);
+            if (departmentItem.getId() != null) {
+                inventoryItemRepository.incrementQuantity(departmentItem.getId(), quantity);
+            } else {
+                departmentItem.setQuantity(quantity);
+                createdDepartmentItems.add(departmentItem);
+            }
+        });
+        inventoryItemRepository.saveAll(createdDepartmentItems);
+
+        LocalDateTime processedDate = LocalDateTime.now();
+        for (Approval approval : pending) {
+            List<Allocation> allocated = allocations.get(approval.requestId());
+            if (allocated == null) {
+                continue;
+            }
+            ItemRequest request = requests.get(approval.requestId());
+            request.setStatus(RequestStatus.APPROVED);
+            request.setResponseComments(approval.responseComments());
+            request.setProcessedDate(processedDate);
+            publishRequestEvent(RequestEventType.REQUEST_APPROVED, request);
+
+            StockLedger.Batch movements = stockLedger.batch(approval.requestId(), approval.actorId());
+            for (Allocation allocation : allocated) {
+                InventoryItem departmentItem = departmentStock.get(new StockKey(
+                        request.getTargetDepartment().getId(), allocation.warehouseItem().getName()));
+                movements.transferred(allocation.warehouseItem(), departmentItem, allocation.quantity());
+            }
+            movements.write();
+        }
+
+        if (!touchedWarehouseItems.isEmpty()) {
+            inventoryItemRepository.deleteEmptyByIdIn(touchedWarehouseItems);
+        }
+        return failures;
+    }
+
+    // Delivered to the event streams once the transaction commits
+    private void publishRequestEvent(RequestEventType type, ItemRequest request) {
+        eventPublisher.publishEvent(RequestEventDTO.builder()
+                .type(type)
+                .requestId(request.getId())
+                .status(type == RequestEventType.REQUEST_CREATED ? RequestStatus.PENDING : RequestStatus.APPROVED)
+                .enterpriseId(request.getSourceWarehouse().getEnterprise().getId())
+                .warehouseId(request.getSourceWarehouse().getId())
+                .departmentId(request.getTargetDepartment().getId())
+                .userId(request.getRequester().getId())
+                .itemIds(request.getRequestItems().stream()
+                        .map(requestItem -> requestItem.getInventoryItem().getId())
+                        .toList())
+                .occurredAt(LocalDateTime.now())
+                .build());
+    }
+
+    private record StockKey(Long locationId, String name) {
+    }
 
-        // Save and flush the request
-        itemRequestRepository.saveAndFlush(request);
+    private record Allocation(RequestItem requestItem, InventoryItem warehouseItem, int quantity) {
     }
 
     @Override
@@ -0,0 +1,284 @@
+package com.enterprise.inventorymanagement.service;
+
+import com.enterprise.inventorymanagement.model.RequestEventType;
+import com.enterprise.inventorymanagement.model.dto.RequestEventDTO;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Pushes {@link RequestEventDTO}s to the server-sent event streams opened through {@code /api/events},
+ * so dashboards stop polling the request listings. Events are published with Spring's
+ * {@code ApplicationEventPublisher} and delivered once their transaction commits, each to the streams
+ * whose user may see it. An open stream costs no query: it only receives the events and a heartbeat.
+ * <p>
+ * Recent events are kept for resuming with {@code Last-Event-ID}; a client that missed more than that
+ * is sent a {@code RESYNC} event and refetches once. Every stream has a bounded buffer, and a client
+ * that falls that far behind is disconnected to resume from where it was.
+ */
+@Component
+public class RequestEventBroker implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestEventBroker.class);
+
+    private static final String RESYNC = "RESYNC";
+    private static final Object HEARTBEAT = new Object();
+
+    private final int replaySize;
+    private final int connectionBuffer;
+    private final long timeoutMillis;
+    private final long reconnectMillis;
+    private final Deque<RequestEventDTO> replay = new ArrayDeque<>();
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders;
+    // Seeded from the clock so ids keep rising across restarts and a stale Last-Event-ID is noticed
+    private final AtomicLong sequence = new AtomicLong(System.currentTimeMillis() * 1000);
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong overflowed = new AtomicLong();
+
+    public RequestEventBroker(@Value("${app.events.replay-size:1000}") int replaySize,
+                              @Value("${app.events.connection-buffer:100}") int connectionBuffer,
+                              @Value("${app.events.timeout:30m}") Duration timeout,
+                              @Value("${app.events.reconnect:3s}") Duration reconnect,
+                              @Value("${app.events.sender-threads:2}") int senderThreads) {
+        this.replaySize = Math.max(0, replaySize);
+        this.connectionBuffer = Math.max(1, connectionBuffer);
+        this.timeoutMillis = timeout.toMillis();
+        this.reconnectMillis = reconnect.toMillis();
+        AtomicInteger counter = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(Math.max(1, senderThreads), runnable -> {
+            Thread thread = new Thread(runnable, "request-events-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Open an event stream for the given user, optionally narrowed to one warehouse or department
+     *
+     * @param lastEventId the last event the client received before reconnecting, or null
+     */
+    public SseEmitter subscribe(UserDetailsImpl user, Long warehouseId, Long departmentId, Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscription subscription = new Subscription(emitter, user, warehouseId, departmentId);
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(subscription::close);
+        emitter.onError(error -> subscription.close());
+
+        subscription.offer(SseEmitter.event().reconnectTime(reconnectMillis).comment("connected"));
+        // Registered under the replay lock, so no event is missed or sent twice between replay and live
+        synchronized (replay) {
+            if (lastEventId != null) {
+                RequestEventDTO oldest = replay.peekFirst();
+                boolean missedTooMuch = lastEventId > sequence.get()
+                        || (oldest != null && lastEventId < oldest.getId() - 1)
+                        || (oldest == null && lastEventId < sequence.get());
+                if (missedTooMuch) {
+                    subscription.offer(SseEmitter.event().name(RESYNC).data(""));
+                } else {
+                    for (RequestEventDTO event : replay) {
+                        if (event.getId() > lastEventId && subscription.accepts(event)) {
+                            subscription.offer(event);
+                        }
+                    }
+                }
+            }
+            subscriptions.add(subscription);
+        }
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEvent(RequestEventDTO event) {
+        synchronized (replay) {
+            event.setId(sequence.incrementAndGet());
+            if (replaySize > 0) {
+                if (replay.size() >= replaySize) {
+                    replay.removeFirst();
+                }
+                replay.addLast(event);
+            }
+            published.incrementAndGet();
+            for (Subscription subscription : subscriptions) {
+                if (subscription.accepts(event)) {
+                    subscription.offer(event);
+                }
+            }
+        }
+    }
+
+    // Keeps idle streams open through proxies and notices clients that went away
+    @Scheduled(fixedDelayString = "${app.events.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        for (Subscription subscription : subscriptions) {
+            subscription.offer(HEARTBEAT);
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    public long getPublishedCount() {
+        return published.get();
+    }
+
+    public long getOverflowedCount() {
+        return overflowed.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("events.subscribers", this, RequestEventBroker::getSubscriberCount)
+                .description("Open event streams")
+                .register(registry);
+        FunctionCounter.builder("events.published", this, RequestEventBroker::getPublishedCount)
+                .description("Events published to the event streams")
+                .register(registry);
+        FunctionCounter.builder("events.overflowed", this, RequestEventBroker::getOverflowedCount)
+                .description("Event streams closed because the client fell too far behind")
+                .register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscriptions.forEach(Subscription::complete);
+        senders.shutdown();
+    }
+
+    /**
+     * One open stream: what its user may see, and the events waiting to be written to it
+     */
+    private final class Subscription {
+
+        private final SseEmitter emitter;
+        private final Long userId;
+        private final Long enterpriseId;
+        private final Long departmentId;
+        private final Set<String> authorities;
+        private final Long warehouseFilter;
+        private final Long departmentFilter;
+        private final BlockingQueue<Object> pending = new ArrayBlockingQueue<>(connectionBuffer);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+
+        Subscription(SseEmitter emitter, UserDetailsImpl user, Long warehouseFilter, Long departmentFilter) {
+            this.emitter = emitter;
+            this.userId = user.getId();
+            this.enterpriseId = user.getEnterpriseId();
+            this.departmentId = user.getDepartmentId();
+            this.authorities = user.getAuthorities().stream()
+                    .map(GrantedAuthority::getAuthority)
+                    .collect(Collectors.toUnmodifiableSet());
+            this.warehouseFilter = warehouseFilter;
+            this.departmentFilter = departmentFilter;
+        }
+
+        boolean accepts(RequestEventDTO event) {
+            if (event.getEnterpriseId() == null || !event.getEnterpriseId().equals(enterpriseId)) {
+                return false;
+            }
+            if ((warehouseFilter != null && !warehouseFilter.equals(event.getWarehouseId()))
+                    || (departmentFilter != null && !departmentFilter.equals(event.getDepartmentId()))) {
+                return false;
+            }
+            if (userId.equals(event.getUserId())) {
+                return true;
+            }
+            if (event.getType() == RequestEventType.STOCK_CHANGED) {
+                return authorities.contains("VIEW_INVENTORY");
+            }
+            // Other users' requests only go to those who handle them: VIEW_REQUESTS and VIEW_PENDING_REQUESTS
+            // are held by plain employees too, so they are not enough to follow every warehouse
+            if (event.getWarehouseId() != null
+                    && (authorities.contains("MANAGE_WAREHOUSE") || authorities.contains("MANAGE_REQUESTS"))) {
+                return true;
+            }
+            return event.getDepartmentId() != null && event.getDepartmentId().equals(departmentId)
+                    && authorities.contains("MANAGE_DEPARTMENT");
+        }
+
+        void offer(Object item) {
+            if (closed) {
+                return;
+            }
+            if (!pending.offer(item)) {
+                // Resumes from its last event when the client reconnects
+                overflowed.incrementAndGet();
+                logger.debug("Event stream of user {} fell {} events behind, closing it", userId, connectionBuffer);
+                complete();
+                return;
+            }
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                Object item;
+                while (!closed && (item = pending.poll()) != null) {
+                    send(item);
+                }
+            } catch (IOException | IllegalStateException e) {
+                // The client went away; the emitter callbacks may not run for a failed write
+                close();
+            } finally {
+                draining.set(false);
+                if (!closed && !pending.isEmpty() && draining.compareAndSet(false, true)) {
+                    senders.execute(this::drain);
+                }
+            }
+        }
+
+        private void send(Object item) throws IOException {
+            if (item == HEARTBEAT) {
+                emitter.send(SseEmitter.event().comment("heartbeat"));
+            } else if (item instanceof RequestEventDTO event) {
+                emitter.send(SseEmitter.event()
+                        .id(String.valueOf(event.getId()))
+                        .name(event.getType().name())
+                        .data(event, MediaType.APPLICATION_JSON));
+            } else {
+                emitter.send((SseEmitter.SseEventBuilder) item);
+            }
+        }
+
+        void complete() {
+            close();
+            emitter.complete();
+        }
+
+        void close() {
+            closed = true;
+            pending.clear();
+            subscriptions.remove(this);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.enterprise.inventorymanagement.service;
+
+import com.enterprise.inventorymanagement.model.Department;
+import com.enterprise.inventorymanagement.model.Enterprise;
+import com.enterprise.inventorymanagement.model.InventoryItem;
+import com.enterprise.inventorymanagement.model.User;
+import com.enterprise.inventorymanagement.model.Warehouse;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Bumps the listing versions of the scopes an entity shows up in when it is created, updated or removed.
+ * Covers the item changes the stock ledger does not record, such as renames, and the warehouse, department,
+ * enterprise and user names the listings include. Bulk quantity updates are covered by the ledger's events.
+ */
+public class ScopeVersionListener {
+
+    private final ObjectProvider<ScopeVersions> scopeVersions;
+
+    public ScopeVersionListener(ObjectProvider<ScopeVersions> scopeVersions) {
+        this.scopeVersions = scopeVersions;
+    }
+
+    // A new enterprise, warehouse or department is in no listing until items refer to it, but needs its version
+    @PostPersist
+    public void onCreate(Object entity) {
+        if (entity instanceof InventoryItem) {
+            onChange(entity);
+        } else if (entity instanceof Enterprise enterprise) {
+            scopeVersions.ifAvailable(versions ->
+                    versions.created(ScopeVersions.Scope.ENTERPRISE, enterprise.getId(), enterprise.getId()));
+        } else if (entity instanceof Warehouse warehouse) {
+            scopeVersions.ifAvailable(versions ->
+                    versions.created(ScopeVersions.Scope.WAREHOUSE, warehouse.getId(), id(warehouse.getEnterprise())));
+        } else if (entity instanceof Department department) {
+            scopeVersions.ifAvailable(versions -> versions.created(ScopeVersions.Scope.DEPARTMENT, department.getId(),
+                    id(department.getEnterprise())));
+        }
+    }
+
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        scopeVersions.ifAvailable(versions -> {
+            if (entity instanceof InventoryItem item) {
+                versions.changed(id(item.getEnterprise()), id(item.getWarehouse()), id(item.getDepartment()));
+            } else if (entity instanceof Warehouse warehouse) {
+                versions.changed(id(warehouse.getEnterprise()), warehouse.getId(), null);
+            } else if (entity instanceof Department department) {
+                versions.changed(id(department.getEnterprise()), null, department.getId());
+            } else if (entity instanceof Enterprise enterprise) {
+                versions.changedAcross(enterprise.getId());
+            } else if (entity instanceof User user && user.getEnterprise() != null) {
+                // A user shows up only in their own enterprise's listings
+                versions.changedAcross(user.getEnterprise().getId());
+            }
+        });
+    }
+
+    private static Long id(Enterprise enterprise) {
+        return enterprise != null ? enterprise.getId() : null;
+    }
+
+    private static Long id(Warehouse warehouse) {
+        return warehouse != null ? warehouse.getId() : null;
+    }
+
+    private static Long id(Department department) {
+        return department != null ? department.getId() : null;
+    }
+}
@@ -0,0 +1,246 @@
+package com.enterprise.inventorymanagement.service;
+
+import com.enterprise.inventorymanagement.model.dto.RequestEventDTO;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManager;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Versions of the item listings of every enterprise, warehouse and department, from which the listing
+ * endpoints derive strong ETags. A client revalidating with {@code If-None-Match} gets a 304 for the cost
+ * of one statement reading two rows by primary key, without the listing being queried, as long as nothing
+ * in its scope changed.
+ * <p>
+ * The versions live in {@code scope_versions} (V64) and a scope is bumped in the transaction that changed
+ * it, right before it commits: for stock movements and requests through their {@link RequestEventDTO}s, for
+ * other entity changes through {@link ScopeVersionListener}. Every instance therefore hands out the same
+ * ETags, and a change rolled back bumps nothing. Changes to names shown in every listing of an enterprise,
+ * such as the enterprise's own and its users', bump that enterprise's generation, which is part of the ETags
+ * of all its scopes; other enterprises keep theirs. A scope without a row yet is served without an ETag.
+ */
+@Component
+public class ScopeVersions implements MeterBinder {
+
+    public enum Scope { ENTERPRISE, WAREHOUSE, DEPARTMENT }
+
+    // A scope's row and its enterprise's generation row, both by primary key
+    private static final String SELECT_VERSIONS =
+            "SELECT s.version, s.changed_at, g.version, g.changed_at, LOCALTIMESTAMP FROM scope_versions s " +
+            "JOIN scope_versions g ON g.scope_key = CONCAT('G:', s.enterprise_id) WHERE s.scope_key = ?";
+    // LOCALTIMESTAMP is when the changing transaction started, so long transactions are held back a little less
+    private static final String BUMP =
+            "UPDATE scope_versions SET version = version + 1, changed_at = LOCALTIMESTAMP WHERE scope_key = ?";
+    private static final String CREATE = "INSERT INTO scope_versions (scope_key, enterprise_id, version, changed_at) " +
+            "VALUES (?, ?, 0, LOCALTIMESTAMP)";
+
+    // The keys a transaction created, with their enterprise, and changed, written together right before it commits
+    private static final class Pending {
+        private final Map<String, Long> created = new TreeMap<>();
+        private final Set<String> changed = new TreeSet<>();
+    }
+
+    private record Version(long value, Duration age) {
+    }
+
+    private record Versions(Version scope, Version generation) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+    private final Duration settle;
+    private final LongAdder issued = new LongAdder();
+    private final LongAdder withheld = new LongAdder();
+
+    /**
+     * @param replicaMaxLag with a read replica, how long after a change listings may still be read
+     *                      from before it; no ETag is handed out for a scope during that time
+     */
+    public ScopeVersions(JdbcTemplate jdbcTemplate,
+                         EntityManager entityManager,
+                         @Value("${app.datasource.replica.url:}") String replicaUrl,
+                         @Value("${app.datasource.replica.max-lag:5s}") Duration replicaMaxLag) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManager = entityManager;
+        this.settle = replicaUrl.isBlank() ? Duration.ZERO : replicaMaxLag;
+    }
+
+    /**
+     * The current ETag of a scope's listings, read from the primary
+     *
+     * @return the quoted ETag, or null while a recent change may not have reached the replica yet
+     */
+    public String etag(Scope scope, Long id) {
+        List<Versions> rows = jdbcTemplate.query(SELECT_VERSIONS, (row, rowNum) -> {
+            LocalDateTime now = row.getTimestamp(5).toLocalDateTime();
+            return new Versions(
+                    new Version(row.getLong(1), Duration.between(row.getTimestamp(2).toLocalDateTime(), now)),
+                    new Version(row.getLong(3), Duration.between(row.getTimestamp(4).toLocalDateTime(), now)));
+        }, key(scope, id));
+        if (rows.isEmpty()) {
+            return null;
+        }
+        Version version = rows.get(0).scope();
+        Version generation = rows.get(0).generation();
+        // Change times are the database's, so every instance holds a change back for the same window
+        if (settling(generation) || settling(version)) {
+            withheld.increment();
+            return null;
+        }
+        issued.increment();
+        // The scope is part of the tag, as one URL lists another enterprise's items for each user
+        return "\"" + scope.name().charAt(0) + id + "-" + generation.value() + "-" + version.value() + "\"";
+    }
+
+    // Published inside the transaction that moved the stock or handled the request
+    @EventListener
+    public void onEvent(RequestEventDTO event) {
+        changed(event.getEnterpriseId(), event.getWarehouseId(), event.getDepartmentId());
+    }
+
+    /**
+     * Bump the given enterprise and, when not null, the warehouse and department as the current
+     * transaction commits
+     */
+    public void changed(Long enterpriseId, Long warehouseId, Long departmentId) {
+        record(pending -> {
+            if (enterpriseId != null) {
+                pending.changed.add(key(Scope.ENTERPRISE, enterpriseId));
+            }
+            if (warehouseId != null) {
+                pending.changed.add(key(Scope.WAREHOUSE, warehouseId));
+            }
+            if (departmentId != null) {
+                pending.changed.add(key(Scope.DEPARTMENT, departmentId));
+            }
+        });
+    }
+
+    /**
+     * Bump every scope of the given enterprise as the current transaction commits
+     */
+    public void changedAcross(Long enterpriseId) {
+        record(pending -> pending.changed.add(generationKey(enterpriseId)));
+    }
+
+    /**
+     * Give a new enterprise, warehouse or department of the given enterprise its version as the current
+     * transaction commits; a new enterprise also gets its generation
+     */
+    public void created(Scope scope, Long id, Long enterpriseId) {
+        record(pending -> {
+            pending.created.put(key(scope, id), enterpriseId);
+            if (scope == Scope.ENTERPRISE) {
+                pending.created.put(generationKey(id), id);
+            }
+        });
+    }
+
+    public long getIssuedCount() {
+        return issued.sum();
+    }
+
+    public long getWithheldCount() {
+        return withheld.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("listings.etags.issued", this, ScopeVersions::getIssuedCount)
+                .description("Listing ETags computed for a response or a revalidation")
+                .register(registry);
+        FunctionCounter.builder("listings.etags.withheld", this, ScopeVersions::getWithheldCount)
+                .description("Listings served without an ETag as their scope changed within the replica lag")
+                .register(registry);
+    }
+
+    private boolean settling(Version version) {
+        return !settle.isZero() && version.age().compareTo(settle) < 0;
+    }
+
+    /**
+     * Collects a transaction's changes and writes them from Hibernate's before-completion phase, which runs
+     * after the final flush: bumps from entity listeners fired by that flush still make it into the commit.
+     * Outside a transaction the changes are written right away.
+     */
+    private void record(Consumer<Pending> change) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            Pending pending = new Pending();
+            change.accept(pending);
+            jdbcTemplate.execute((Connection connection) -> {
+                write(connection, pending);
+                return null;
+            });
+            return;
+        }
+        Pending pending = (Pending) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Pending keys = new Pending();
+            TransactionSynchronizationManager.bindResource(this, keys);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ScopeVersions.this);
+                }
+            });
+            BeforeTransactionCompletionProcess writeKeys =
+                    session -> session.doWork(connection -> write(connection, keys));
+            entityManager.unwrap(SessionImplementor.class).getActionQueue().registerProcess(writeKeys);
+            pending = keys;
+        }
+        change.accept(pending);
+    }
+
+    // Rows are updated in key order, so transactions bumping overlapping scopes cannot deadlock
+    private static void write(Connection connection, Pending pending) throws SQLException {
+        if (!pending.created.isEmpty()) {
+            try (PreparedStatement statement = connection.prepareStatement(CREATE)) {
+                for (Map.Entry<String, Long> created : pending.created.entrySet()) {
+                    statement.setString(1, created.getKey());
+                    statement.setObject(2, created.getValue(), Types.BIGINT);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        }
+        if (!pending.changed.isEmpty()) {
+            try (PreparedStatement statement = connection.prepareStatement(BUMP)) {
+                for (String key : pending.changed) {
+                    statement.setString(1, key);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        }
+    }
+
+    private static String key(Scope scope, Long id) {
+        return scope.name().charAt(0) + ":" + id;
+    }
+
+    private static String generationKey(Long enterpriseId) {
+        return "G:" + enterpriseId;
+    }
+}
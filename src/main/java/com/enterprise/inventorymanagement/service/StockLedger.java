@@ -0,0 +1,247 @@
+package com.enterprise.inventorymanagement.service;
+
+import com.enterprise.inventorymanagement.model.InventoryItem;
+import com.enterprise.inventorymanagement.model.MovementType;
+import com.enterprise.inventorymanagement.model.RequestEventType;
+import com.enterprise.inventorymanagement.model.StockLocation;
+import com.enterprise.inventorymanagement.model.StockMovement;
+import com.enterprise.inventorymanagement.model.StockSnapshot;
+import com.enterprise.inventorymanagement.model.dto.RequestEventDTO;
+import com.enterprise.inventorymanagement.repository.StockMovementRepository;
+import com.enterprise.inventorymanagement.repository.StockSnapshotRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Append-only history of stock changes. Services collect the movements of one operation in a
+ * {@link Batch} and write it in the same transaction as the change; with JDBC batching and pooled
+ * ids the rows go out as a few batched inserts. A periodic snapshot folds history into per-item
+ * balances, so rebuilding current stock only reads the movements since the last snapshot.
+ */
+@Component
+public class StockLedger {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockLedger.class);
+
+    private final StockMovementRepository movementRepository;
+    private final StockSnapshotRepository snapshotRepository;
+    private final AuthenticationFacade authenticationFacade;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.stock-ledger.snapshot.retained:2}")
+    private int retainedSnapshots;
+
+    public StockLedger(StockMovementRepository movementRepository,
+                       StockSnapshotRepository snapshotRepository,
+                       AuthenticationFacade authenticationFacade,
+                       ApplicationEventPublisher eventPublisher) {
+        this.movementRepository = movementRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.authenticationFacade = authenticationFacade;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Start collecting the movements of one operation by the current user
+     */
+    public Batch batch() {
+        return batch(null);
+    }
+
+    /**
+     * Start collecting the movements made while fulfilling the given request
+     */
+    public Batch batch(Long requestId) {
+        return new Batch(currentActorId(), requestId);
+    }
+
+    /**
+     * Start collecting the movements made while fulfilling the given request on behalf of another user,
+     * for work that runs outside that user's request thread
+     */
+    public Batch batch(Long requestId, Long actorId) {
+        return new Batch(actorId, requestId);
+    }
+
+    /**
+     * Id of the user the current thread acts for, or null outside an authenticated request
+     */
+    public Long currentActorId() {
+        Authentication authentication = authenticationFacade.getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserDetailsImpl principal) {
+            return principal.getId();
+        }
+        return null;
+    }
+
+    /**
+     * Current balance of every item with stock, from the latest snapshot and the movements after it
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, Long> rebuildBalances() {
+        Map<Long, Long> balances = new HashMap<>();
+        for (Object[] row : snapshotRepository.findCurrentBalances()) {
+            balances.put(((Number) row[0]).longValue(), ((Number) row[1]).longValue());
+        }
+        return balances;
+    }
+
+    @Transactional(readOnly = true)
+    public long rebuildBalance(Long itemId) {
+        List<Object[]> rows = snapshotRepository.findCurrentBalance(itemId);
+        return rows.isEmpty() ? 0L : ((Number) rows.get(0)[1]).longValue();
+    }
+
+    /**
+     * Fold the movements committed since the previous snapshot into a new one and drop snapshots beyond the
+     * retained count. Movements are told apart by the transaction that wrote them (see V63), so a transaction
+     * still open now is folded in by a later snapshot whenever it commits.
+     */
+    @Transactional
+    @Scheduled(fixedDelayString = "${app.stock-ledger.snapshot.interval-ms:900000}",
+               initialDelayString = "${app.stock-ledger.snapshot.interval-ms:900000}")
+    public StockSnapshot takeSnapshot() {
+        LocalDateTime cutoff = LocalDateTime.now();
+        StockSnapshot previous = snapshotRepository.findFirstByOrderByCutoffDescIdDesc().orElse(null);
+
+        // The row takes its database snapshot on insert, so it is flushed before the balances are folded
+        StockSnapshot snapshot = snapshotRepository.saveAndFlush(new StockSnapshot(cutoff));
+        int items = snapshotRepository.insertBalances(snapshot.getId(), previous != null ? previous.getId() : -1L);
+        snapshot.setItemCount(items);
+
+        List<StockSnapshot> all = snapshotRepository.findAllByOrderByCutoffDescIdDesc();
+        if (all.size() > retainedSnapshots) {
+            List<Long> expired = all.subList(retainedSnapshots, all.size()).stream()
+                    .map(StockSnapshot::getId)
+                    .toList();
+            snapshotRepository.deleteBalancesBySnapshotIdIn(expired);
+            snapshotRepository.deleteAllByIdInBatch(expired);
+        }
+        logger.info("Stock snapshot {} as of {} holds {} item balances", snapshot.getId(), cutoff, items);
+        return snapshot;
+    }
+
+    private record ChangedLocation(Long enterpriseId, StockLocation.Type type, Long locationId) {
+
+        Long idIf(StockLocation.Type expected) {
+            return type == expected ? locationId : null;
+        }
+    }
+
+    /**
+     * Movements of one operation, written together by {@link #write()}
+     */
+    public class Batch {
+
+        private final Long actorId;
+        private final Long requestId;
+        private final LocalDateTime occurredAt = LocalDateTime.now();
+        private final List<StockMovement> movements = new ArrayList<>();
+
+        private Batch(Long actorId, Long requestId) {
+            this.actorId = actorId;
+            this.requestId = requestId;
+        }
+
+        public Batch created(InventoryItem item) {
+            return add(item, MovementType.CREATED, null, StockLocation.of(item), item.getQuantity());
+        }
+
+        /**
+         * A manual change of quantity or location; the item must already carry its new state
+         */
+        public Batch adjusted(InventoryItem item, int previousQuantity, StockLocation previousLocation) {
+            StockLocation location = StockLocation.of(item);
+            if (item.getQuantity() == previousQuantity && sameLocation(previousLocation, location)) {
+                return this;
+            }
+            return add(item, MovementType.ADJUSTED, previousLocation, location, item.getQuantity() - previousQuantity);
+        }
+
+        public Batch deleted(InventoryItem item) {
+            return add(item, MovementType.DELETED, StockLocation.of(item), null, -item.getQuantity());
+        }
+
+        /**
+         * Quantity taken from one item row and added to another; records one movement for each row
+         */
+        public Batch transferred(InventoryItem source, InventoryItem target, int quantity) {
+            StockLocation from = StockLocation.of(source);
+            StockLocation to = StockLocation.of(target);
+            add(source, MovementType.TRANSFERRED, from, to, -quantity);
+            return add(target, MovementType.TRANSFERRED, from, to, quantity);
+        }
+
+        public void write() {
+            if (!movements.isEmpty()) {
+                movementRepository.saveAll(movements);
+                publishStockChanges();
+                movements.clear();
+            }
+        }
+
+        // One event per location whose stock changed, delivered to the event streams on commit
+        private void publishStockChanges() {
+            Map<ChangedLocation, Set<Long>> changes = new LinkedHashMap<>();
+            for (StockMovement movement : movements) {
+                for (StockLocation location : new StockLocation[] {movement.getFrom(), movement.getTo()}) {
+                    if (location != null) {
+                        changes.computeIfAbsent(new ChangedLocation(movement.getEnterpriseId(), location.getType(),
+                                location.getLocationId()), key -> new LinkedHashSet<>()).add(movement.getItemId());
+                    }
+                }
+            }
+            changes.forEach((location, itemIds) -> eventPublisher.publishEvent(RequestEventDTO.builder()
+                    .type(RequestEventType.STOCK_CHANGED)
+                    .requestId(requestId)
+                    .enterpriseId(location.enterpriseId())
+                    .warehouseId(location.idIf(StockLocation.Type.WAREHOUSE))
+                    .departmentId(location.idIf(StockLocation.Type.DEPARTMENT))
+                    .userId(location.idIf(StockLocation.Type.USER))
+                    .itemIds(List.copyOf(itemIds))
+                    .occurredAt(occurredAt)
+                    .build()));
+        }
+
+        private Batch add(InventoryItem item, MovementType type, StockLocation from, StockLocation to, int delta) {
+            if (delta == 0 && type != MovementType.ADJUSTED) {
+                return this;
+            }
+            movements.add(StockMovement.builder()
+                    .occurredAt(occurredAt)
+                    .enterpriseId(item.getEnterprise().getId())
+                    .itemId(item.getId())
+                    .itemName(item.getName())
+                    .movementType(type)
+                    .from(from)
+                    .to(to)
+                    .delta(delta)
+                    .actorId(actorId)
+                    .requestId(requestId)
+                    .build());
+            return this;
+        }
+
+        private boolean sameLocation(StockLocation a, StockLocation b) {
+            if (a == null || b == null) {
+                return a == b;
+            }
+            return a.getType() == b.getType() && a.getLocationId().equals(b.getLocationId());
+        }
+    }
+}
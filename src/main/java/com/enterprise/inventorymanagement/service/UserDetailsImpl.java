@@ -35,10 +35,11 @@ public class UserDetailsImpl implements UserDetails {
     private final String role;
     private final Collection<? extends GrantedAuthority> authorities;
     private final boolean active;
+    private final int tokenVersion;
 
     public UserDetailsImpl(Long id, String username, String fullName, String email, String password, 
                          Long enterpriseId, Long departmentId, String departmentName, String role, 
-                         Collection<? extends GrantedAuthority> authorities, boolean active) {
+                         Collection<? extends GrantedAuthority> authorities, boolean active, int tokenVersion) {
         this.id = id;
         this.username = username;
         this.fullName = fullName;
@@ -50,10 +51,19 @@ public class UserDetailsImpl implements UserDetails {
         this.role = role;
         this.authorities = authorities;
         this.active = active;
+        this.tokenVersion = tokenVersion;
         logger.debug("Created UserDetailsImpl - username: {}, role: {}, departmentId: {}, authorities: {}", 
             username, role, departmentId, authorities);
     }
 
+    /**
+     * Copy of this principal carrying a different password hash
+     */
+    public UserDetailsImpl withPassword(String newPassword) {
+        return new UserDetailsImpl(id, username, fullName, email, newPassword, enterpriseId, departmentId,
+                departmentName, role, authorities, active, tokenVersion);
+    }
+
     public static UserDetailsImpl build(User user) {
         logger.debug("Building UserDetails for user: {} with role: {}", 
             user.getUsername(), user.getRole().getName());
@@ -88,7 +98,8 @@ public class UserDetailsImpl implements UserDetails {
                 user.getDepartment() != null ? user.getDepartment().getName() : null,
                 roleAuthority,
                 authorities,
-                Boolean.TRUE.equals(user.getActive())
+                Boolean.TRUE.equals(user.getActive()),
+                user.getTokenVersion()
         );
     }
 
@@ -2,6 +2,7 @@ package com.enterprise.inventorymanagement.service;
 
 import com.enterprise.inventorymanagement.model.User;
 import com.enterprise.inventorymanagement.repository.UserRepository;
+import com.enterprise.inventorymanagement.security.PrincipalCache;
 import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -11,21 +12,23 @@ import org.springframework.stereotype.Service;
 import java.util.stream.Collectors;
 
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
     private static final Logger logger = LoggerFactory.getLogger(UserDetailsServiceImpl.class);
 
     private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
 
     @Autowired
-    public UserDetailsServiceImpl(UserRepository userRepository) {
+    public UserDetailsServiceImpl(UserRepository userRepository, PrincipalCache principalCache) {
         this.userRepository = userRepository;
+        this.principalCache = principalCache;
     }
 
     @Override
     @Transactional
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
+        User user = userRepository.findPrincipalByUsername(username)
                 .orElseThrow(() ->
                         new UsernameNotFoundException("User Not Found with username: " + username));
 
@@ -33,7 +36,6 @@ public class UserDetailsServiceImpl implements UserDetailsService {
             throw new UsernameNotFoundException("User is disabled");
         }
 
-        // Force loading of permissions within transaction
         int permissionCount = user.getRole().getPermissions().size();
         logger.debug("Loaded {} permissions for user {}", permissionCount, username);
         logger.debug("Role: {}", user.getRole().getName());
@@ -44,16 +46,24 @@ public class UserDetailsServiceImpl implements UserDetailsService {
         return UserDetailsImpl.build(user);
     }
 
-    @Transactional
+    /**
+     * Load the principal of an authenticated request, served from the principal cache when possible.
+     * Runs without a transaction so cache hits take no connection; a miss loads everything the
+     * principal needs with the principal entity graph.
+     */
     public UserDetails loadUserById(Long id) throws UsernameNotFoundException {
-        User user = userRepository.findById(id)
+        return principalCache.get(id, this::buildUserDetails);
+    }
+
+    private UserDetailsImpl buildUserDetails(Long id) {
+        User user = userRepository.findPrincipalById(id)
                 .orElseThrow(() -> new UsernameNotFoundException("User Not Found with id: " + id));
 
         if (!Boolean.TRUE.equals(user.getActive())) {
             throw new UsernameNotFoundException("User is disabled");
         }
 
-        // Force loading of permissions within transaction
+        // Role, permissions and department come from the principal entity graph
         int permissionCount = user.getRole().getPermissions().size();
         logger.debug("Loaded {} permissions for user {}", permissionCount, user.getUsername());
         logger.debug("Role: {}", user.getRole().getName());
@@ -62,8 +72,19 @@ public class UserDetailsServiceImpl implements UserDetailsService {
                 .collect(Collectors.toList()));
 
         // Create UserDetails with loaded permissions
-        UserDetails userDetails = UserDetailsImpl.build(user);
+        UserDetailsImpl userDetails = UserDetailsImpl.build(user);
         logger.debug("Built UserDetails with authorities: {}", userDetails.getAuthorities());
         return userDetails;
     }
+
+    /**
+     * Store an upgraded hash of the password the user just logged in with
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.updatePasswordHash(user.getUsername(), newPassword);
+        logger.debug("Upgraded password hash for user {}", user.getUsername());
+        return user instanceof UserDetailsImpl principal ? principal.withPassword(newPassword) : user;
+    }
 }
@@ -214,6 +214,7 @@ public class UserServiceImpl extends ServiceCommon implements UserService {
         log.info("Deactivated user with id: {}", id);
     }
 
+    @Transactional
     public boolean isPrivilegedUser(Long userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
@@ -223,12 +224,14 @@ public class UserServiceImpl extends ServiceCommon implements UserService {
                roleName == RoleName.ROLE_ADMIN;
     }
 
+    @Transactional
     @Override
     public UserDTO getCurrentUser() {
         User currentUser = getCurrentAuthenticatedUser();
         return convertToDTO(currentUser);
     }
 
+    @Transactional
     @Override
     public UserDTO getUserManager(Long userId) {
         User user = userRepository.findById(userId)
@@ -244,6 +247,7 @@ public class UserServiceImpl extends ServiceCommon implements UserService {
         return convertToDTO(manager);
     }
 
+    @Transactional
     @Override
     public List<UserDTO> getSubordinates(Long managerId) {
         User manager = userRepository.findById(managerId)
@@ -4,6 +4,7 @@ import com.enterprise.inventorymanagement.model.Warehouse;
 import com.enterprise.inventorymanagement.model.dto.ItemDTO;
 import com.enterprise.inventorymanagement.model.dto.ItemRequestDTO;
 import com.enterprise.inventorymanagement.model.dto.WarehouseDTO;
+import com.enterprise.inventorymanagement.model.dto.WarehouseStockSummaryDTO;
 import com.enterprise.inventorymanagement.model.request.RequestStatus;
 
 import java.util.List;
@@ -14,6 +15,7 @@ public interface WarehouseService {
     void deleteWarehouse(Long warehouseId);
     WarehouseDTO getWarehouseById(Long warehouseId);
     List<WarehouseDTO> getWarehousesByEnterpriseId(Long enterpriseId);
+    List<WarehouseStockSummaryDTO> getStockSummariesByEnterpriseId(Long enterpriseId);
     WarehouseDTO assignManager(Long warehouseId, Long userId);
     WarehouseDTO assignOperator(Long warehouseId, Long userId);
     WarehouseDTO getWarehouseByOperatorId(Long operatorId);
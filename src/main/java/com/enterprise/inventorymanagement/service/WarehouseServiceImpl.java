@@ -6,6 +6,7 @@ import com.enterprise.inventorymanagement.model.dto.ItemDTO;
 import com.enterprise.inventorymanagement.model.dto.ItemRequestDTO;
 import com.enterprise.inventorymanagement.model.dto.RequestItemDTO;
 import com.enterprise.inventorymanagement.model.dto.WarehouseDTO;
+import com.enterprise.inventorymanagement.model.dto.WarehouseStockSummaryDTO;
 import com.enterprise.inventorymanagement.model.request.ItemRequest;
 import com.enterprise.inventorymanagement.model.request.RequestItem;
 import com.enterprise.inventorymanagement.model.request.RequestStatus;
@@ -28,6 +29,7 @@ public class WarehouseServiceImpl implements WarehouseService {
     private final RoleRepository roleRepository;
     private final InventoryItemRepository itemRepository;
     private final ItemRequestRepository requestRepository;
+    private final StockLedger stockLedger;
 
     @Autowired
     public WarehouseServiceImpl(WarehouseRepository warehouseRepository,
@@ -35,13 +37,15 @@ public class WarehouseServiceImpl implements WarehouseService {
                                 UserRepository userRepository,
                                 RoleRepository roleRepository,
                                 InventoryItemRepository itemRepository,
-                                ItemRequestRepository requestRepository) {
+                                ItemRequestRepository requestRepository,
+                                StockLedger stockLedger) {
         this.warehouseRepository = warehouseRepository;
         this.enterpriseRepository = enterpriseRepository;
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
         this.itemRepository = itemRepository;
         this.requestRepository = requestRepository;
+        this.stockLedger = stockLedger;
     }
 
     @Override
@@ -88,17 +92,18 @@ public class WarehouseServiceImpl implements WarehouseService {
 
     @Override
     public WarehouseDTO getWarehouseById(Long warehouseId) {
-        return warehouseRepository.findById(warehouseId)
-                .map(this::convertToDTO)
+        return warehouseRepository.findDtoById(warehouseId)
                 .orElseThrow(() -> new ResourceNotFoundException("Warehouse not found with id: " + warehouseId));
     }
 
     @Override
     public List<WarehouseDTO> getWarehousesByEnterpriseId(Long enterpriseId) {
-        return warehouseRepository.findByEnterpriseId(enterpriseId)
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return warehouseRepository.findAllDtoByEnterpriseId(enterpriseId);
+    }
+
+    @Override
+    public List<WarehouseStockSummaryDTO> getStockSummariesByEnterpriseId(Long enterpriseId) {
+        return warehouseRepository.findStockSummariesByEnterpriseId(enterpriseId);
     }
 
     @Override
@@ -150,17 +155,13 @@ public class WarehouseServiceImpl implements WarehouseService {
 
     @Override
     public WarehouseDTO getWarehouseByOperatorId(Long operatorId) {
-        return warehouseRepository.findByOperatorId(operatorId)
-                .map(this::convertToDTO)
+        return warehouseRepository.findDtoByOperatorId(operatorId)
                 .orElseThrow(() -> new ResourceNotFoundException("No warehouse found for operator with id: " + operatorId));
     }
 
     @Override
     public List<ItemDTO> getWarehouseItems(Long warehouseId) {
-        return itemRepository.findAllByWarehouseId(warehouseId)
-                .stream()
-                .map(this::convertToItemDTO)
-                .collect(Collectors.toList());
+        return itemRepository.findAllByWarehouseId(warehouseId);
     }
 
     @Override
@@ -176,7 +177,9 @@ public class WarehouseServiceImpl implements WarehouseService {
         item.setEnterprise(warehouse.getEnterprise());
         item.setUpdatedAt(LocalDateTime.now());
 
-        return convertToItemDTO(itemRepository.save(item));
+        InventoryItem saved = itemRepository.save(item);
+        stockLedger.batch().created(saved).write();
+        return convertToItemDTO(saved);
     }
 
     @Override
@@ -0,0 +1,18 @@
+-- Keyset pagination compares on updated_at, so it must never be NULL
+UPDATE inventory_items SET updated_at = COALESCE(created_at, CURRENT_TIMESTAMP) WHERE updated_at IS NULL;
+
+ALTER TABLE inventory_items
+    ALTER COLUMN updated_at SET DEFAULT CURRENT_TIMESTAMP,
+    ALTER COLUMN updated_at SET NOT NULL;
+
+-- Indexes backing the (name, id) and (updated_at, id) keyset listings
+CREATE INDEX IF NOT EXISTS idx_inventory_items_enterprise_name_id ON inventory_items(enterprise_id, name, id);
+CREATE INDEX IF NOT EXISTS idx_inventory_items_enterprise_updated_id ON inventory_items(enterprise_id, updated_at, id);
+CREATE INDEX IF NOT EXISTS idx_inventory_items_warehouse_name_id ON inventory_items(warehouse_id, name, id)
+    WHERE department_id IS NULL;
+CREATE INDEX IF NOT EXISTS idx_inventory_items_warehouse_updated_id ON inventory_items(warehouse_id, updated_at, id)
+    WHERE department_id IS NULL;
+CREATE INDEX IF NOT EXISTS idx_inventory_items_department_name_id ON inventory_items(department_id, name, id)
+    WHERE user_id IS NULL;
+CREATE INDEX IF NOT EXISTS idx_inventory_items_department_updated_id ON inventory_items(department_id, updated_at, id)
+    WHERE user_id IS NULL;
@@ -0,0 +1,12 @@
+-- Trigram search over item name and description, scoped by enterprise
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE EXTENSION IF NOT EXISTS btree_gin;
+
+ALTER TABLE inventory_items
+    ADD COLUMN IF NOT EXISTS search_text TEXT
+    GENERATED ALWAYS AS (lower(name || ' ' || coalesce(description, ''))) STORED;
+
+-- Substring, prefix and typo-tolerant (word similarity) matches within one enterprise.
+-- The word similarity threshold is set per search transaction, see InventoryItemRepository
+CREATE INDEX IF NOT EXISTS idx_inventory_items_search_trgm
+    ON inventory_items USING GIN (enterprise_id, search_text gin_trgm_ops);
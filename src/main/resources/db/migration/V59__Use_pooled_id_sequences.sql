@@ -0,0 +1,17 @@
+-- Entities draw ids from these sequences in blocks of 50 (pooled-lo optimizer),
+-- which lets Hibernate batch inserts. Each value handed out starts a block of its
+-- own, so column defaults and plain SQL inserts can keep using the same sequences.
+ALTER SEQUENCE enterprises_id_seq INCREMENT BY 50;
+ALTER SEQUENCE roles_id_seq INCREMENT BY 50;
+ALTER SEQUENCE permissions_id_seq INCREMENT BY 50;
+ALTER SEQUENCE users_id_seq INCREMENT BY 50;
+ALTER SEQUENCE departments_id_seq INCREMENT BY 50;
+ALTER SEQUENCE warehouses_id_seq INCREMENT BY 50;
+ALTER SEQUENCE inventory_items_id_seq INCREMENT BY 50;
+ALTER SEQUENCE items_id_seq INCREMENT BY 50;
+ALTER SEQUENCE item_requests_id_seq INCREMENT BY 50;
+ALTER SEQUENCE request_items_id_seq INCREMENT BY 50;
+ALTER SEQUENCE employee_item_requests_id_seq INCREMENT BY 50;
+ALTER SEQUENCE employee_request_items_id_seq INCREMENT BY 50;
+ALTER SEQUENCE enterprise_invites_id_seq INCREMENT BY 50;
+ALTER SEQUENCE department_invites_id_seq INCREMENT BY 50;
@@ -0,0 +1,7 @@
+-- Bumped whenever the data carried in a user's token changes; tokens holding an
+-- older version are no longer trusted on their claims alone
+ALTER TABLE users
+    ADD COLUMN IF NOT EXISTS token_version INTEGER NOT NULL DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS token_version_updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP;
+
+CREATE INDEX IF NOT EXISTS idx_users_token_version_updated_at ON users(token_version_updated_at);
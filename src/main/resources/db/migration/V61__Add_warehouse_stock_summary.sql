@@ -0,0 +1,113 @@
+-- Per-warehouse stock totals, kept current by a trigger on inventory_items so that every
+-- mutation path (entity saves as well as bulk JPQL updates and deletes) maintains them.
+-- Only stock the warehouse holds counts: department and user items keep the warehouse they
+-- came from in warehouse_id, so like the warehouse item listing they need department_id and
+-- user_id to be NULL.
+CREATE TABLE IF NOT EXISTS warehouse_stock_summary (
+    warehouse_id BIGINT PRIMARY KEY REFERENCES warehouses(id) ON DELETE CASCADE,
+    total_units BIGINT NOT NULL DEFAULT 0,
+    distinct_skus INTEGER NOT NULL DEFAULT 0,
+    total_value NUMERIC(19, 2) NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Units held per item name, so that distinct_skus counts names in stock rather than rows
+CREATE TABLE IF NOT EXISTS warehouse_sku_stock (
+    warehouse_id BIGINT NOT NULL REFERENCES warehouses(id) ON DELETE CASCADE,
+    name VARCHAR(255) NOT NULL,
+    units BIGINT NOT NULL,
+    PRIMARY KEY (warehouse_id, name)
+);
+
+CREATE OR REPLACE FUNCTION apply_warehouse_stock_delta(
+    p_warehouse_id BIGINT, p_name VARCHAR, p_units BIGINT, p_value NUMERIC)
+    RETURNS VOID AS $$
+DECLARE
+    v_units BIGINT;
+    v_skus INTEGER;
+BEGIN
+    INSERT INTO warehouse_sku_stock (warehouse_id, name, units)
+    VALUES (p_warehouse_id, p_name, p_units)
+    ON CONFLICT (warehouse_id, name) DO UPDATE
+        SET units = warehouse_sku_stock.units + EXCLUDED.units
+    RETURNING units INTO v_units;
+
+    -- A name counts once its units go above zero and stops counting when they are gone
+    v_skus := (CASE WHEN v_units > 0 THEN 1 ELSE 0 END) - (CASE WHEN v_units - p_units > 0 THEN 1 ELSE 0 END);
+    IF v_units = 0 THEN
+        DELETE FROM warehouse_sku_stock WHERE warehouse_id = p_warehouse_id AND name = p_name;
+    END IF;
+
+    INSERT INTO warehouse_stock_summary (warehouse_id, total_units, distinct_skus, total_value, updated_at)
+    VALUES (p_warehouse_id, p_units, v_skus, p_value, CURRENT_TIMESTAMP)
+    ON CONFLICT (warehouse_id) DO UPDATE
+        SET total_units = warehouse_stock_summary.total_units + EXCLUDED.total_units,
+            distinct_skus = warehouse_stock_summary.distinct_skus + EXCLUDED.distinct_skus,
+            total_value = warehouse_stock_summary.total_value + EXCLUDED.total_value,
+            updated_at = CURRENT_TIMESTAMP;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION maintain_warehouse_stock_summary()
+    RETURNS TRIGGER AS $$
+DECLARE
+    v_old_held BOOLEAN := FALSE;
+    v_new_held BOOLEAN := FALSE;
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        v_old_held := OLD.warehouse_id IS NOT NULL AND OLD.department_id IS NULL AND OLD.user_id IS NULL;
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        v_new_held := NEW.warehouse_id IS NOT NULL AND NEW.department_id IS NULL AND NEW.user_id IS NULL;
+    END IF;
+
+    -- A row moving into or out of department or user ownership leaves or joins the warehouse's stock
+    IF TG_OP = 'UPDATE'
+        AND v_old_held = v_new_held
+        AND (NOT v_old_held
+            OR (OLD.warehouse_id = NEW.warehouse_id
+                AND OLD.name IS NOT DISTINCT FROM NEW.name
+                AND OLD.quantity IS NOT DISTINCT FROM NEW.quantity
+                AND OLD.price IS NOT DISTINCT FROM NEW.price)) THEN
+        RETURN NULL;
+    END IF;
+
+    IF v_old_held THEN
+        PERFORM apply_warehouse_stock_delta(OLD.warehouse_id, OLD.name,
+            -OLD.quantity,
+            -(OLD.quantity * COALESCE(OLD.price, 0)));
+    END IF;
+
+    IF v_new_held THEN
+        PERFORM apply_warehouse_stock_delta(NEW.warehouse_id, NEW.name,
+            NEW.quantity,
+            NEW.quantity * COALESCE(NEW.price, 0));
+    END IF;
+
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_inventory_items_warehouse_stock ON inventory_items;
+CREATE TRIGGER trg_inventory_items_warehouse_stock
+    AFTER INSERT OR UPDATE OR DELETE ON inventory_items
+    FOR EACH ROW EXECUTE PROCEDURE maintain_warehouse_stock_summary();
+
+-- Backfill from the stock the warehouses currently hold
+INSERT INTO warehouse_sku_stock (warehouse_id, name, units)
+SELECT warehouse_id, name, SUM(quantity)
+FROM inventory_items
+WHERE warehouse_id IS NOT NULL AND department_id IS NULL AND user_id IS NULL
+GROUP BY warehouse_id, name
+HAVING SUM(quantity) <> 0
+ON CONFLICT (warehouse_id, name) DO NOTHING;
+
+INSERT INTO warehouse_stock_summary (warehouse_id, total_units, distinct_skus, total_value)
+SELECT i.warehouse_id,
+       SUM(i.quantity),
+       (SELECT COUNT(*) FROM warehouse_sku_stock s WHERE s.warehouse_id = i.warehouse_id AND s.units > 0),
+       SUM(i.quantity * COALESCE(i.price, 0))
+FROM inventory_items i
+WHERE i.warehouse_id IS NOT NULL AND i.department_id IS NULL AND i.user_id IS NULL
+GROUP BY i.warehouse_id
+ON CONFLICT (warehouse_id) DO NOTHING;
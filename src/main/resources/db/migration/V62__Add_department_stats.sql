@@ -0,0 +1,106 @@
+-- Per-department statistics, kept current by triggers on inventory_items and department_employees
+-- so that department listings never have to load items or members. DepartmentStatsReconciler
+-- periodically recomputes them and repairs any drift.
+CREATE TABLE IF NOT EXISTS department_stats (
+    department_id BIGINT PRIMARY KEY REFERENCES departments(id) ON DELETE CASCADE,
+    total_units BIGINT NOT NULL DEFAULT 0,
+    distinct_skus INTEGER NOT NULL DEFAULT 0,
+    item_rows BIGINT NOT NULL DEFAULT 0,
+    headcount INTEGER NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE OR REPLACE FUNCTION apply_department_stats_delta(
+    p_department_id BIGINT, p_units BIGINT, p_skus INTEGER, p_rows BIGINT, p_headcount INTEGER)
+    RETURNS VOID AS $$
+BEGIN
+    INSERT INTO department_stats (department_id, total_units, distinct_skus, item_rows, headcount, updated_at)
+    VALUES (p_department_id, p_units, p_skus, p_rows, p_headcount, CURRENT_TIMESTAMP)
+    ON CONFLICT (department_id) DO UPDATE
+        SET total_units = department_stats.total_units + EXCLUDED.total_units,
+            distinct_skus = department_stats.distinct_skus + EXCLUDED.distinct_skus,
+            item_rows = department_stats.item_rows + EXCLUDED.item_rows,
+            headcount = department_stats.headcount + EXCLUDED.headcount,
+            updated_at = CURRENT_TIMESTAMP;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION maintain_department_item_stats()
+    RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'UPDATE'
+        AND OLD.department_id IS NOT DISTINCT FROM NEW.department_id
+        AND OLD.quantity IS NOT DISTINCT FROM NEW.quantity THEN
+        RETURN NULL;
+    END IF;
+
+    IF TG_OP IN ('UPDATE', 'DELETE') AND OLD.department_id IS NOT NULL THEN
+        PERFORM apply_department_stats_delta(OLD.department_id,
+            -OLD.quantity,
+            -(CASE WHEN OLD.quantity > 0 THEN 1 ELSE 0 END),
+            -1,
+            0);
+    END IF;
+
+    IF TG_OP IN ('INSERT', 'UPDATE') AND NEW.department_id IS NOT NULL THEN
+        PERFORM apply_department_stats_delta(NEW.department_id,
+            NEW.quantity,
+            CASE WHEN NEW.quantity > 0 THEN 1 ELSE 0 END,
+            1,
+            0);
+    END IF;
+
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_inventory_items_department_stats ON inventory_items;
+CREATE TRIGGER trg_inventory_items_department_stats
+    AFTER INSERT OR UPDATE OR DELETE ON inventory_items
+    FOR EACH ROW EXECUTE PROCEDURE maintain_department_item_stats();
+
+CREATE OR REPLACE FUNCTION maintain_department_headcount()
+    RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'UPDATE' AND OLD.department_id IS NOT DISTINCT FROM NEW.department_id THEN
+        RETURN NULL;
+    END IF;
+
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        PERFORM apply_department_stats_delta(OLD.department_id, 0, 0, 0, -1);
+    END IF;
+
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        PERFORM apply_department_stats_delta(NEW.department_id, 0, 0, 0, 1);
+    END IF;
+
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_department_employees_headcount ON department_employees;
+CREATE TRIGGER trg_department_employees_headcount
+    AFTER INSERT OR UPDATE OR DELETE ON department_employees
+    FOR EACH ROW EXECUTE PROCEDURE maintain_department_headcount();
+
+-- Backfill from the current items and memberships
+INSERT INTO department_stats (department_id, total_units, distinct_skus, item_rows, headcount)
+SELECT d.id,
+       COALESCE(i.total_units, 0),
+       COALESCE(i.distinct_skus, 0),
+       COALESCE(i.item_rows, 0),
+       COALESCE(de.headcount, 0)
+FROM departments d
+LEFT JOIN (
+    SELECT department_id, SUM(quantity) AS total_units, COUNT(*) FILTER (WHERE quantity > 0) AS distinct_skus,
+           COUNT(*) AS item_rows
+    FROM inventory_items
+    WHERE department_id IS NOT NULL
+    GROUP BY department_id
+) i ON i.department_id = d.id
+LEFT JOIN (
+    SELECT department_id, COUNT(*) AS headcount
+    FROM department_employees
+    GROUP BY department_id
+) de ON de.department_id = d.id
+ON CONFLICT (department_id) DO NOTHING;
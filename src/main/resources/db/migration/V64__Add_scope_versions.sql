@@ -0,0 +1,22 @@
+-- Versions of the item listings behind their ETags (see ScopeVersions). A scope is bumped in the
+-- transaction that changes it, so every instance hands out the same ETags and sees the same change times.
+-- Keys are '<E|W|D>:<id>' for an enterprise, warehouse or department, and 'G:<enterprise id>' for the
+-- generation of an enterprise, bumped by changes shown in all its listings. Every row names the enterprise
+-- whose generation goes into its ETags, so one tenant's changes leave the others' ETags alone.
+CREATE TABLE IF NOT EXISTS scope_versions (
+    scope_key VARCHAR(40) PRIMARY KEY,
+    enterprise_id BIGINT,
+    version BIGINT NOT NULL,
+    changed_at TIMESTAMP NOT NULL
+);
+
+-- New scopes get their row when they are created; these are the existing ones
+INSERT INTO scope_versions (scope_key, enterprise_id, version, changed_at)
+SELECT 'G:' || id, id, 0, LOCALTIMESTAMP FROM enterprises
+UNION ALL
+SELECT 'E:' || id, id, 0, LOCALTIMESTAMP FROM enterprises
+UNION ALL
+SELECT 'W:' || id, enterprise_id, 0, LOCALTIMESTAMP FROM warehouses
+UNION ALL
+SELECT 'D:' || id, enterprise_id, 0, LOCALTIMESTAMP FROM departments
+ON CONFLICT (scope_key) DO NOTHING;
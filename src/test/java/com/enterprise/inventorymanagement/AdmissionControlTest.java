@@ -0,0 +1,199 @@
+package com.enterprise.inventorymanagement;
+
+import com.enterprise.inventorymanagement.config.AdmissionControlInterceptor;
+import com.enterprise.inventorymanagement.config.AdmissionPriority;
+import com.enterprise.inventorymanagement.config.ConnectionPoolPressure;
+import com.enterprise.inventorymanagement.config.RequestPriority;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.method.HandlerMethod;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdmissionControlTest {
+
+    private static final int POOL_SIZE = 2;
+
+    @RestController
+    static class Endpoints {
+
+        @GetMapping("/items")
+        public void list() {
+        }
+
+        @PostMapping("/items")
+        public void update() {
+        }
+
+        @PostMapping("/login")
+        @AdmissionPriority(RequestPriority.CRITICAL)
+        public void login() {
+        }
+    }
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final List<Connection> held = new ArrayList<>();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private HikariDataSource pool;
+    private ConnectionPoolPressure pressure;
+    private AdmissionControlInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        pool = new HikariDataSource();
+        pool.setJdbcUrl("jdbc:h2:mem:admission;DB_CLOSE_DELAY=-1");
+        pool.setMaximumPoolSize(POOL_SIZE);
+        pool.setConnectionTimeout(2_000);
+        pool.setMetricRegistry(registry);
+        pool.getConnection().close();
+
+        pressure = new ConnectionPoolPressure(List.of(pool), registry,
+                Duration.ofMillis(100), Duration.ofSeconds(1), 0.9);
+        interceptor = new AdmissionControlInterceptor(pressure, 1, 1, 1,
+                Duration.ofMillis(100), Duration.ofSeconds(2), registry);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        for (Connection connection : held) {
+            connection.close();
+        }
+        pool.close();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testIdlePool_AdmitsEverything() throws Exception {
+        pressure.sample();
+        assertEquals(ConnectionPoolPressure.Level.NORMAL, pressure.getLevel());
+
+        MockHttpServletRequest first = request("GET");
+        MockHttpServletRequest second = request("GET");
+        assertTrue(admit(first, "list").admitted);
+        assertTrue(admit(second, "list").admitted);
+        assertEquals(2, interceptor.getInFlight(RequestPriority.READ));
+
+        interceptor.afterCompletion(first, new MockHttpServletResponse(), null, null);
+        interceptor.afterCompletion(second, new MockHttpServletResponse(), null, null);
+        assertEquals(0, interceptor.getInFlight(RequestPriority.READ));
+    }
+
+    @Test
+    void testSaturatedPool_CapsReadsOnly() throws Exception {
+        holdConnections(POOL_SIZE);
+        pressure.sample();
+        assertEquals(ConnectionPoolPressure.Level.HIGH, pressure.getLevel());
+
+        assertTrue(admit(request("GET"), "list").admitted);
+        Admission shed = admit(request("GET"), "list");
+        assertFalse(shed.admitted);
+        assertEquals(503, shed.response.getStatus());
+        assertEquals("2", shed.response.getHeader(HttpHeaders.RETRY_AFTER));
+
+        assertTrue(admit(request("POST"), "update").admitted);
+        assertTrue(admit(request("POST"), "update").admitted);
+        assertEquals(1, registry.get("admission.rejected").tag("priority", "read").counter().count());
+    }
+
+    @Test
+    void testQueuedRead_AdmittedWhenASlotFrees() throws Exception {
+        holdConnections(POOL_SIZE);
+        pressure.sample();
+        MockHttpServletRequest running = request("GET");
+        assertTrue(admit(running, "list").admitted);
+
+        CompletableFuture<Admission> queued = CompletableFuture.supplyAsync(() -> admit(request("GET"), "list"),
+                executor);
+        Thread.sleep(20);
+        interceptor.afterCompletion(running, new MockHttpServletResponse(), null, null);
+
+        assertTrue(queued.get(1, TimeUnit.SECONDS).admitted);
+    }
+
+    @Test
+    void testOverloadedPool_ShedsReadsAndCapsMutations() throws Exception {
+        holdConnections(POOL_SIZE);
+        List<CompletableFuture<Void>> waiters = new ArrayList<>();
+        for (int i = 0; i < POOL_SIZE; i++) {
+            waiters.add(CompletableFuture.runAsync(() -> {
+                try {
+                    pool.getConnection().close();
+                } catch (SQLException ignored) {
+                    // Timed out, the pool was still held
+                }
+            }, executor));
+        }
+        awaitWaitingThreads(POOL_SIZE);
+        pressure.sample();
+        assertEquals(ConnectionPoolPressure.Level.OVERLOADED, pressure.getLevel());
+
+        long start = System.nanoTime();
+        assertFalse(admit(request("GET"), "list").admitted);
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(50), "reads are shed without queueing");
+        assertTrue(admit(request("POST"), "update").admitted);
+        assertFalse(admit(request("POST"), "update").admitted);
+        assertTrue(admit(request("POST"), "login").admitted);
+        assertTrue(interceptor.preHandle(request("GET"), new MockHttpServletResponse(), new Object()),
+                "handlers outside the application controllers are never shed");
+
+        for (Connection connection : held) {
+            connection.close();
+        }
+        held.clear();
+        CompletableFuture.allOf(waiters.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+        // The first sample still sees the waiters' acquire times
+        pressure.sample();
+        assertTrue(pressure.getAcquireMillis() >= 100);
+        pressure.sample();
+        assertEquals(ConnectionPoolPressure.Level.NORMAL, pressure.getLevel());
+    }
+
+    private record Admission(boolean admitted, MockHttpServletResponse response) {
+    }
+
+    private Admission admit(MockHttpServletRequest request, String method) {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            HandlerMethod handler = new HandlerMethod(new Endpoints(), Endpoints.class.getMethod(method));
+            return new Admission(interceptor.preHandle(request, response, handler), response);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static MockHttpServletRequest request(String method) {
+        return new MockHttpServletRequest(method, "/items");
+    }
+
+    private void holdConnections(int count) throws SQLException {
+        for (int i = 0; i < count; i++) {
+            held.add(pool.getConnection());
+        }
+    }
+
+    private void awaitWaitingThreads(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (pool.getHikariPoolMXBean().getThreadsAwaitingConnection() < count && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+}
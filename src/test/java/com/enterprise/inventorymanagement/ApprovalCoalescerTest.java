@@ -0,0 +1,169 @@
+package com.enterprise.inventorymanagement;
+
+import com.enterprise.inventorymanagement.exceptions.ResourceNotFoundException;
+import com.enterprise.inventorymanagement.model.*;
+import com.enterprise.inventorymanagement.model.request.ItemRequest;
+import com.enterprise.inventorymanagement.model.request.RequestStatus;
+import com.enterprise.inventorymanagement.repository.*;
+import com.enterprise.inventorymanagement.service.ApprovalCoalescer;
+import com.enterprise.inventorymanagement.service.AuthenticationFacade;
+import com.enterprise.inventorymanagement.service.ItemRequestService;
+import com.enterprise.inventorymanagement.service.ItemRequestServiceImpl;
+import com.enterprise.inventorymanagement.service.StockLedger;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// A long window so that everything submitted by the test lands in one batch
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "app.approvals.coalescing.window=300ms"
+})
+@Import({ItemRequestServiceImpl.class, StockLedger.class, AuthenticationFacade.class, ApprovalCoalescer.class,
+        TestData.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ApprovalCoalescerTest {
+
+    private static final int STOCK = 12;
+    private static final int REQUESTED_QUANTITY = 3;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private ApprovalCoalescer approvalCoalescer;
+
+    @Autowired
+    private ItemRequestService itemRequestService;
+
+    @Autowired
+    private StockLedger stockLedger;
+
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    @Autowired
+    private InventoryItemRepository inventoryItemRepository;
+
+    @Autowired
+    private StockMovementRepository stockMovementRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Enterprise enterprise;
+    private User requester;
+
+    @BeforeEach
+    void setUp() {
+        enterprise = testData.enterprise("TechCorp");
+        Department department = testData.department(enterprise, "Engineering");
+        requester = testData.user("manager", testData.role(RoleName.ROLE_MANAGER), enterprise, department);
+    }
+
+    @AfterEach
+    void tearDown() {
+        testData.deleteAll();
+    }
+
+    @Test
+    void testApprovalsInOneWindow_AppliedTogetherWithOwnResults() throws Exception {
+        Warehouse main = testData.warehouse(enterprise, "Main");
+        InventoryItem laptops = testData.warehouseItem(main, "Laptop", STOCK);
+        List<Long> requestIds = new ArrayList<>();
+        for (int i = 0; i < STOCK / REQUESTED_QUANTITY + 1; i++) {
+            requestIds.add(testData.request(requester, laptops, REQUESTED_QUANTITY).getId());
+        }
+        Warehouse annex = testData.warehouse(enterprise, "Annex");
+        Long annexRequest = testData.request(requester, testData.warehouseItem(annex, "Monitor", 5), 2).getId();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        long batchesBefore = approvalCoalescer.getBatchCount();
+        long fallbacksBefore = approvalCoalescer.getFallbackCount();
+        List<CompletableFuture<Void>> results = new ArrayList<>();
+        for (Long requestId : requestIds) {
+            results.add(approvalCoalescer.approve(requestId, "ok"));
+        }
+        CompletableFuture<Void> annexResult = approvalCoalescer.approve(annexRequest, null);
+        CompletableFuture<Void> repeated = approvalCoalescer.approve(requestIds.get(0), null);
+        CompletableFuture<Void> unknown = approvalCoalescer.approve(-1L, null);
+
+        // Stock runs out for the request that arrived last
+        for (CompletableFuture<Void> result : results.subList(0, results.size() - 1)) {
+            result.get(5, TimeUnit.SECONDS);
+        }
+        assertFailure(results.get(results.size() - 1), IllegalStateException.class,
+                "Insufficient quantity available for item: Laptop");
+        annexResult.get(5, TimeUnit.SECONDS);
+        assertFailure(repeated, IllegalStateException.class, "Request has already been processed");
+        assertFailure(unknown, ResourceNotFoundException.class, "Request not found");
+
+        assertEquals(0, inventoryItemRepository.findQuantityById(laptops.getId()).orElseThrow());
+        assertEquals(RequestStatus.PENDING,
+                itemRequestRepository.findById(requestIds.get(requestIds.size() - 1)).orElseThrow().getStatus());
+        ItemRequest approved = itemRequestRepository.findById(requestIds.get(0)).orElseThrow();
+        assertEquals(RequestStatus.APPROVED, approved.getStatus());
+        assertEquals("ok", approved.getResponseComments());
+
+        // One department row per name carrying the whole batch, one update per warehouse row
+        InventoryItem departmentLaptops = inventoryItemRepository
+                .findDepartmentStockByNames(List.of(requester.getDepartment().getId()), List.of("Laptop")).get(0);
+        assertEquals(STOCK, departmentLaptops.getQuantity());
+        assertEquals(2, statistics.getEntityStatistics(InventoryItem.class.getName()).getUpdateCount());
+        assertEquals(2, statistics.getEntityStatistics(InventoryItem.class.getName()).getInsertCount());
+        // Main, Annex and the unknown request; the repeat ran on its own after its group
+        assertEquals(3, approvalCoalescer.getBatchCount() - batchesBefore);
+        assertEquals(1, approvalCoalescer.getFallbackCount() - fallbacksBefore);
+
+        // Each request keeps its own movements in the ledger
+        long laptopMovements = stockMovementRepository.findAll().stream()
+                .filter(movement -> requestIds.get(1).equals(movement.getRequestId()))
+                .count();
+        assertEquals(2, laptopMovements);
+    }
+
+    @Test
+    void testCoalescingDisabled_ApprovesOnCallerThread() throws Exception {
+        Warehouse main = testData.warehouse(enterprise, "Main");
+        InventoryItem laptops = testData.warehouseItem(main, "Laptop", STOCK);
+        Long requestId = testData.request(requester, laptops, REQUESTED_QUANTITY).getId();
+
+        ApprovalCoalescer disabled = new ApprovalCoalescer(itemRequestService, itemRequestRepository, stockLedger,
+                new AuthenticationFacade(), false, Duration.ofMillis(5), 100, 1, 10);
+        try {
+            CompletableFuture<Void> result = disabled.approve(requestId, null);
+            assertTrue(result.isDone());
+            result.get();
+            assertEquals(STOCK - REQUESTED_QUANTITY,
+                    inventoryItemRepository.findQuantityById(laptops.getId()).orElseThrow());
+            assertEquals(0, disabled.getBatchCount());
+        } finally {
+            disabled.shutdown();
+        }
+    }
+
+    private void assertFailure(CompletableFuture<Void> result, Class<? extends Exception> type, String message) {
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(type, failure.getCause());
+        assertEquals(message, failure.getCause().getMessage());
+    }
+}
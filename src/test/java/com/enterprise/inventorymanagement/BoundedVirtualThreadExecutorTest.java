@@ -0,0 +1,45 @@
+package com.enterprise.inventorymanagement;
+
+import com.enterprise.inventorymanagement.config.BoundedVirtualThreadExecutor;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoundedVirtualThreadExecutorTest {
+
+    @Test
+    void testInFlightTasks_CappedAtMaxConcurrency() throws InterruptedException {
+        // A cached pool stands in for the virtual thread executor, which needs Java 21
+        BoundedVirtualThreadExecutor executor = new BoundedVirtualThreadExecutor(Executors.newCachedThreadPool(), 2);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(10);
+
+        for (int i = 0; i < 10; i++) {
+            executor.execute(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                sleep(20);
+                running.decrementAndGet();
+                done.countDown();
+            });
+        }
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(2, maxRunning.get());
+        assertEquals(0, executor.getWaitingCount());
+        executor.shutdown();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.enterprise.inventorymanagement;
+
+import com.enterprise.inventorymanagement.model.*;
+import com.enterprise.inventorymanagement.security.JwtTokenProvider;
+import com.enterprise.inventorymanagement.security.TokenVersionRegistry;
+import com.enterprise.inventorymanagement.service.DepartmentService;
+import com.enterprise.inventorymanagement.service.DepartmentServiceImpl;
+import com.enterprise.inventorymanagement.service.UserDetailsImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "app.security.claims-auth.enabled=true"
+})
+@Import({TokenVersionRegistry.class, DepartmentServiceImpl.class, TestData.class})
+public class ClaimsAuthenticationTest {
+
+    @Autowired
+    private TokenVersionRegistry tokenVersionRegistry;
+
+    @Autowired
+    private DepartmentService departmentService;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Role managerRole;
+    private Enterprise enterprise;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        managerRole = testData.role(RoleName.ROLE_MANAGER);
+        enterprise = testData.enterprise("TechCorp");
+        user = testData.user("employee", testData.role(RoleName.ROLE_EMPLOYEE, "VIEW_INVENTORY"), enterprise, null);
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void testTokenVersion_BumpedOnlyByPrincipalChanges() {
+        User loaded = entityManager.find(User.class, user.getId());
+        loaded.setUpdatedAt(LocalDateTime.now());
+        entityManager.flush();
+        assertEquals(0, loaded.getTokenVersion());
+
+        loaded.setActive(false);
+        entityManager.flush();
+        assertEquals(1, loaded.getTokenVersion());
+    }
+
+    @Test
+    void testRegistry_PicksUpChangedVersions() {
+        tokenVersionRegistry.reload();
+        assertTrue(tokenVersionRegistry.isCurrent(user.getId(), 0));
+        assertFalse(tokenVersionRegistry.isCurrent(user.getId(), null));
+
+        User loaded = entityManager.find(User.class, user.getId());
+        loaded.setRole(managerRole);
+        entityManager.flush();
+        tokenVersionRegistry.refresh();
+
+        assertFalse(tokenVersionRegistry.isCurrent(user.getId(), 0));
+        assertTrue(tokenVersionRegistry.isCurrent(user.getId(), 1));
+    }
+
+    @Test
+    void testDepartmentRename_InvalidatesMembersTokens() {
+        Department department = testData.department(enterprise, "Engineering");
+        User member = testData.user("member", managerRole, enterprise, department);
+        entityManager.flush();
+        entityManager.clear();
+        tokenVersionRegistry.reload();
+
+        Department details = new Department();
+        details.setName("Engineering");
+        departmentService.updateDepartment(department.getId(), details);
+        tokenVersionRegistry.refresh();
+        assertTrue(tokenVersionRegistry.isCurrent(member.getId(), 0));
+
+        details.setName("Platform Engineering");
+        departmentService.updateDepartment(department.getId(), details);
+        tokenVersionRegistry.refresh();
+        assertFalse(tokenVersionRegistry.isCurrent(member.getId(), 0));
+        assertTrue(tokenVersionRegistry.isCurrent(member.getId(), 1));
+        assertTrue(tokenVersionRegistry.isCurrent(user.getId(), 0));
+    }
+
+    @Test
+    void testUserDetailsFromClaims_MatchesIssuedPrincipal() {
+        JwtTokenProvider tokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(tokenProvider, "jwtSecret", "x".repeat(64));
+        ReflectionTestUtils.setField(tokenProvider, "jwtExpirationMs", 60000);
+        tokenProvider.init();
+
+        UserDetailsImpl issued = UserDetailsImpl.build(entityManager.find(User.class, user.getId()));
+        String token = tokenProvider.generateToken(
+                new UsernamePasswordAuthenticationToken(issued, null, issued.getAuthorities()));
+
+        UserDetailsImpl fromClaims = tokenProvider.getUserDetailsFromClaims(tokenProvider.getClaimsFromJWT(token));
+
+        assertEquals(issued.getId(), fromClaims.getId());
+        assertEquals(issued.getUsername(), fromClaims.getUsername());
+        assertEquals(enterprise.getId(), fromClaims.getEnterpriseId());
+        assertEquals(issued.getRole(), fromClaims.getRole());
+        assertEquals(issued.getTokenVersion(), fromClaims.getTokenVersion());
+        assertEquals(issued.getAuthorities().size(), fromClaims.getAuthorities().size());
+        assertTrue(fromClaims.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("VIEW_INVENTORY")));
+    }
+}
@@ -0,0 +1,134 @@
+package com.enterprise.inventorymanagement;
+
+import com.enterprise.inventorymanagement.exceptions.ResourceNotFoundException;
+import com.enterprise.inventorymanagement.model.*;
+import com.enterprise.inventorymanagement.model.dto.EmployeePageDTO;
+import com.enterprise.inventorymanagement.model.dto.UserDTO;
+import com.enterprise.inventorymanagement.service.DepartmentService;
+import com.enterprise.inventorymanagement.service.DepartmentServiceImpl;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({DepartmentServiceImpl.class, TestData.class})
+public class DepartmentEmployeeListingTest {
+
+    private static final int EMPLOYEE_COUNT = 120;
+
+    @Autowired
+    private DepartmentService departmentService;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Department department;
+    private Department emptyDepartment;
+    private User manager;
+
+    @BeforeEach
+    void setUp() {
+        Role employeeRole = testData.role(RoleName.ROLE_EMPLOYEE);
+        Enterprise enterprise = testData.enterprise("TechCorp");
+        department = testData.department(enterprise, "Engineering");
+        emptyDepartment = testData.department(enterprise, "Legal");
+
+        manager = member("Mary Manager", "manager", testData.role(RoleName.ROLE_MANAGER), null);
+        department.setManager(manager);
+        for (int i = 0; i < EMPLOYEE_COUNT; i++) {
+            member("Employee " + i, "employee" + i, employeeRole, manager);
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        statistics().clear();
+    }
+
+    @Test
+    void testPages_OneStatementEachAndCoverEveryEmployee() {
+        Set<Long> seen = new HashSet<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            EmployeePageDTO page = departmentService.getDepartmentEmployeesPage(department.getId(), null, null, cursor, 50);
+            page.getEmployees().forEach(employee -> assertTrue(seen.add(employee.getId())));
+            cursor = page.getNextCursor();
+            pages++;
+            assertEquals(pages, statistics().getPrepareStatementCount());
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(EMPLOYEE_COUNT + 1, seen.size());
+        assertEquals(0, statistics().getEntityLoadCount());
+        assertEquals(0, statistics().getCollectionFetchCount());
+    }
+
+    @Test
+    void testProjection_CarriesRoleManagerAndDepartmentNames() {
+        UserDTO employee = departmentService.getDepartmentEmployeesPage(department.getId(), "employee 7", null, null, 10)
+                .getEmployees().get(0);
+
+        assertEquals("Employee 7", employee.getFullName());
+        assertEquals("ROLE_EMPLOYEE", employee.getRoleName());
+        assertEquals(manager.getId(), employee.getManagerId());
+        assertEquals("Mary Manager", employee.getManagerName());
+        assertEquals("Engineering", employee.getDepartmentName());
+    }
+
+    @Test
+    void testFilters_ByNameAndRole() {
+        // "Employee 1", "Employee 10".."Employee 19", "Employee 100".."Employee 119"
+        assertEquals(31, departmentService.getDepartmentEmployeesPage(department.getId(), "Employee 1", null, null, 100).getSize());
+
+        EmployeePageDTO managers = departmentService.getDepartmentEmployeesPage(
+                department.getId(), null, RoleName.ROLE_MANAGER, null, 100);
+        assertEquals(1, managers.getSize());
+        assertEquals("manager", managers.getEmployees().get(0).getUsername());
+
+        assertEquals(0, departmentService.getDepartmentEmployeesPage(department.getId(), "100%", null, null, 100).getSize());
+    }
+
+    @Test
+    void testEmptyAndMissingDepartments() {
+        EmployeePageDTO empty = departmentService.getDepartmentEmployeesPage(emptyDepartment.getId(), null, null, null, null);
+        assertEquals(0, empty.getSize());
+        assertFalse(empty.isHasMore());
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> departmentService.getDepartmentEmployeesPage(-1L, null, null, null, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> departmentService.getDepartmentEmployeesPage(department.getId(), null, null, "bm90LWEtY3Vyc29y", null));
+    }
+
+    private User member(String fullName, String username, Role role, User manager) {
+        User user = testData.user(username, role, department.getEnterprise(), department);
+        user.setFullName(fullName);
+        user.setManager(manager);
+        department.getEmployees().add(user);
+        return user;
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
@@ -0,0 +1,192 @@
+package com.enterprise.inventorymanagement;
+
+import com.enterprise.inventorymanagement.model.*;
+import com.enterprise.inventorymanagement.model.dto.DepartmentDTO;
+import com.enterprise.inventorymanagement.repository.DepartmentRepository;
+import com.enterprise.inventorymanagement.repository.DepartmentStatsRepository;
+import com.enterprise.inventorymanagement.service.DepartmentService;
+import com.enterprise.inventorymanagement.service.DepartmentServiceImpl;
+import com.enterprise.inventorymanagement.service.DepartmentStatsReconciler;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({DepartmentServiceImpl.class, DepartmentStatsReconciler.class, TestData.class})
+public class DepartmentStatsTest {
+
+    private static final int DEPARTMENT_COUNT = 5;
+
+    @Autowired
+    private DepartmentService departmentService;
+
+    @Autowired
+    private DepartmentStatsReconciler reconciler;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Enterprise enterprise;
+    private Department first;
+
+    @BeforeEach
+    void setUp() {
+        Role role = testData.role(RoleName.ROLE_EMPLOYEE);
+        enterprise = testData.enterprise("TechCorp");
+        for (int i = 0; i < DEPARTMENT_COUNT; i++) {
+            Department department = testData.department(enterprise, "Department " + i);
+            if (first == null) {
+                first = department;
+            }
+            // Department i has i + 1 employees and i stocked items of 10 units, plus one empty item
+            for (int j = 0; j <= i; j++) {
+                department.getEmployees().add(testData.user("employee" + i + "-" + j, role, enterprise, department));
+                testData.departmentItem(department, "Item " + i + "-" + j, j == 0 ? 0 : 10);
+            }
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        statistics().clear();
+    }
+
+    @Test
+    void testListing_ReadsStatsWithoutLoadingItemsOrMembers() {
+        // Stats rows are written by database triggers (V62), which the schema here does not have
+        reconciler.reconcile();
+        entityManager.flush();
+        entityManager.clear();
+        statistics().clear();
+
+        List<DepartmentDTO> departments = departmentService.getDepartmentsByEnterpriseId(enterprise.getId());
+
+        assertEquals(DEPARTMENT_COUNT, departments.size());
+        for (int i = 0; i < DEPARTMENT_COUNT; i++) {
+            DepartmentDTO department = departments.get(i);
+            assertEquals(i + 1, department.getEmployeeCount());
+            assertEquals(10L * i, department.getItemCount());
+            assertEquals(i, department.getDistinctSkus());
+            assertEquals(i + 1, department.getEmployeeIds().size());
+        }
+        // enterprise existence check, listing, member ids
+        assertEquals(3, statistics().getPrepareStatementCount());
+        assertEquals(0, statistics().getEntityLoadCount());
+        assertEquals(0, statistics().getCollectionFetchCount());
+    }
+
+    @Test
+    void testListing_DepartmentsWithoutStatsReportZeros() {
+        List<DepartmentDTO> departments = departmentService.getDepartmentsByEnterpriseId(enterprise.getId());
+
+        assertEquals(DEPARTMENT_COUNT, departments.size());
+        assertTrue(departments.stream().allMatch(d -> d.getEmployeeCount() == 0 && d.getItemCount() == 0));
+    }
+
+    @Test
+    void testEnterpriseListing_CountsItemRowsFromStats() {
+        // Nothing is counted from the items themselves
+        assertTrue(departmentRepository.findAllDtoWithItemRowCountByEnterpriseId(enterprise.getId()).stream()
+                .allMatch(department -> department.getItemCount() == 0));
+
+        reconciler.reconcile();
+        entityManager.flush();
+        entityManager.clear();
+        statistics().clear();
+
+        List<DepartmentDTO> departments = departmentRepository.withEmployeeIds(enterprise.getId(),
+                departmentRepository.findAllDtoWithItemRowCountByEnterpriseId(enterprise.getId()));
+
+        for (int i = 0; i < DEPARTMENT_COUNT; i++) {
+            // Empty items are counted too
+            assertEquals(i + 1, departments.get(i).getItemCount());
+            assertEquals(i, departments.get(i).getDistinctSkus());
+        }
+        // listing, member ids
+        assertEquals(2, statistics().getPrepareStatementCount());
+    }
+
+    @Test
+    void testReconcile_RepairsOnlyDriftedDepartments() {
+        assertEquals(DEPARTMENT_COUNT, reconciler.reconcile());
+        entityManager.flush();
+        assertEquals(0, reconciler.reconcile());
+
+        DepartmentStats stats = entityManager.find(DepartmentStats.class, first.getId());
+        stats.setTotalUnits(999L);
+        stats.setHeadcount(42);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(1, reconciler.reconcile());
+        entityManager.flush();
+        entityManager.clear();
+
+        DepartmentStats repaired = entityManager.find(DepartmentStats.class, first.getId());
+        assertEquals(0L, repaired.getTotalUnits());
+        assertEquals(1, repaired.getHeadcount());
+        assertEquals(0, reconciler.reconcile());
+    }
+
+    @Test
+    void testReconcile_FailedDepartmentDoesNotAbortTheRun() {
+        DepartmentStatsRepository statsRepository = mock(DepartmentStatsRepository.class);
+        DepartmentStatsRepository.Actual failing = actual(1L);
+        DepartmentStatsRepository.Actual drifted = actual(2L);
+        when(statsRepository.findAll()).thenReturn(List.of());
+        when(statsRepository.computeAll()).thenReturn(List.of(failing, drifted));
+        // A trigger inserted the stats row between the lookup and the insert
+        when(statsRepository.findForUpdate(1L)).thenReturn(Optional.empty());
+        when(statsRepository.compute(1L)).thenReturn(Optional.of(failing));
+        when(statsRepository.save(argThat(stats -> stats != null && stats.getDepartmentId() == 1L)))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"));
+        when(statsRepository.findForUpdate(2L)).thenReturn(Optional.empty());
+        when(statsRepository.compute(2L)).thenReturn(Optional.of(drifted));
+
+        DepartmentStatsReconciler isolated = new DepartmentStatsReconciler(statsRepository,
+                mock(PlatformTransactionManager.class));
+
+        assertEquals(1, isolated.reconcile());
+        verify(statsRepository).save(argThat(stats -> stats != null && stats.getDepartmentId() == 2L));
+    }
+
+    private static DepartmentStatsRepository.Actual actual(Long departmentId) {
+        DepartmentStatsRepository.Actual actual = mock(DepartmentStatsRepository.Actual.class);
+        when(actual.getDepartmentId()).thenReturn(departmentId);
+        when(actual.getTotalUnits()).thenReturn(5L);
+        when(actual.getDistinctSkus()).thenReturn(1L);
+        when(actual.getItemRows()).thenReturn(1L);
+        when(actual.getHeadcount()).thenReturn(1L);
+        return actual;
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
@@ -0,0 +1,163 @@
+package com.enterprise.inventorymanagement;
+
+import com.enterprise.inventorymanagement.model.*;
+import com.enterprise.inventorymanagement.model.dto.ItemDTO;
+import com.enterprise.inventorymanagement.model.dto.ReturnItemDTO;
+import com.enterprise.inventorymanagement.repository.EnterpriseRepository;
+import com.enterprise.inventorymanagement.security.PrincipalCache;
+import com.enterprise.inventorymanagement.service.AuthenticationFacade;
+import com.enterprise.inventorymanagement.service.InventoryManagementService;
+import com.enterprise.inventorymanagement.service.InventoryManagementServiceImpl;
+import com.enterprise.inventorymanagement.service.StockLedger;
+import com.enterprise.inventorymanagement.service.UserDetailsImpl;
+import com.enterprise.inventorymanagement.service.UserDetailsServiceImpl;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pins the statements issued and entities loaded per service call against a large tenant,
+ * so an association that turns eager again shows up as a failing count.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "app.security.principal-cache.enabled=false"
+})
+@Import({InventoryManagementServiceImpl.class, UserDetailsServiceImpl.class, PrincipalCache.class,
+        StockLedger.class, AuthenticationFacade.class, TestData.class})
+public class FetchPlanTest {
+
+    private static final int EMPLOYEE_COUNT = 10_000;
+
+    @Autowired
+    private InventoryManagementService inventoryService;
+
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Autowired
+    private EnterpriseRepository enterpriseRepository;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Enterprise enterprise;
+    private Warehouse warehouse;
+    private Department department;
+    private User employee;
+    private InventoryItem departmentItem;
+
+    @BeforeEach
+    void setUp() {
+        Role role = testData.role(RoleName.ROLE_EMPLOYEE, "VIEW_INVENTORY", "CREATE_REQUEST");
+        enterprise = testData.enterprise("TechCorp");
+        warehouse = testData.warehouse(enterprise, "Main");
+        department = testData.department(enterprise, "Engineering");
+        departmentItem = testData.departmentItem(department, "Laptop", 10);
+        testData.warehouseItem(warehouse, "Laptop", 100);
+
+        EntityManager em = entityManager.getEntityManager();
+        for (int i = 0; i < EMPLOYEE_COUNT; i++) {
+            User user = new User();
+            user.setFullName("Employee " + i);
+            user.setUsername("employee" + i);
+            user.setPassword("password");
+            user.setEmail("employee" + i + "@techcorp.com");
+            user.setActive(true);
+            user.setRole(em.getReference(Role.class, role.getId()));
+            user.setEnterprise(em.getReference(Enterprise.class, enterprise.getId()));
+            user.setDepartment(em.getReference(Department.class, department.getId()));
+            em.persist(user);
+            if (employee == null) {
+                employee = user;
+            }
+            if (i % 500 == 499) {
+                em.flush();
+                em.clear();
+            }
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        statistics().clear();
+    }
+
+    @Test
+    void testLoadUserById_OneStatement() {
+        UserDetailsImpl principal = (UserDetailsImpl) userDetailsService.loadUserById(employee.getId());
+
+        assertEquals(3, principal.getAuthorities().size());
+        assertEquals("Engineering", principal.getDepartmentName());
+        assertEquals(1, statistics().getPrepareStatementCount());
+        assertEquals(0, statistics().getCollectionFetchCount());
+    }
+
+    @Test
+    void testCreateItem_DoesNotLoadEmployees() {
+        ItemDTO created = inventoryService.createItem(enterprise.getId(), ItemDTO.builder()
+                .name("Monitor")
+                .quantity(5)
+                .warehouseId(warehouse.getId())
+                .build());
+        entityManager.flush();
+
+        assertNotNull(created.getId());
+        // enterprise, name check, warehouse, insert, movement id block, movement insert
+        assertEquals(6, statistics().getPrepareStatementCount());
+        assertEquals(2, statistics().getEntityLoadCount());
+        assertEquals(0, statistics().getCollectionFetchCount());
+    }
+
+    @Test
+    void testGetItemById_DoesNotLoadEmployees() {
+        ItemDTO item = inventoryService.getItemById(departmentItem.getId()).orElseThrow();
+
+        assertEquals("Engineering", item.getDepartmentName());
+        assertEquals(0, statistics().getCollectionFetchCount());
+        assertTrue(statistics().getEntityLoadCount() <= 3);
+    }
+
+    @Test
+    void testReturnItemsToWarehouse_DoesNotLoadEmployees() {
+        inventoryService.returnItemsToWarehouse(department.getId(), List.of(ReturnItemDTO.builder()
+                .itemId(departmentItem.getId())
+                .quantity(4)
+                .warehouseId(warehouse.getId())
+                .build()));
+        entityManager.flush();
+
+        assertEquals(0, statistics().getCollectionFetchCount());
+        assertTrue(statistics().getEntityLoadCount() <= 4);
+    }
+
+    @Test
+    void testEnterpriseWithEmployeesGraph_OneStatement() {
+        Enterprise loaded = enterpriseRepository.findByIdWithEmployees(enterprise.getId()).orElseThrow();
+
+        assertEquals(EMPLOYEE_COUNT, loaded.getEmployees().size());
+        assertEquals(1, loaded.getDepartments().size());
+        assertEquals(1, statistics().getPrepareStatementCount());
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
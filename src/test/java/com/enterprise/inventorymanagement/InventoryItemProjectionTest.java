@@ -0,0 +1,123 @@
+package com.enterprise.inventorymanagement;
+
+import com.enterprise.inventorymanagement.model.*;
+import com.enterprise.inventorymanagement.model.dto.ItemDTO;
+import com.enterprise.inventorymanagement.model.dto.ItemPageDTO;
+import com.enterprise.inventorymanagement.service.AuthenticationFacade;
+import com.enterprise.inventorymanagement.service.InventoryManagementService;
+import com.enterprise.inventorymanagement.service.InventoryManagementServiceImpl;
+import com.enterprise.inventorymanagement.service.StockLedger;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({InventoryManagementServiceImpl.class, StockLedger.class, AuthenticationFacade.class, TestData.class})
+public class InventoryItemProjectionTest {
+
+    private static final int ITEM_COUNT = 20;
+
+    @Autowired
+    private InventoryManagementService inventoryService;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Enterprise enterprise;
+    private Warehouse warehouse;
+    private Department department;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        enterprise = testData.enterprise("TechCorp");
+        warehouse = testData.warehouse(enterprise, "Main");
+        department = testData.department(enterprise, "Engineering");
+        user = testData.user("employee", testData.role(RoleName.ROLE_EMPLOYEE), enterprise, department);
+
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            testData.warehouseItem(warehouse, "Warehouse item " + i, 5);
+            testData.departmentItem(department, "Department item " + i, 5);
+            testData.departmentItem(department, "Checked out item " + i, 5).setUser(user);
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        statistics().clear();
+    }
+
+    @Test
+    void testEnterpriseListing_SingleStatement() {
+        List<ItemDTO> items = inventoryService.getAllItemsByEnterpriseId(enterprise.getId());
+
+        assertEquals(ITEM_COUNT * 3, items.size());
+        assertEquals(1, statistics().getPrepareStatementCount());
+        assertEquals(0, statistics().getEntityLoadCount());
+    }
+
+    @Test
+    void testWarehouseListing_SingleStatement() {
+        List<ItemDTO> items = inventoryService.getItemsByWarehouseId(warehouse.getId());
+
+        assertEquals(ITEM_COUNT, items.size());
+        assertTrue(items.stream().allMatch(item -> "Main".equals(item.getWarehouseName())));
+        assertEquals(1, statistics().getPrepareStatementCount());
+    }
+
+    @Test
+    void testDepartmentListing_SingleStatement() {
+        List<ItemDTO> items = inventoryService.getItemsByDepartmentId(department.getId());
+
+        assertEquals(ITEM_COUNT, items.size());
+        assertTrue(items.stream().allMatch(item -> "Engineering".equals(item.getDepartmentName())));
+        assertEquals(1, statistics().getPrepareStatementCount());
+    }
+
+    @Test
+    void testItemsInUseListing_SingleStatement() {
+        List<ItemDTO> items = inventoryService.getItemsInUseByUserId(user.getId());
+
+        assertEquals(ITEM_COUNT, items.size());
+        assertTrue(items.stream().allMatch(item -> "employee".equals(item.getUserName())));
+        assertEquals(1, statistics().getPrepareStatementCount());
+    }
+
+    @Test
+    void testPagedListing_SingleStatementPerPage() {
+        ItemPageDTO first = inventoryService.getItemsPageByEnterpriseId(enterprise.getId(), ItemSort.NAME, null, 25);
+        assertEquals(25, first.getSize());
+        assertTrue(first.isHasMore());
+        assertEquals(1, statistics().getPrepareStatementCount());
+
+        ItemPageDTO second = inventoryService.getItemsPageByEnterpriseId(
+                enterprise.getId(), ItemSort.NAME, first.getNextCursor(), 50);
+        assertEquals(ITEM_COUNT * 3 - 25, second.getSize());
+        assertFalse(second.isHasMore());
+        assertNull(second.getNextCursor());
+        assertEquals(2, statistics().getPrepareStatementCount());
+        assertTrue(first.getItems().get(24).getName().compareTo(second.getItems().get(0).getName()) <= 0);
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
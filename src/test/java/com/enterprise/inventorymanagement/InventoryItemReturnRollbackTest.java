@@ -0,0 +1,94 @@
+package com.enterprise.inventorymanagement;
+
+import com.enterprise.inventorymanagement.model.*;
+import com.enterprise.inventorymanagement.model.dto.ReturnItemDTO;
+import com.enterprise.inventorymanagement.repository.InventoryItemRepository;
+import com.enterprise.inventorymanagement.repository.StockMovementRepository;
+import com.enterprise.inventorymanagement.service.AuthenticationFacade;
+import com.enterprise.inventorymanagement.service.InventoryManagementService;
+import com.enterprise.inventorymanagement.service.InventoryManagementServiceImpl;
+import com.enterprise.inventorymanagement.service.StockLedger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The return has to commit, or fail to, on its own, so nothing here runs in a test transaction
+@DataJpaTest(properties = "spring.flyway.enabled=false")
+@Import({InventoryManagementServiceImpl.class, StockLedger.class, AuthenticationFacade.class, TestData.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class InventoryItemReturnRollbackTest {
+
+    @Autowired
+    private InventoryManagementService inventoryService;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private InventoryItemRepository inventoryItemRepository;
+
+    @Autowired
+    private StockMovementRepository stockMovementRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Warehouse warehouse;
+    private Department department;
+
+    @BeforeEach
+    void setUp() {
+        Enterprise enterprise = testData.enterprise("TechCorp");
+        warehouse = testData.warehouse(enterprise, "Main");
+        department = testData.department(enterprise, "Engineering");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("ALTER TABLE inventory_items DROP CONSTRAINT IF EXISTS chk_test_max_quantity");
+        testData.deleteAll();
+    }
+
+    @Test
+    void testReturnItemsToWarehouse_FailingLaterLineRollsBackEarlierLines() {
+        InventoryItem cables = testData.departmentItem(department, "Cable", 10);
+        InventoryItem monitors = testData.departmentItem(department, "Monitor", 10);
+        InventoryItem cableStock = testData.warehouseItem(warehouse, "Cable", 50);
+        InventoryItem monitorStock = testData.warehouseItem(warehouse, "Monitor", 98);
+        // Passes the up-front checks; the database rejects the second line's target row once the first is written
+        jdbcTemplate.execute("ALTER TABLE inventory_items ADD CONSTRAINT chk_test_max_quantity CHECK (quantity <= 100)");
+
+        List<ReturnItemDTO> lines = List.of(line(cables.getId(), 4), line(monitors.getId(), 4));
+        assertThrows(DataIntegrityViolationException.class,
+                () -> inventoryService.returnItemsToWarehouse(department.getId(), lines));
+
+        assertEquals(10, quantity(cables));
+        assertEquals(10, quantity(monitors));
+        assertEquals(50, quantity(cableStock));
+        assertEquals(98, quantity(monitorStock));
+        assertEquals(0, stockMovementRepository.count());
+    }
+
+    private ReturnItemDTO line(Long itemId, int quantity) {
+        return ReturnItemDTO.builder()
+                .itemId(itemId)
+                .quantity(quantity)
+                .warehouseId(warehouse.getId())
+                .build();
+    }
+
+    private int quantity(InventoryItem item) {
+        return inventoryItemRepository.findById(item.getId()).orElseThrow().getQuantity();
+    }
+}
@@ -0,0 +1,123 @@
+package com.enterprise.inventorymanagement;
+
+import com.enterprise.inventorymanagement.model.*;
+import com.enterprise.inventorymanagement.model.dto.ReturnItemDTO;
+import com.enterprise.inventorymanagement.service.AuthenticationFacade;
+import com.enterprise.inventorymanagement.service.InventoryManagementService;
+import com.enterprise.inventorymanagement.service.InventoryManagementServiceImpl;
+import com.enterprise.inventorymanagement.service.StockLedger;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({InventoryManagementServiceImpl.class, StockLedger.class, AuthenticationFacade.class, TestData.class})
+public class InventoryItemReturnTest {
+
+    private static final int LINE_COUNT = 30;
+
+    @Autowired
+    private InventoryManagementService inventoryService;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Warehouse warehouse;
+    private Department department;
+    private final List<InventoryItem> departmentItems = new ArrayList<>();
+    private final List<InventoryItem> warehouseItems = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        Enterprise enterprise = testData.enterprise("TechCorp");
+        warehouse = testData.warehouse(enterprise, "Main");
+        department = testData.department(enterprise, "Engineering");
+
+        for (int i = 0; i < LINE_COUNT; i++) {
+            departmentItems.add(testData.departmentItem(department, "Item " + i, 10));
+            warehouseItems.add(testData.warehouseItem(warehouse, "Item " + i, 100));
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        statistics().clear();
+    }
+
+    @Test
+    void testReturnItemsToWarehouse_BatchedInOneFlush() {
+        List<ReturnItemDTO> lines = new ArrayList<>();
+        for (InventoryItem item : departmentItems) {
+            lines.add(line(item.getId(), 4));
+        }
+
+        inventoryService.returnItemsToWarehouse(department.getId(), lines);
+        entityManager.flush();
+
+        // department, sources, warehouses, targets, one batched UPDATE statement,
+        // then two id blocks and one batched INSERT for the 60 stock movements
+        assertEquals(8, statistics().getPrepareStatementCount());
+        assertEquals(LINE_COUNT * 2, statistics().getEntityStatistics(StockMovement.class.getName()).getInsertCount());
+
+        entityManager.clear();
+        assertEquals(6, entityManager.find(InventoryItem.class, departmentItems.get(0).getId()).getQuantity());
+        assertEquals(104, entityManager.find(InventoryItem.class, warehouseItems.get(0).getId()).getQuantity());
+    }
+
+    @Test
+    void testReturnItemsToWarehouse_AggregatesRepeatedLines() {
+        Long itemId = departmentItems.get(0).getId();
+
+        inventoryService.returnItemsToWarehouse(department.getId(), List.of(line(itemId, 4), line(itemId, 6)));
+        entityManager.flush();
+        entityManager.clear();
+
+        assertNull(entityManager.find(InventoryItem.class, itemId));
+        assertEquals(110, entityManager.find(InventoryItem.class, warehouseItems.get(0).getId()).getQuantity());
+    }
+
+    @Test
+    void testReturnItemsToWarehouse_RejectsWholeBatch() {
+        List<ReturnItemDTO> lines = List.of(
+                line(departmentItems.get(0).getId(), 4),
+                line(departmentItems.get(1).getId(), 11));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> inventoryService.returnItemsToWarehouse(department.getId(), lines));
+
+        entityManager.clear();
+        assertEquals(10, entityManager.find(InventoryItem.class, departmentItems.get(0).getId()).getQuantity());
+        assertEquals(100, entityManager.find(InventoryItem.class, warehouseItems.get(0).getId()).getQuantity());
+    }
+
+    private ReturnItemDTO line(Long itemId, int quantity) {
+        return ReturnItemDTO.builder()
+                .itemId(itemId)
+                .quantity(quantity)
+                .warehouseId(warehouse.getId())
+                .build();
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
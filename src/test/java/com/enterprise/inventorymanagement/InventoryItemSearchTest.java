@@ -0,0 +1,96 @@
+package com.enterprise.inventorymanagement;
+
+import com.enterprise.inventorymanagement.model.dto.ItemDTO;
+import com.enterprise.inventorymanagement.model.dto.ItemPageDTO;
+import com.enterprise.inventorymanagement.repository.DepartmentRepository;
+import com.enterprise.inventorymanagement.repository.EnterpriseRepository;
+import com.enterprise.inventorymanagement.repository.InventoryItemRepository;
+import com.enterprise.inventorymanagement.repository.WarehouseRepository;
+import com.enterprise.inventorymanagement.service.InventoryManagementServiceImpl;
+import com.enterprise.inventorymanagement.service.StockLedger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+// The search query relies on pg_trgm, so the repository is mocked and only the service's part is covered here
+public class InventoryItemSearchTest {
+
+    private static final long ENTERPRISE_ID = 1L;
+
+    private InventoryItemRepository inventoryItemRepository;
+    private InventoryManagementServiceImpl inventoryService;
+
+    @BeforeEach
+    void setUp() {
+        inventoryItemRepository = mock(InventoryItemRepository.class);
+        inventoryService = new InventoryManagementServiceImpl(inventoryItemRepository,
+                mock(EnterpriseRepository.class), mock(WarehouseRepository.class),
+                mock(DepartmentRepository.class), mock(StockLedger.class));
+        ReflectionTestUtils.setField(inventoryService, "defaultPageSize", 50);
+        ReflectionTestUtils.setField(inventoryService, "maxPageSize", 500);
+        ReflectionTestUtils.setField(inventoryService, "wordSimilarityThreshold", 0.4);
+
+        when(inventoryItemRepository.findAllDtoByIdIn(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            // Returned in id order, unlike the ranking
+            return ids.stream().sorted().map(id -> ItemDTO.builder().id(id).name("Item " + id).build()).toList();
+        });
+    }
+
+    @Test
+    void testSearch_EscapesLikeWildcards() {
+        when(inventoryItemRepository.searchIdsByEnterpriseId(anyLong(), anyString(), anyString(), anyInt(), anyInt()))
+                .thenReturn(List.of());
+
+        inventoryService.searchItems(ENTERPRISE_ID, "  100%_Cotton\\Shirt ", null, 10);
+
+        verify(inventoryItemRepository).setWordSimilarityThreshold("0.4");
+        verify(inventoryItemRepository).searchIdsByEnterpriseId(
+                ENTERPRISE_ID, "100%_cotton\\shirt", "100\\%\\_cotton\\\\shirt", 11, 0);
+        verify(inventoryItemRepository, never()).findAllDtoByIdIn(anyCollection());
+    }
+
+    @Test
+    void testSearch_KeepsRankOrder() {
+        when(inventoryItemRepository.searchIdsByEnterpriseId(anyLong(), anyString(), anyString(), anyInt(), anyInt()))
+                .thenReturn(List.of(7L, 3L, 9L, 1L));
+
+        ItemPageDTO page = inventoryService.searchItems(ENTERPRISE_ID, "item", null, 10);
+
+        assertEquals(List.of(7L, 3L, 9L, 1L), page.getItems().stream().map(ItemDTO::getId).toList());
+        assertFalse(page.isHasMore());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void testSearch_CursorContinuesAtOffset() {
+        when(inventoryItemRepository.searchIdsByEnterpriseId(ENTERPRISE_ID, "item", "item", 4, 0))
+                .thenReturn(List.of(5L, 2L, 8L, 4L));
+        when(inventoryItemRepository.searchIdsByEnterpriseId(ENTERPRISE_ID, "item", "item", 4, 3))
+                .thenReturn(List.of(4L, 6L));
+
+        ItemPageDTO first = inventoryService.searchItems(ENTERPRISE_ID, "item", null, 3);
+        assertEquals(List.of(5L, 2L, 8L), first.getItems().stream().map(ItemDTO::getId).toList());
+        assertTrue(first.isHasMore());
+        assertNotNull(first.getNextCursor());
+        // Only the ids of the page are loaded, not the lookahead row
+        verify(inventoryItemRepository).findAllDtoByIdIn(List.of(5L, 2L, 8L));
+
+        ItemPageDTO second = inventoryService.searchItems(ENTERPRISE_ID, "item", first.getNextCursor(), 3);
+        assertEquals(List.of(4L, 6L), second.getItems().stream().map(ItemDTO::getId).toList());
+        assertFalse(second.isHasMore());
+    }
+
+    @Test
+    void testSearch_RejectsBlankQuery() {
+        assertThrows(IllegalArgumentException.class, () -> inventoryService.searchItems(ENTERPRISE_ID, "  ", null, 10));
+        verifyNoInteractions(inventoryItemRepository);
+    }
+}
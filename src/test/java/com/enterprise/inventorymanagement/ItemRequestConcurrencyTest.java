@@ -0,0 +1,111 @@
+package com.enterprise.inventorymanagement;
+
+import com.enterprise.inventorymanagement.model.*;
+import com.enterprise.inventorymanagement.model.request.RequestStatus;
+import com.enterprise.inventorymanagement.repository.InventoryItemRepository;
+import com.enterprise.inventorymanagement.repository.ItemRequestRepository;
+import com.enterprise.inventorymanagement.service.AuthenticationFacade;
+import com.enterprise.inventorymanagement.service.ItemRequestService;
+import com.enterprise.inventorymanagement.service.ItemRequestServiceImpl;
+import com.enterprise.inventorymanagement.service.StockLedger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Approvals commit in their own transactions here, so the test cleans up after itself
+@DataJpaTest(properties = "spring.flyway.enabled=false")
+@Import({ItemRequestServiceImpl.class, StockLedger.class, AuthenticationFacade.class, TestData.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ItemRequestConcurrencyTest {
+
+    private static final int STOCK = 50;
+    private static final int REQUEST_COUNT = 20;
+    private static final int REQUESTED_QUANTITY = 5;
+
+    @Autowired
+    private ItemRequestService itemRequestService;
+
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    @Autowired
+    private InventoryItemRepository inventoryItemRepository;
+
+    @Autowired
+    private TestData testData;
+
+    private InventoryItem hotItem;
+    private final List<Long> requestIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        Enterprise enterprise = testData.enterprise("TechCorp");
+        Warehouse warehouse = testData.warehouse(enterprise, "Main");
+        Department department = testData.department(enterprise, "Engineering");
+        User requester = testData.user("manager", testData.role(RoleName.ROLE_MANAGER), enterprise, department);
+        hotItem = testData.warehouseItem(warehouse, "Laptop", STOCK);
+
+        for (int i = 0; i < REQUEST_COUNT; i++) {
+            requestIds.add(testData.request(requester, hotItem, REQUESTED_QUANTITY).getId());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        testData.deleteAll();
+    }
+
+    @Test
+    void testConcurrentApprovals_NeverOversell() throws Exception {
+        AtomicInteger approved = new AtomicInteger();
+        AtomicInteger refused = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Future<?>> results = new ArrayList<>();
+        for (Long requestId : requestIds) {
+            results.add(executor.submit(() -> {
+                start.await();
+                try {
+                    itemRequestService.handleItemRequest(requestId, true, null);
+                    approved.incrementAndGet();
+                } catch (IllegalStateException e) {
+                    refused.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> result : results) {
+            result.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(STOCK / REQUESTED_QUANTITY, approved.get());
+        assertEquals(REQUEST_COUNT - STOCK / REQUESTED_QUANTITY, refused.get());
+        assertEquals(0, inventoryItemRepository.findQuantityById(hotItem.getId()).orElseThrow());
+        assertEquals(STOCK / REQUESTED_QUANTITY,
+                itemRequestRepository.findAll().stream().filter(r -> r.getStatus() == RequestStatus.APPROVED).count());
+    }
+
+    @Test
+    void testRequestCanOnlyBeProcessedOnce() {
+        Long requestId = requestIds.get(0);
+        itemRequestService.handleItemRequest(requestId, true, null);
+
+        assertThrows(IllegalStateException.class, () -> itemRequestService.handleItemRequest(requestId, false, null));
+        assertEquals(STOCK - REQUESTED_QUANTITY, inventoryItemRepository.findQuantityById(hotItem.getId()).orElseThrow());
+    }
+}
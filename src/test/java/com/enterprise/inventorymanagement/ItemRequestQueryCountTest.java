@@ -0,0 +1,144 @@
+package com.enterprise.inventorymanagement;
+
+import com.enterprise.inventorymanagement.model.*;
+import com.enterprise.inventorymanagement.model.dto.ItemRequestDTO;
+import com.enterprise.inventorymanagement.model.dto.RequestItemDTO;
+import com.enterprise.inventorymanagement.service.AuthenticationFacade;
+import com.enterprise.inventorymanagement.service.ItemRequestService;
+import com.enterprise.inventorymanagement.service.ItemRequestServiceImpl;
+import com.enterprise.inventorymanagement.service.StockLedger;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({ItemRequestServiceImpl.class, StockLedger.class, AuthenticationFacade.class, TestData.class})
+public class ItemRequestQueryCountTest {
+
+    private static final int LINE_COUNT = 200;
+    private static final int REQUESTED_LINES = 40;
+
+    @Autowired
+    private ItemRequestService itemRequestService;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Warehouse warehouse;
+    private Department department;
+    private User requester;
+    private final List<InventoryItem> warehouseItems = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        Enterprise enterprise = testData.enterprise("TechCorp");
+        warehouse = testData.warehouse(enterprise, "Main");
+        department = testData.department(enterprise, "Engineering");
+        requester = testData.user("manager", testData.role(RoleName.ROLE_MANAGER), enterprise, department);
+        for (int i = 0; i < LINE_COUNT; i++) {
+            warehouseItems.add(testData.warehouseItem(warehouse, "Item " + i, 10));
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        statistics().clear();
+    }
+
+    @Test
+    void testCreateItemRequest_BatchesLineInserts() {
+        List<RequestItemDTO> lines = new ArrayList<>();
+        for (InventoryItem item : warehouseItems) {
+            lines.add(RequestItemDTO.builder().itemId(item.getId()).quantity(2).build());
+        }
+        ItemRequestDTO requestDTO = ItemRequestDTO.builder()
+                .warehouseId(warehouse.getId())
+                .departmentId(department.getId())
+                .requestItems(lines)
+                .build();
+
+        ItemRequestDTO created = itemRequestService.createItemRequest(requester.getId(), requestDTO);
+        entityManager.flush();
+
+        assertEquals(LINE_COUNT, created.getRequestItems().size());
+        assertEquals(LINE_COUNT + 1, statistics().getEntityInsertCount());
+        // Lookups, a few sequence calls and one batched INSERT per 50 lines, instead of two statements per line
+        assertEquals(11, statistics().getPrepareStatementCount());
+    }
+
+    @Test
+    void testHandleItemRequest_LoadsOnlyRequestedRows() {
+        List<RequestItemDTO> lines = new ArrayList<>();
+        for (InventoryItem item : warehouseItems.subList(0, REQUESTED_LINES)) {
+            lines.add(RequestItemDTO.builder().itemId(item.getId()).quantity(2).build());
+        }
+        Long requestId = itemRequestService.createItemRequest(requester.getId(), ItemRequestDTO.builder()
+                .warehouseId(warehouse.getId())
+                .departmentId(department.getId())
+                .requestItems(lines)
+                .build()).getId();
+        entityManager.flush();
+        entityManager.clear();
+        statistics().clear();
+
+        itemRequestService.handleItemRequest(requestId, true, null);
+        entityManager.flush();
+
+        // The other warehouse rows are never materialized
+        assertTrue(statistics().getEntityLoadCount() < LINE_COUNT);
+        assertEquals(REQUESTED_LINES, statistics().getEntityStatistics(InventoryItem.class.getName()).getInsertCount());
+        // One movement out of the warehouse row and one into the department row per line
+        assertEquals(REQUESTED_LINES * 2, statistics().getEntityStatistics(StockMovement.class.getName()).getInsertCount());
+
+        entityManager.clear();
+        assertEquals(8, entityManager.find(InventoryItem.class, warehouseItems.get(0).getId()).getQuantity());
+        assertEquals(10, entityManager.find(InventoryItem.class, warehouseItems.get(REQUESTED_LINES).getId()).getQuantity());
+    }
+
+    @Test
+    void testHandleItemRequest_CombinesLinesOfTheSameItem() {
+        Long itemId = warehouseItems.get(0).getId();
+        Long requestId = itemRequestService.createItemRequest(requester.getId(), ItemRequestDTO.builder()
+                .warehouseId(warehouse.getId())
+                .departmentId(department.getId())
+                .requestItems(List.of(
+                        RequestItemDTO.builder().itemId(itemId).quantity(6).build(),
+                        RequestItemDTO.builder().itemId(itemId).quantity(4).build()))
+                .build()).getId();
+        entityManager.flush();
+        entityManager.clear();
+        statistics().clear();
+
+        itemRequestService.handleItemRequest(requestId, true, null);
+        entityManager.flush();
+
+        // One decrement, one new department row and one pair of movements for both lines
+        assertEquals(1, statistics().getEntityStatistics(InventoryItem.class.getName()).getInsertCount());
+        assertEquals(2, statistics().getEntityStatistics(StockMovement.class.getName()).getInsertCount());
+        entityManager.clear();
+        assertEquals(0, entityManager.find(InventoryItem.class, itemId).getQuantity());
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
@@ -0,0 +1,81 @@
+package com.enterprise.inventorymanagement;
+
+import com.enterprise.inventorymanagement.security.JwtTokenProvider;
+import com.enterprise.inventorymanagement.service.UserDetailsImpl;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JwtTokenProviderTest {
+
+    private JwtTokenProvider tokenProvider;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        tokenProvider = provider(100);
+
+        UserDetailsImpl principal = new UserDetailsImpl(7L, "employee", "Jane Employee", "employee@techcorp.com",
+                null, 1L, 2L, "Engineering", "ROLE_EMPLOYEE",
+                Set.of(new SimpleGrantedAuthority("ROLE_EMPLOYEE"), new SimpleGrantedAuthority("VIEW_INVENTORY")),
+                true, 0);
+        token = tokenProvider.generateToken(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    @Test
+    void testVerifiedClaims_ServedFromCache() {
+        Claims first = tokenProvider.getVerifiedClaims(token);
+        Claims second = tokenProvider.getVerifiedClaims(token);
+
+        assertNotNull(first);
+        assertEquals("7", first.getSubject());
+        assertSame(first, second);
+    }
+
+    @Test
+    void testTamperedToken_IsRejected() {
+        tokenProvider.getVerifiedClaims(token);
+        // A character inside the payload, as the last characters of the signature may only carry padding bits
+        int position = token.indexOf('.') + 5;
+        char replacement = token.charAt(position) == 'A' ? 'B' : 'A';
+        String tampered = token.substring(0, position) + replacement + token.substring(position + 1);
+
+        assertNull(tokenProvider.getVerifiedClaims(tampered));
+        assertFalse(tokenProvider.validateToken(tampered));
+    }
+
+    @Test
+    void testCachedClaims_ExpireAfterTtl() throws InterruptedException {
+        Claims first = tokenProvider.getVerifiedClaims(token);
+        Thread.sleep(150);
+
+        assertNotSame(first, tokenProvider.getVerifiedClaims(token));
+    }
+
+    @Test
+    void testCacheDisabled_VerifiesEveryTime() {
+        JwtTokenProvider uncached = provider(0);
+        ReflectionTestUtils.setField(uncached, "tokenCacheMaxSize", 0);
+        uncached.init();
+
+        assertNotSame(uncached.getVerifiedClaims(token), uncached.getVerifiedClaims(token));
+    }
+
+    private JwtTokenProvider provider(long cacheTtlMs) {
+        JwtTokenProvider provider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(provider, "jwtSecret", "x".repeat(64));
+        ReflectionTestUtils.setField(provider, "jwtExpirationMs", 60000);
+        ReflectionTestUtils.setField(provider, "tokenCacheMaxSize", 100);
+        ReflectionTestUtils.setField(provider, "tokenCacheTtlMs", cacheTtlMs);
+        provider.init();
+        return provider;
+    }
+}
@@ -0,0 +1,215 @@
+package com.enterprise.inventorymanagement;
+
+import com.enterprise.inventorymanagement.controller.WarehouseController;
+import com.enterprise.inventorymanagement.model.*;
+import com.enterprise.inventorymanagement.repository.InventoryItemRepository;
+import com.enterprise.inventorymanagement.repository.UserRepository;
+import com.enterprise.inventorymanagement.service.AuthenticationFacade;
+import com.enterprise.inventorymanagement.service.ItemRequestService;
+import com.enterprise.inventorymanagement.service.ItemRequestServiceImpl;
+import com.enterprise.inventorymanagement.service.ScopeVersions;
+import com.enterprise.inventorymanagement.service.StockLedger;
+import com.enterprise.inventorymanagement.service.WarehouseService;
+import com.enterprise.inventorymanagement.service.WarehouseServiceImpl;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+// Versions are bumped as the changing transaction commits, so the changes here commit and the test cleans up
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({WarehouseServiceImpl.class, ItemRequestServiceImpl.class, StockLedger.class, AuthenticationFacade.class,
+        ScopeVersions.class, TestData.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ListingETagTest {
+
+    @Autowired
+    private WarehouseService warehouseService;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private ItemRequestService itemRequestService;
+
+    @Autowired
+    private ScopeVersions scopeVersions;
+
+    @Autowired
+    private InventoryItemRepository inventoryItemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private MockMvc mockMvc;
+    private Enterprise enterprise;
+    private Warehouse warehouse;
+    private Department department;
+    private User requester;
+    private InventoryItem laptops;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(new WarehouseController(warehouseService, scopeVersions)).build();
+
+        enterprise = testData.enterprise("TechCorp");
+        warehouse = testData.warehouse(enterprise, "Main");
+        department = testData.department(enterprise, "Engineering");
+        requester = testData.user("manager", testData.role(RoleName.ROLE_MANAGER), enterprise, department);
+        laptops = testData.warehouseItem(warehouse, "Laptop", 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        testData.deleteAll();
+    }
+
+    @Test
+    void testUnchangedListing_NotModifiedWithoutQuery() throws Exception {
+        MockHttpServletResponse first = listItems(null);
+        assertEquals(200, first.getStatus());
+        String etag = first.getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+        assertTrue(first.getHeader(HttpHeaders.CACHE_CONTROL).contains("no-cache"));
+        assertTrue(first.getContentAsString().contains("Laptop"));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        MockHttpServletResponse revalidated = listItems(etag);
+        assertEquals(304, revalidated.getStatus());
+        assertEquals("", revalidated.getContentAsString());
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        // A rename is not a stock movement; the entity listener bumps the warehouse
+        laptops.setName("Notebook");
+        inventoryItemRepository.save(laptops);
+        MockHttpServletResponse renamed = listItems(etag);
+        assertEquals(200, renamed.getStatus());
+        assertTrue(renamed.getContentAsString().contains("Notebook"));
+        assertNotEquals(etag, renamed.getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void testApproval_ChangesOnlyTheScopesItTouched() {
+        Warehouse annex = testData.warehouse(enterprise, "Annex");
+        String warehouseTag = scopeVersions.etag(ScopeVersions.Scope.WAREHOUSE, warehouse.getId());
+        String departmentTag = scopeVersions.etag(ScopeVersions.Scope.DEPARTMENT, department.getId());
+        String enterpriseTag = scopeVersions.etag(ScopeVersions.Scope.ENTERPRISE, enterprise.getId());
+        String annexTag = scopeVersions.etag(ScopeVersions.Scope.WAREHOUSE, annex.getId());
+
+        // Nothing is bumped for a change that rolled back
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            InventoryItem item = inventoryItemRepository.findById(laptops.getId()).orElseThrow();
+            item.setQuantity(1);
+            inventoryItemRepository.saveAndFlush(item);
+            status.setRollbackOnly();
+        });
+        assertEquals(warehouseTag, scopeVersions.etag(ScopeVersions.Scope.WAREHOUSE, warehouse.getId()));
+
+        itemRequestService.handleItemRequest(createRequest(4), true, null);
+
+        assertNotEquals(warehouseTag, scopeVersions.etag(ScopeVersions.Scope.WAREHOUSE, warehouse.getId()));
+        assertNotEquals(departmentTag, scopeVersions.etag(ScopeVersions.Scope.DEPARTMENT, department.getId()));
+        assertNotEquals(enterpriseTag, scopeVersions.etag(ScopeVersions.Scope.ENTERPRISE, enterprise.getId()));
+        assertEquals(annexTag, scopeVersions.etag(ScopeVersions.Scope.WAREHOUSE, annex.getId()));
+    }
+
+    @Test
+    void testUserChange_ChangesOnlyItsOwnEnterprisesScopes() {
+        Enterprise other = testData.enterprise("OtherCorp");
+        Warehouse depot = testData.warehouse(other, "Depot");
+        User outsider = testData.user("outsider", requester.getRole(), other, null);
+        String warehouseTag = scopeVersions.etag(ScopeVersions.Scope.WAREHOUSE, warehouse.getId());
+        String depotTag = scopeVersions.etag(ScopeVersions.Scope.WAREHOUSE, depot.getId());
+        assertNotNull(depotTag);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                userRepository.findById(outsider.getId()).orElseThrow().setFullName("Outside User"));
+
+        assertNotEquals(depotTag, scopeVersions.etag(ScopeVersions.Scope.WAREHOUSE, depot.getId()));
+        assertEquals(warehouseTag, scopeVersions.etag(ScopeVersions.Scope.WAREHOUSE, warehouse.getId()));
+    }
+
+    @Test
+    void testOtherInstance_SeesTheSameVersions() {
+        ScopeVersions otherInstance = new ScopeVersions(jdbcTemplate, entityManager, "", Duration.ofSeconds(5));
+        String etag = scopeVersions.etag(ScopeVersions.Scope.WAREHOUSE, warehouse.getId());
+        assertNotNull(etag);
+        assertEquals(etag, otherInstance.etag(ScopeVersions.Scope.WAREHOUSE, warehouse.getId()));
+
+        itemRequestService.handleItemRequest(createRequest(4), true, null);
+
+        String changed = otherInstance.etag(ScopeVersions.Scope.WAREHOUSE, warehouse.getId());
+        assertNotEquals(etag, changed);
+        assertEquals(changed, scopeVersions.etag(ScopeVersions.Scope.WAREHOUSE, warehouse.getId()));
+    }
+
+    @Test
+    void testWithReplica_NoETagUntilAChangeCouldHaveReachedIt() throws Exception {
+        Warehouse annex = testData.warehouse(enterprise, "Annex");
+        ScopeVersions withReplica = new ScopeVersions(jdbcTemplate, entityManager,
+                "jdbc:postgresql://replica/inventory", Duration.ofMillis(200));
+        Thread.sleep(250);
+        String before = withReplica.etag(ScopeVersions.Scope.WAREHOUSE, warehouse.getId());
+        assertNotNull(before);
+
+        // Made through the other instance; the hold-back goes by the time the database recorded
+        scopeVersions.changed(enterprise.getId(), warehouse.getId(), null);
+        assertNull(withReplica.etag(ScopeVersions.Scope.WAREHOUSE, warehouse.getId()));
+        assertNull(withReplica.etag(ScopeVersions.Scope.ENTERPRISE, enterprise.getId()));
+        assertNotNull(withReplica.etag(ScopeVersions.Scope.WAREHOUSE, annex.getId()));
+
+        Thread.sleep(250);
+        String after = withReplica.etag(ScopeVersions.Scope.WAREHOUSE, warehouse.getId());
+        assertNotNull(after);
+        assertNotEquals(before, after);
+    }
+
+    private MockHttpServletResponse listItems(String ifNoneMatch) throws Exception {
+        MockHttpServletRequestBuilder request = get("/api/warehouses/" + warehouse.getId() + "/items");
+        if (ifNoneMatch != null) {
+            request.header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return mockMvc.perform(request).andReturn().getResponse();
+    }
+
+    private Long createRequest(int quantity) {
+        return testData.request(requester, laptops, quantity).getId();
+    }
+}
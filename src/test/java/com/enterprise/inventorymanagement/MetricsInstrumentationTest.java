@@ -0,0 +1,94 @@
+package com.enterprise.inventorymanagement;
+
+import com.enterprise.inventorymanagement.config.MetricsConfig;
+import com.enterprise.inventorymanagement.model.Enterprise;
+import com.enterprise.inventorymanagement.model.dto.ItemDTO;
+import com.enterprise.inventorymanagement.security.PrometheusScrapeRequestMatcher;
+import com.enterprise.inventorymanagement.service.AuthenticationFacade;
+import com.enterprise.inventorymanagement.service.InventoryManagementService;
+import com.enterprise.inventorymanagement.service.InventoryManagementServiceImpl;
+import com.enterprise.inventorymanagement.service.StockLedger;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({InventoryManagementServiceImpl.class, MetricsConfig.class, MetricsInstrumentationTest.Config.class,
+        StockLedger.class, AuthenticationFacade.class, TestData.class})
+public class MetricsInstrumentationTest {
+
+    @TestConfiguration
+    @EnableAspectJAutoProxy
+    static class Config {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private InventoryManagementService inventoryService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private MeterBinder hibernateStatisticsMetrics;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void testServiceCallsAndHibernateStatistics_AreRecorded() {
+        hibernateStatisticsMetrics.bindTo(meterRegistry);
+
+        Enterprise enterprise = testData.enterprise("TechCorp");
+
+        inventoryService.createItem(enterprise.getId(), ItemDTO.builder().name("Monitor").quantity(5).build());
+        entityManager.flush();
+
+        Timer timer = meterRegistry.find("inventory.items.create").timer();
+        assertNotNull(timer);
+        assertEquals(1, timer.count());
+
+        FunctionCounter statements = meterRegistry.find("hibernate.statements.prepared").functionCounter();
+        assertNotNull(statements);
+        assertTrue(statements.count() > 0);
+    }
+
+    @Test
+    void testPrometheusScrape_OpenOnlyOnTheManagementPort() {
+        PrometheusScrapeRequestMatcher matcher = new PrometheusScrapeRequestMatcher(9090);
+
+        assertTrue(matcher.matches(actuatorRequest(9090, "/actuator/prometheus")));
+        assertFalse(matcher.matches(actuatorRequest(8080, "/actuator/prometheus")));
+        assertFalse(matcher.matches(actuatorRequest(9090, "/actuator/env")));
+        assertFalse(new PrometheusScrapeRequestMatcher(null).matches(actuatorRequest(8080, "/actuator/prometheus")));
+    }
+
+    private static MockHttpServletRequest actuatorRequest(int port, String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setLocalPort(port);
+        request.setServletPath(path);
+        return request;
+    }
+}
@@ -0,0 +1,73 @@
+package com.enterprise.inventorymanagement;
+
+import com.enterprise.inventorymanagement.exceptions.PasswordHashingRejectedException;
+import com.enterprise.inventorymanagement.security.PasswordHashingExecutor;
+import com.enterprise.inventorymanagement.security.SecurityConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PasswordHashingTest {
+
+    private final PasswordHashingExecutor executor = new PasswordHashingExecutor(1, 1);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void testSaturatedPool_RejectsImmediately() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<String> running = executor.submit(() -> {
+            started.countDown();
+            await(release);
+            return "first";
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = executor.submit(() -> "second");
+
+        assertEquals(1, executor.getQueueDepth());
+        assertThrows(PasswordHashingRejectedException.class, () -> executor.submit(() -> "third"));
+        assertEquals(1, executor.getRejectedCount());
+
+        release.countDown();
+        assertEquals("first", running.get(5, TimeUnit.SECONDS));
+        assertEquals("second", queued.get(5, TimeUnit.SECONDS));
+        assertEquals(2, executor.getCompletedCount());
+    }
+
+    @Test
+    void testPasswordEncoder_UpgradesLegacyAndWeakHashes() {
+        SecurityConfig config = new SecurityConfig();
+        ReflectionTestUtils.setField(config, "bcryptStrength", 6);
+        PasswordEncoder encoder = config.passwordEncoder();
+
+        String legacy = new BCryptPasswordEncoder(4).encode("password");
+        assertTrue(encoder.matches("password", legacy));
+        assertTrue(encoder.upgradeEncoding(legacy));
+
+        String current = encoder.encode("password");
+        assertTrue(current.startsWith("{bcrypt}$2a$06$"));
+        assertTrue(encoder.matches("password", current));
+        assertFalse(encoder.upgradeEncoding(current));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.enterprise.inventorymanagement;
+
+import com.enterprise.inventorymanagement.model.*;
+import com.enterprise.inventorymanagement.security.PrincipalCache;
+import com.enterprise.inventorymanagement.service.UserDetailsImpl;
+import com.enterprise.inventorymanagement.service.UserDetailsServiceImpl;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "app.security.principal-cache.max-size=2"
+})
+@Import({PrincipalCache.class, UserDetailsServiceImpl.class})
+public class PrincipalCacheTest {
+
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Role role;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        role = new Role(RoleName.ROLE_EMPLOYEE);
+        role.getPermissions().add(entityManager.persist(new Permission("VIEW_INVENTORY")));
+        entityManager.persist(role);
+
+        user = persistUser("employee");
+
+        entityManager.flush();
+        entityManager.clear();
+        principalCache.invalidateAll();
+        statistics().clear();
+    }
+
+    @Test
+    void testLoadUserById_SecondCallIsServedFromCache() {
+        userDetailsService.loadUserById(user.getId());
+        long statements = statistics().getPrepareStatementCount();
+        long misses = principalCache.getMissCount();
+
+        UserDetailsImpl cached = (UserDetailsImpl) userDetailsService.loadUserById(user.getId());
+
+        assertEquals(statements, statistics().getPrepareStatementCount());
+        assertEquals(misses, principalCache.getMissCount());
+        assertTrue(principalCache.getHitCount() > 0);
+        assertTrue(cached.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("VIEW_INVENTORY")));
+    }
+
+    @Test
+    void testUpdatingUser_EvictsCachedPrincipal() {
+        userDetailsService.loadUserById(user.getId());
+
+        User managed = entityManager.find(User.class, user.getId());
+        managed.setFullName("Renamed Employee");
+        entityManager.flush();
+
+        UserDetailsImpl reloaded = (UserDetailsImpl) userDetailsService.loadUserById(user.getId());
+        assertEquals("Renamed Employee", reloaded.getFullName());
+    }
+
+    @Test
+    void testCacheStaysWithinMaxSize() {
+        User second = persistUser("second");
+        User third = persistUser("third");
+        entityManager.flush();
+
+        userDetailsService.loadUserById(user.getId());
+        userDetailsService.loadUserById(second.getId());
+        userDetailsService.loadUserById(third.getId());
+
+        assertTrue(principalCache.size() <= 2);
+    }
+
+    private User persistUser(String username) {
+        User user = new User();
+        user.setFullName("Jane Employee");
+        user.setUsername(username);
+        user.setPassword("password");
+        user.setEmail(username + "@techcorp.com");
+        user.setActive(true);
+        user.setRole(role);
+        return entityManager.persist(user);
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
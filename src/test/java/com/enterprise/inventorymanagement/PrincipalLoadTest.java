@@ -0,0 +1,52 @@
+package com.enterprise.inventorymanagement;
+
+import com.enterprise.inventorymanagement.model.*;
+import com.enterprise.inventorymanagement.security.PrincipalCache;
+import com.enterprise.inventorymanagement.service.UserDetailsImpl;
+import com.enterprise.inventorymanagement.service.UserDetailsServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Principals are loaded by the authentication filter outside any transaction, so this test runs without one
+@DataJpaTest(properties = "spring.flyway.enabled=false")
+@Import({PrincipalCache.class, UserDetailsServiceImpl.class, TestData.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class PrincipalLoadTest {
+
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private TestData testData;
+
+    @AfterEach
+    void tearDown() {
+        principalCache.invalidateAll();
+        testData.deleteAll();
+    }
+
+    @Test
+    void testLoadUserById_OutsideTransaction_IncludesDepartment() {
+        Enterprise enterprise = testData.enterprise("TechCorp");
+        Department department = testData.department(enterprise, "Engineering");
+        User user = testData.user("employee", testData.role(RoleName.ROLE_EMPLOYEE, "VIEW_INVENTORY"),
+                enterprise, department);
+
+        UserDetailsImpl principal = (UserDetailsImpl) userDetailsService.loadUserById(user.getId());
+
+        assertEquals(enterprise.getId(), principal.getEnterpriseId());
+        assertEquals(department.getId(), principal.getDepartmentId());
+        assertEquals("Engineering", principal.getDepartmentName());
+        assertTrue(principal.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("VIEW_INVENTORY")));
+    }
+}
@@ -0,0 +1,203 @@
+package com.enterprise.inventorymanagement;
+
+import com.enterprise.inventorymanagement.config.ReplicaLagMonitor;
+import com.enterprise.inventorymanagement.config.ReplicaRoutingConfig;
+import com.enterprise.inventorymanagement.config.ReplicaRoutingDataSource;
+import com.enterprise.inventorymanagement.repository.ItemRequestRepository;
+import com.enterprise.inventorymanagement.service.ApprovalCoalescer;
+import com.enterprise.inventorymanagement.service.AuthenticationFacade;
+import com.enterprise.inventorymanagement.service.ItemRequestService;
+import com.enterprise.inventorymanagement.service.StockLedger;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Two separate in-memory databases stand in for the primary and the replica
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1",
+        "app.datasource.replica.url=jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1",
+        "app.datasource.replica.username=sa",
+        "app.datasource.replica.lag-query=SELECT seconds FROM replication_lag",
+        "app.datasource.replica.max-lag=5s",
+        "app.datasource.replica.read-your-writes-window=1m"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(ReplicaRoutingConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ReplicaRoutingTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ReplicaLagMonitor lagMonitor;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void setUp() {
+        replica = new JdbcTemplate(replicaDataSource);
+        replica.execute("CREATE TABLE IF NOT EXISTS replication_lag (seconds DOUBLE)");
+        replica.execute("DELETE FROM replication_lag");
+        replica.update("INSERT INTO replication_lag VALUES (0)");
+        lagMonitor.check();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testReadOnlyTransaction_UsesReplica() {
+        assertEquals("REPLICA", database(true));
+        assertEquals("PRIMARY", database(false));
+    }
+
+    @Test
+    void testReplicaBehind_ReadsFromPrimary() {
+        replica.update("UPDATE replication_lag SET seconds = 30");
+        lagMonitor.check();
+        assertFalse(lagMonitor.isReplicaUsable());
+        assertEquals("PRIMARY", database(true));
+
+        replica.update("UPDATE replication_lag SET seconds = 1");
+        lagMonitor.check();
+        assertEquals("REPLICA", database(true));
+    }
+
+    @Test
+    void testReplicaUnreachable_ReadsFromPrimary() {
+        replica.execute("DROP TABLE replication_lag");
+        lagMonitor.check();
+
+        assertFalse(lagMonitor.isReplicaUsable());
+        assertEquals("PRIMARY", database(true));
+    }
+
+    @Test
+    void testReadYourWrites_PinsWriterToPrimary() {
+        authenticate("writer");
+        assertEquals("PRIMARY", database(false));
+        assertEquals("PRIMARY", database(true));
+
+        authenticate("reader");
+        assertEquals("REPLICA", database(true));
+    }
+
+    @Test
+    void testOpenEntityManagerInView_RoutesEachTransaction() {
+        // The web request's entity manager outlives both transactions, as with spring.jpa.open-in-view
+        OpenEntityManagerInViewInterceptor openInView = new OpenEntityManagerInViewInterceptor();
+        openInView.setEntityManagerFactory(entityManagerFactory);
+        ServletWebRequest request = new ServletWebRequest(new MockHttpServletRequest());
+        openInView.preHandle(request);
+        try {
+            assertEquals("REPLICA", database(true));
+            assertEquals("PRIMARY", database(false));
+        } finally {
+            openInView.afterCompletion(request, null);
+        }
+    }
+
+    @Test
+    void testExplicitActor_PinsWriterToPrimaryWithoutSecurityContext() {
+        // e.g. a password rehash on the hashing pool, which has no security context
+        ReplicaRoutingDataSource.callAs(List.of("worker-writer"), () -> database(false));
+        assertEquals("REPLICA", database(true));
+
+        authenticate("worker-writer");
+        assertEquals("PRIMARY", database(true));
+    }
+
+    @Test
+    void testCoalescedApproval_PinsApproverToPrimary() throws Exception {
+        ItemRequestService itemRequestService = mock(ItemRequestService.class);
+        // The group's transaction runs on a coalescing worker, away from the approver's security context
+        when(itemRequestService.approveItemRequests(anyList())).thenAnswer(invocation -> {
+            assertEquals("PRIMARY", database(false));
+            return Map.of();
+        });
+        ItemRequestRepository itemRequestRepository = mock(ItemRequestRepository.class);
+        when(itemRequestRepository.findSourceWarehouseIds(anyList())).thenReturn(List.of());
+        ApprovalCoalescer coalescer = new ApprovalCoalescer(itemRequestService, itemRequestRepository,
+                mock(StockLedger.class), new AuthenticationFacade(), true, Duration.ofMillis(5), 10, 1, 10);
+        try {
+            authenticate("approver");
+            coalescer.approve(1L, null).get(5, TimeUnit.SECONDS);
+            assertEquals("PRIMARY", database(true));
+
+            authenticate("reader");
+            assertEquals("REPLICA", database(true));
+        } finally {
+            coalescer.shutdown();
+        }
+    }
+
+    @Test
+    void testRolledBackWrite_DoesNotPinToPrimary() {
+        authenticate("writer");
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.executeWithoutResult(status -> {
+            currentDatabase();
+            status.setRollbackOnly();
+        });
+
+        assertEquals("REPLICA", database(true));
+    }
+
+    private String database(boolean readOnly) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(readOnly);
+        return template.execute(status -> currentDatabase());
+    }
+
+    private String currentDatabase() {
+        List<?> result = entityManager.createNativeQuery("SELECT DATABASE()").getResultList();
+        return result.get(0).toString();
+    }
+
+    private static void authenticate(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(username, null, List.of()));
+    }
+}
@@ -0,0 +1,190 @@
+package com.enterprise.inventorymanagement;
+
+import com.enterprise.inventorymanagement.controller.RequestEventController;
+import com.enterprise.inventorymanagement.model.*;
+import com.enterprise.inventorymanagement.service.AuthenticationFacade;
+import com.enterprise.inventorymanagement.service.ItemRequestService;
+import com.enterprise.inventorymanagement.service.ItemRequestServiceImpl;
+import com.enterprise.inventorymanagement.service.RequestEventBroker;
+import com.enterprise.inventorymanagement.service.StockLedger;
+import com.enterprise.inventorymanagement.service.UserDetailsImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.method.annotation.AuthenticationPrincipalArgumentResolver;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+// Events are delivered after commit, so the service calls commit here and the test cleans up after itself
+@DataJpaTest(properties = "spring.flyway.enabled=false")
+@Import({ItemRequestServiceImpl.class, StockLedger.class, AuthenticationFacade.class, RequestEventBroker.class,
+        TestData.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class RequestEventStreamTest {
+
+    private static final Pattern EVENT_ID = Pattern.compile("id:(\\d+)\\nevent:REQUEST_APPROVED");
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private ItemRequestService itemRequestService;
+
+    @Autowired
+    private RequestEventBroker eventBroker;
+
+    private MockMvc mockMvc;
+    private Enterprise enterprise;
+    private Warehouse warehouse;
+    private User requester;
+    private InventoryItem laptops;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(new RequestEventController(eventBroker))
+                .setCustomArgumentResolvers(new AuthenticationPrincipalArgumentResolver())
+                .build();
+
+        enterprise = testData.enterprise("TechCorp");
+        warehouse = testData.warehouse(enterprise, "Main");
+        Department department = testData.department(enterprise, "Engineering");
+        requester = testData.user("manager", testData.role(RoleName.ROLE_MANAGER), enterprise, department);
+        laptops = testData.warehouseItem(warehouse, "Laptop", 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        testData.deleteAll();
+    }
+
+    @Test
+    void testApproval_PushedToTheUsersWhoMaySeeIt() throws Exception {
+        MockHttpServletResponse own = subscribe(employee(requester.getId()), null);
+        MockHttpServletResponse coworker = subscribe(employee(-4L), null);
+        MockHttpServletResponse pendingViewer = subscribe(
+                principal(-5L, enterprise.getId(), null, "VIEW_REQUESTS", "VIEW_PENDING_REQUESTS"), null);
+        MockHttpServletResponse departmentManager = subscribe(
+                principal(-6L, enterprise.getId(), requester.getDepartment().getId(), "MANAGE_DEPARTMENT"), null);
+        MockHttpServletResponse operator = subscribe(
+                principal(-1L, enterprise.getId(), null, "MANAGE_WAREHOUSE", "VIEW_INVENTORY"), null);
+        MockHttpServletResponse otherWarehouse = subscribe(principal(-2L, enterprise.getId(), null, "MANAGE_WAREHOUSE"),
+                "?warehouseId=" + (warehouse.getId() + 1));
+        MockHttpServletResponse otherEnterprise = subscribe(
+                principal(-3L, enterprise.getId() + 1, null, "MANAGE_WAREHOUSE", "VIEW_INVENTORY"), null);
+
+        Long requestId = createRequest(4);
+        itemRequestService.handleItemRequest(requestId, true, null);
+
+        awaitContent(own, "event:REQUEST_APPROVED");
+        awaitContent(departmentManager, "event:REQUEST_APPROVED");
+        String operatorEvents = awaitContent(operator, "event:STOCK_CHANGED");
+        awaitContent(operator, "event:REQUEST_APPROVED");
+        assertTrue(operatorEvents.contains("\"requestId\":" + requestId));
+        // Another employee sees the stock move but not the request itself
+        awaitContent(coworker, "event:STOCK_CHANGED");
+        Thread.sleep(100);
+        assertFalse(coworker.getContentAsString().contains("event:REQUEST_APPROVED"));
+        assertFalse(pendingViewer.getContentAsString().contains("event:"), "stock events need VIEW_INVENTORY");
+        assertFalse(departmentManager.getContentAsString().contains("STOCK_CHANGED"));
+        assertFalse(otherWarehouse.getContentAsString().contains("event:"));
+        assertFalse(otherEnterprise.getContentAsString().contains("event:"));
+    }
+
+    @Test
+    void testRolledBackApproval_NotPushed() throws Exception {
+        MockHttpServletResponse own = subscribe(employee(requester.getId()), null);
+        Long requestId = createRequest(40);
+
+        assertThrows(IllegalStateException.class, () -> itemRequestService.handleItemRequest(requestId, true, null));
+        itemRequestService.handleItemRequest(requestId, false, "no stock");
+
+        String events = awaitContent(own, "event:REQUEST_REJECTED");
+        assertFalse(events.contains("REQUEST_APPROVED"));
+    }
+
+    @Test
+    void testReconnect_ResumesFromLastEventId() throws Exception {
+        // Without VIEW_INVENTORY, so the approval is the last event this user receives
+        UserDetailsImpl user = principal(requester.getId(), enterprise.getId(), null, "VIEW_REQUESTS");
+        MockHttpServletResponse first = subscribe(user, null);
+        itemRequestService.handleItemRequest(createRequest(1), true, null);
+        Matcher approved = EVENT_ID.matcher(awaitContent(first, "event:REQUEST_APPROVED"));
+        assertTrue(approved.find());
+        long eventId = Long.parseLong(approved.group(1));
+
+        MockHttpServletResponse missed = subscribe(user, null, eventId - 1);
+        awaitContent(missed, "id:" + eventId);
+
+        MockHttpServletResponse upToDate = subscribe(user, null, eventId);
+        awaitContent(upToDate, ":connected");
+        Thread.sleep(100);
+        assertFalse(upToDate.getContentAsString().contains("event:"));
+
+        MockHttpServletResponse stale = subscribe(user, null, 1L);
+        awaitContent(stale, "event:RESYNC");
+    }
+
+    private MockHttpServletResponse subscribe(UserDetailsImpl user, String query) throws Exception {
+        return subscribe(user, query, null);
+    }
+
+    private MockHttpServletResponse subscribe(UserDetailsImpl user, String query, Long lastEventId) throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+        MockHttpServletRequestBuilder events = get("/api/events" + (query != null ? query : ""));
+        if (lastEventId != null) {
+            events.header("Last-Event-ID", lastEventId);
+        }
+        MockHttpServletResponse response = mockMvc.perform(events)
+                .andExpect(request().asyncStarted())
+                .andReturn()
+                .getResponse();
+        SecurityContextHolder.clearContext();
+        return response;
+    }
+
+    private static String awaitContent(MockHttpServletResponse response, String expected) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!response.getContentAsString().contains(expected) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        String content = response.getContentAsString();
+        assertTrue(content.contains(expected), () -> "expected " + expected + " in " + content);
+        return content;
+    }
+
+    // The authorities V17 grants ROLE_EMPLOYEE
+    private UserDetailsImpl employee(Long id) {
+        return principal(id, enterprise.getId(), null, "VIEW_REQUESTS", "VIEW_INVENTORY");
+    }
+
+    private static UserDetailsImpl principal(Long id, Long enterpriseId, Long departmentId, String... authorities) {
+        return new UserDetailsImpl(id, "user" + id, "User", "user@techcorp.com", "password", enterpriseId,
+                departmentId, null, "ROLE_EMPLOYEE",
+                List.of(authorities).stream().map(SimpleGrantedAuthority::new).toList(), true, 0);
+    }
+
+    private Long createRequest(int quantity) {
+        return testData.request(requester, laptops, quantity).getId();
+    }
+}
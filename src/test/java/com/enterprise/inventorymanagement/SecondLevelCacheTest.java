@@ -0,0 +1,150 @@
+package com.enterprise.inventorymanagement;
+
+import com.enterprise.inventorymanagement.config.SecondLevelCacheConfig;
+import com.enterprise.inventorymanagement.model.*;
+import com.enterprise.inventorymanagement.repository.DepartmentRepository;
+import com.enterprise.inventorymanagement.repository.EnterpriseRepository;
+import com.enterprise.inventorymanagement.repository.RoleRepository;
+import com.enterprise.inventorymanagement.repository.WarehouseRepository;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Cached entries are only readable by transactions that start after the put, so every step commits
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({SecondLevelCacheConfig.class, TestData.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class SecondLevelCacheTest {
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private EnterpriseRepository enterpriseRepository;
+
+    @Autowired
+    private WarehouseRepository warehouseRepository;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private MeterBinder secondLevelCacheMetrics;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Enterprise enterprise;
+
+    @BeforeEach
+    void setUp() {
+        testData.role(RoleName.ROLE_MANAGER, "MANAGE_DEPARTMENT", "APPROVE_REQUEST");
+        enterprise = testData.enterprise("TechCorp");
+
+        entityManagerFactory.getCache().evictAll();
+        statistics().clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        testData.deleteAll();
+    }
+
+    @Test
+    void testFindRoleByName_ServedFromCacheAfterFirstLoad() {
+        assertEquals(2, permissionCount(RoleName.ROLE_MANAGER));
+        long statementsAfterFirstLoad = statistics().getPrepareStatementCount();
+
+        assertEquals(2, permissionCount(RoleName.ROLE_MANAGER));
+
+        assertEquals(statementsAfterFirstLoad, statistics().getPrepareStatementCount());
+        assertTrue(statistics().getCacheRegionStatistics("roles-by-name").getHitCount() > 0);
+        assertTrue(statistics().getCacheRegionStatistics("roles").getHitCount() > 0);
+        assertTrue(statistics().getCacheRegionStatistics("role-permissions").getHitCount() > 0);
+        assertTrue(roleRepository.findByName(RoleName.ROLE_ADMIN).isEmpty());
+    }
+
+    @Test
+    void testFindById_ServedFromCacheAndRefreshedOnWrite() {
+        enterpriseRepository.findById(enterprise.getId()).orElseThrow();
+        long statements = statistics().getPrepareStatementCount();
+
+        Enterprise cached = enterpriseRepository.findById(enterprise.getId()).orElseThrow();
+        assertEquals(statements, statistics().getPrepareStatementCount());
+        assertEquals(1, statistics().getCacheRegionStatistics("enterprises").getHitCount());
+
+        cached.setName("TechCorp International");
+        enterpriseRepository.save(cached);
+
+        assertEquals("TechCorp International",
+                enterpriseRepository.findById(enterprise.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    void testManagerAndOperatorAssignments_AreNotCached() {
+        Warehouse warehouse = testData.warehouse(enterprise, "Main");
+        Department department = testData.department(enterprise, "Engineering");
+
+        warehouseRepository.findById(warehouse.getId()).orElseThrow();
+        departmentRepository.findById(department.getId()).orElseThrow();
+
+        // Who manages or operates a location drives authorization, so every instance reads it from the database
+        assertFalse(entityManagerFactory.getCache().contains(Warehouse.class, warehouse.getId()));
+        assertFalse(entityManagerFactory.getCache().contains(Department.class, department.getId()));
+    }
+
+    @Test
+    void testBulkDelete_EvictsRegion() {
+        enterpriseRepository.findById(enterprise.getId()).orElseThrow();
+
+        enterpriseRepository.deleteAllInBatch();
+
+        assertTrue(enterpriseRepository.findById(enterprise.getId()).isEmpty());
+    }
+
+    @Test
+    void testHitRatioIsExported() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        secondLevelCacheMetrics.bindTo(registry);
+
+        enterpriseRepository.findById(enterprise.getId()).orElseThrow();
+        enterpriseRepository.findById(enterprise.getId()).orElseThrow();
+
+        assertEquals(0.5, registry.get("hibernate.second_level_cache.hit.ratio")
+                .tag("region", "enterprises").gauge().value());
+        assertEquals(1, registry.get("hibernate.second_level_cache.requests")
+                .tags("region", "enterprises", "result", "miss").functionCounter().count());
+    }
+
+    private int permissionCount(RoleName name) {
+        return new TransactionTemplate(transactionManager).execute(status ->
+                roleRepository.findByName(name).orElseThrow().getPermissions().size());
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
@@ -0,0 +1,164 @@
+package com.enterprise.inventorymanagement;
+
+import com.enterprise.inventorymanagement.config.SqlStatementCounter;
+import com.enterprise.inventorymanagement.config.StatementBudget;
+import com.enterprise.inventorymanagement.config.StatementBudgetConfig;
+import com.enterprise.inventorymanagement.controller.DepartmentController;
+import com.enterprise.inventorymanagement.controller.EnterpriseController;
+import com.enterprise.inventorymanagement.controller.InventoryController;
+import com.enterprise.inventorymanagement.controller.WarehouseController;
+import com.enterprise.inventorymanagement.exceptions.StatementBudgetExceededException;
+import com.enterprise.inventorymanagement.model.*;
+import com.enterprise.inventorymanagement.service.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "app.sql.statement-budget.mode=fail"
+})
+@Import({InventoryManagementServiceImpl.class, WarehouseServiceImpl.class, DepartmentServiceImpl.class,
+        EnterpriseServiceImpl.class, SqlStatementCounter.class, StatementBudgetConfig.class,
+        StatementBudgetTest.Config.class, StockLedger.class, AuthenticationFacade.class, TestData.class})
+public class StatementBudgetTest {
+
+    @TestConfiguration
+    @EnableAspectJAutoProxy
+    static class Config {
+        @Bean
+        PasswordEncoder passwordEncoder() {
+            return new BCryptPasswordEncoder(4);
+        }
+    }
+
+    @Autowired
+    private InventoryManagementService inventoryService;
+
+    @Autowired
+    private WarehouseService warehouseService;
+
+    @Autowired
+    private DepartmentService departmentService;
+
+    @Autowired
+    private EnterpriseService enterpriseService;
+
+    @Autowired
+    private SqlStatementCounter counter;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private final List<Long> itemIds = new ArrayList<>();
+    private Enterprise enterprise;
+    private Warehouse warehouse;
+    private Department department;
+
+    @BeforeEach
+    void setUp() {
+        enterprise = testData.enterprise("TechCorp");
+        warehouse = testData.warehouse(enterprise, "Main");
+        department = testData.department(enterprise, "Engineering");
+        testData.user("employee", testData.role(RoleName.ROLE_EMPLOYEE), enterprise, department);
+        for (int i = 0; i < 3; i++) {
+            itemIds.add(testData.warehouseItem(warehouse, "Item " + i, 5).getId());
+            testData.departmentItem(department, "Item " + i, 1);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        counter.detach();
+    }
+
+    @Test
+    void testScope_CountsStatementsPerServiceCallAndShape() {
+        SqlStatementCounter.Scope scope = counter.open("GET /api/items/{id}", 10);
+        for (Long itemId : itemIds) {
+            inventoryService.getItemById(itemId);
+        }
+
+        assertEquals(3, scope.getCount());
+        assertFalse(scope.isOverBudget());
+        assertEquals(Map.of("InventoryManagementServiceImpl.getItemById(..)", 3), scope.getServiceCalls());
+        assertEquals(3, scope.getRepeatedShapes().values().iterator().next());
+    }
+
+    @Test
+    void testFailMode_RejectsStatementOverBudget() {
+        counter.open("GET /api/items/{id}", 2);
+        inventoryService.getItemById(itemIds.get(0));
+        inventoryService.getItemById(itemIds.get(1));
+
+        StatementBudgetExceededException e = assertThrows(StatementBudgetExceededException.class,
+                () -> inventoryService.getItemById(itemIds.get(2)));
+        assertTrue(e.getMessage().startsWith("GET /api/items/{id} issued 3 SQL statements, budget is 2"));
+        assertTrue(e.getMessage().contains("3x select"));
+    }
+
+    @Test
+    void testListings_StayWithinTheirBudgets() {
+        Long enterpriseId = enterprise.getId();
+        assertWithinBudget(InventoryController.class, "getAllItems",
+                () -> inventoryService.getItemsPageByEnterpriseId(enterpriseId, ItemSort.NAME, null, null));
+        assertWithinBudget(InventoryController.class, "getWarehouseItems",
+                () -> inventoryService.getItemsPageByWarehouseId(warehouse.getId(), ItemSort.NAME, null, null));
+        assertWithinBudget(InventoryController.class, "getDepartmentItems",
+                () -> inventoryService.getItemsPageByDepartmentId(department.getId(), ItemSort.NAME, null, null));
+        assertWithinBudget(WarehouseController.class, "getEnterpriseWarehouses",
+                () -> warehouseService.getWarehousesByEnterpriseId(enterpriseId));
+        assertWithinBudget(WarehouseController.class, "getEnterpriseStockSummary",
+                () -> warehouseService.getStockSummariesByEnterpriseId(enterpriseId));
+        assertWithinBudget(WarehouseController.class, "getWarehouseItems",
+                () -> warehouseService.getWarehouseItems(warehouse.getId()));
+        assertWithinBudget(EnterpriseController.class, "getEnterpriseDepartments",
+                () -> enterpriseService.getEnterpriseDepartments(enterpriseId));
+        assertWithinBudget(DepartmentController.class, "getDepartmentEmployees",
+                () -> departmentService.getDepartmentEmployeesPage(department.getId(), null, null, null, null));
+        // An empty page adds the existence check
+        Long emptyDepartmentId = testData.department(enterprise, "Empty").getId();
+        assertWithinBudget(DepartmentController.class, "getDepartmentEmployees",
+                () -> departmentService.getDepartmentEmployeesPage(emptyDepartmentId, null, null, null, null));
+    }
+
+    // Runs what the handler runs in a scope with the handler's budget, which throws in fail mode once it is exceeded
+    private void assertWithinBudget(Class<?> controller, String handler, Runnable serviceCall) {
+        Method method = Arrays.stream(controller.getDeclaredMethods())
+                .filter(candidate -> candidate.getName().equals(handler))
+                .findFirst()
+                .orElseThrow();
+        StatementBudget budget = method.getAnnotation(StatementBudget.class);
+        assertNotNull(budget, controller.getSimpleName() + "." + handler + " has no statement budget");
+
+        entityManager.flush();
+        entityManager.clear();
+        SqlStatementCounter.Scope scope = counter.open(controller.getSimpleName() + "." + handler, budget.value());
+        serviceCall.run();
+        counter.detach();
+        assertTrue(scope.getCount() > 0);
+        assertFalse(scope.isOverBudget());
+    }
+}
@@ -0,0 +1,119 @@
+package com.enterprise.inventorymanagement;
+
+import com.enterprise.inventorymanagement.model.*;
+import com.enterprise.inventorymanagement.model.dto.ItemDTO;
+import com.enterprise.inventorymanagement.model.dto.ReturnItemDTO;
+import com.enterprise.inventorymanagement.repository.StockMovementRepository;
+import com.enterprise.inventorymanagement.service.AuthenticationFacade;
+import com.enterprise.inventorymanagement.service.InventoryManagementService;
+import com.enterprise.inventorymanagement.service.InventoryManagementServiceImpl;
+import com.enterprise.inventorymanagement.service.StockLedger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.flyway.enabled=false")
+@Import({InventoryManagementServiceImpl.class, StockLedger.class, AuthenticationFacade.class, TestData.class})
+public class StockLedgerTest {
+
+    @Autowired
+    private InventoryManagementService inventoryService;
+
+    @Autowired
+    private StockMovementRepository movementRepository;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Enterprise enterprise;
+    private Warehouse warehouse;
+    private Department department;
+
+    @BeforeEach
+    void setUp() {
+        enterprise = testData.enterprise("TechCorp");
+        warehouse = testData.warehouse(enterprise, "Main");
+        department = testData.department(enterprise, "Engineering");
+    }
+
+    @Test
+    void testEveryMutation_RecordsAMovement() {
+        ItemDTO laptop = createItem("Laptop", 10);
+        inventoryService.updateItem(laptop.getId(), ItemDTO.builder()
+                .name("Laptop")
+                .quantity(25)
+                .warehouseId(warehouse.getId())
+                .build());
+        ItemDTO monitor = createItem("Monitor", 3);
+        inventoryService.deleteItem(monitor.getId());
+        entityManager.flush();
+
+        List<StockMovement> movements = movements();
+        assertEquals(List.of(MovementType.CREATED, MovementType.ADJUSTED, MovementType.CREATED, MovementType.DELETED),
+                movements.stream().map(StockMovement::getMovementType).toList());
+        assertEquals(List.of(10, 15, 3, -3), movements.stream().map(StockMovement::getDelta).toList());
+
+        StockMovement created = movements.get(0);
+        assertEquals(laptop.getId(), created.getItemId());
+        assertEquals(enterprise.getId(), created.getEnterpriseId());
+        assertNull(created.getFrom());
+        assertEquals(StockLocation.Type.WAREHOUSE, created.getTo().getType());
+        assertEquals(warehouse.getId(), created.getTo().getLocationId());
+
+        StockMovement deleted = movements.get(3);
+        assertEquals(StockLocation.Type.WAREHOUSE, deleted.getFrom().getType());
+        assertNull(deleted.getTo());
+    }
+
+    @Test
+    void testReturn_RecordsBothSidesOfTheTransfer() {
+        InventoryItem departmentItem = testData.departmentItem(department, "Laptop", 10);
+        InventoryItem warehouseItem = testData.warehouseItem(warehouse, "Laptop", 100);
+        entityManager.flush();
+        entityManager.clear();
+
+        inventoryService.returnItemsToWarehouse(department.getId(), List.of(ReturnItemDTO.builder()
+                .itemId(departmentItem.getId())
+                .quantity(4)
+                .warehouseId(warehouse.getId())
+                .build()));
+        entityManager.flush();
+
+        List<StockMovement> movements = movements();
+        assertEquals(2, movements.size());
+        assertTrue(movements.stream().allMatch(m -> m.getMovementType() == MovementType.TRANSFERRED
+                && m.getFrom().getType() == StockLocation.Type.DEPARTMENT
+                && m.getTo().getType() == StockLocation.Type.WAREHOUSE));
+        Map<Long, Integer> deltas = Map.of(
+                movements.get(0).getItemId(), movements.get(0).getDelta(),
+                movements.get(1).getItemId(), movements.get(1).getDelta());
+        assertEquals(-4, deltas.get(departmentItem.getId()));
+        assertEquals(4, deltas.get(warehouseItem.getId()));
+    }
+
+    private ItemDTO createItem(String name, int quantity) {
+        return inventoryService.createItem(enterprise.getId(), ItemDTO.builder()
+                .name(name)
+                .quantity(quantity)
+                .warehouseId(warehouse.getId())
+                .build());
+    }
+
+    private List<StockMovement> movements() {
+        return movementRepository.findAll().stream()
+                .sorted(Comparator.comparing(StockMovement::getId))
+                .toList();
+    }
+}
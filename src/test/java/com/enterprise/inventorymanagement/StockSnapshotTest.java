@@ -0,0 +1,170 @@
+package com.enterprise.inventorymanagement;
+
+import com.enterprise.inventorymanagement.config.SecondLevelCacheConfig;
+import com.enterprise.inventorymanagement.model.*;
+import com.enterprise.inventorymanagement.model.dto.ItemDTO;
+import com.enterprise.inventorymanagement.repository.EnterpriseRepository;
+import com.enterprise.inventorymanagement.repository.StockSnapshotRepository;
+import com.enterprise.inventorymanagement.service.AuthenticationFacade;
+import com.enterprise.inventorymanagement.service.InventoryManagementService;
+import com.enterprise.inventorymanagement.service.InventoryManagementServiceImpl;
+import com.enterprise.inventorymanagement.service.StockLedger;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Snapshots track the transactions they folded in with PostgreSQL's snapshot functions, so this runs the
+// migrations on PostgreSQL instead of H2. Snapshots only see committed movements, so every step commits.
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest(properties = {
+        "spring.datasource.driver-class-name=org.postgresql.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.flyway.enabled=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({InventoryManagementServiceImpl.class, StockLedger.class, AuthenticationFacade.class,
+        SecondLevelCacheConfig.class, TestData.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class StockSnapshotTest {
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @Autowired
+    private InventoryManagementService inventoryService;
+
+    @Autowired
+    private StockLedger stockLedger;
+
+    @Autowired
+    private StockSnapshotRepository snapshotRepository;
+
+    @Autowired
+    private EnterpriseRepository enterpriseRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private TestData testData;
+
+    private Enterprise enterprise;
+    private Warehouse warehouse;
+
+    @BeforeEach
+    void setUp() {
+        enterprise = testData.enterprise("TechCorp");
+        warehouse = testData.warehouse(enterprise, "Main");
+    }
+
+    @AfterEach
+    void tearDown() {
+        testData.deleteAll();
+    }
+
+    @Test
+    void testRebuild_MatchesStockAcrossSnapshots() {
+        ItemDTO laptop = createItem("Laptop", 10);
+        ItemDTO monitor = createItem("Monitor", 5);
+
+        StockSnapshot first = stockLedger.takeSnapshot();
+        assertEquals(2, first.getItemCount());
+
+        inventoryService.updateItem(laptop.getId(), ItemDTO.builder()
+                .name("Laptop")
+                .quantity(7)
+                .warehouseId(warehouse.getId())
+                .build());
+        inventoryService.deleteItem(monitor.getId());
+
+        assertEquals(Map.of(laptop.getId(), 7L), stockLedger.rebuildBalances());
+        assertEquals(7L, stockLedger.rebuildBalance(laptop.getId()));
+        assertEquals(0L, stockLedger.rebuildBalance(monitor.getId()));
+
+        StockSnapshot second = stockLedger.takeSnapshot();
+        StockSnapshot third = stockLedger.takeSnapshot();
+
+        assertEquals(1, second.getItemCount());
+        assertEquals(Map.of(laptop.getId(), 7L), stockLedger.rebuildBalances());
+        // Only the two newest snapshots are kept
+        assertEquals(List.of(third.getId(), second.getId()),
+                snapshotRepository.findAllByOrderByCutoffDescIdDesc().stream().map(StockSnapshot::getId).toList());
+    }
+
+    @Test
+    void testRebuild_CountsMovementsCommittedAfterTheSnapshot() throws Exception {
+        ItemDTO laptop = createItem("Laptop", 10);
+
+        // A transaction whose movement was stamped long before it commits
+        try (Connection late = dataSource.getConnection()) {
+            late.setAutoCommit(false);
+            try (PreparedStatement insert = late.prepareStatement(
+                    "INSERT INTO stock_movements (occurred_at, enterprise_id, item_id, item_name, movement_type, " +
+                    "to_location_type, to_location_id, delta) " +
+                    "VALUES (now() - INTERVAL '1 hour', ?, ?, 'Laptop', 'ADJUSTED', 'WAREHOUSE', ?, 5)")) {
+                insert.setLong(1, enterprise.getId());
+                insert.setLong(2, laptop.getId());
+                insert.setLong(3, warehouse.getId());
+                insert.executeUpdate();
+            }
+
+            stockLedger.takeSnapshot();
+            assertEquals(10L, stockLedger.rebuildBalance(laptop.getId()));
+
+            late.commit();
+        }
+        assertEquals(15L, stockLedger.rebuildBalance(laptop.getId()));
+
+        // The next snapshot folds it in, once
+        StockSnapshot next = stockLedger.takeSnapshot();
+        assertEquals(1, next.getItemCount());
+        assertEquals(Map.of(laptop.getId(), 15L), stockLedger.rebuildBalances());
+    }
+
+    @Test
+    void testSnapshot_DoesNotEvictEntityRegions() {
+        entityManagerFactory.getCache().evictAll();
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getStatistics().clear();
+        enterpriseRepository.findById(enterprise.getId()).orElseThrow();
+
+        stockLedger.takeSnapshot();
+        enterpriseRepository.findById(enterprise.getId()).orElseThrow();
+
+        assertEquals(1, sessionFactory.getStatistics().getCacheRegionStatistics("enterprises").getHitCount());
+    }
+
+    private ItemDTO createItem(String name, int quantity) {
+        return inventoryService.createItem(enterprise.getId(), ItemDTO.builder()
+                .name(name)
+                .quantity(quantity)
+                .warehouseId(warehouse.getId())
+                .build());
+    }
+}
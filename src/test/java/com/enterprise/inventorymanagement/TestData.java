@@ -0,0 +1,138 @@
+package com.enterprise.inventorymanagement;
+
+import com.enterprise.inventorymanagement.model.*;
+import com.enterprise.inventorymanagement.model.request.ItemRequest;
+import com.enterprise.inventorymanagement.model.request.RequestItem;
+import com.enterprise.inventorymanagement.model.request.RequestStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.boot.test.context.TestComponent;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Creates the entities the tests share. Works inside a test transaction as well as in tests that
+ * commit, which remove what they created with {@link #deleteAll()}.
+ */
+@TestComponent
+public class TestData {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Transactional
+    public Role role(RoleName name, String... permissions) {
+        Role role = new Role(name);
+        for (String permission : permissions) {
+            role.getPermissions().add(persist(new Permission(permission)));
+        }
+        return persist(role);
+    }
+
+    @Transactional
+    public Enterprise enterprise(String name) {
+        Enterprise enterprise = new Enterprise();
+        enterprise.setName(name);
+        enterprise.setAddress("1 Main Street");
+        enterprise.setContactEmail("contact@" + name.toLowerCase().replace(' ', '-') + ".com");
+        return persist(enterprise);
+    }
+
+    @Transactional
+    public Warehouse warehouse(Enterprise enterprise, String name) {
+        Warehouse warehouse = new Warehouse();
+        warehouse.setName(name);
+        warehouse.setLocation(name + " dock");
+        warehouse.setEnterprise(enterprise);
+        return persist(warehouse);
+    }
+
+    @Transactional
+    public Department department(Enterprise enterprise, String name) {
+        Department department = new Department();
+        department.setName(name);
+        department.setEnterprise(enterprise);
+        return persist(department);
+    }
+
+    /**
+     * An active user named after its username, in the given enterprise and, when not null, department
+     */
+    @Transactional
+    public User user(String username, Role role, Enterprise enterprise, Department department) {
+        User user = new User();
+        user.setFullName("User " + username);
+        user.setUsername(username);
+        user.setPassword("password");
+        user.setEmail(username + "@example.com");
+        user.setActive(true);
+        user.setRole(role);
+        user.setEnterprise(enterprise);
+        user.setDepartment(department);
+        return persist(user);
+    }
+
+    @Transactional
+    public InventoryItem warehouseItem(Warehouse warehouse, String name, int quantity) {
+        InventoryItem item = item(warehouse.getEnterprise(), name, quantity);
+        item.setWarehouse(warehouse);
+        return persist(item);
+    }
+
+    @Transactional
+    public InventoryItem departmentItem(Department department, String name, int quantity) {
+        InventoryItem item = item(department.getEnterprise(), name, quantity);
+        item.setDepartment(department);
+        return persist(item);
+    }
+
+    /**
+     * A pending request from the requester's department for the given quantity of a warehouse item
+     */
+    @Transactional
+    public ItemRequest request(User requester, InventoryItem item, int quantity) {
+        ItemRequest request = new ItemRequest();
+        request.setRequester(requester);
+        request.setSourceWarehouse(item.getWarehouse());
+        request.setTargetDepartment(requester.getDepartment());
+        request.setStatus(RequestStatus.PENDING);
+        request.setRequestDate(LocalDateTime.now());
+
+        RequestItem requestItem = new RequestItem();
+        requestItem.setInventoryItem(item);
+        requestItem.setQuantity(quantity);
+        request.addRequestItem(requestItem);
+        return persist(request);
+    }
+
+    /**
+     * Remove everything the tests may have committed, children first
+     */
+    @Transactional
+    public void deleteAll() {
+        entityManager.createQuery("update Department d set d.manager = null").executeUpdate();
+        entityManager.createQuery("update Warehouse w set w.manager = null, w.operator = null").executeUpdate();
+        entityManager.createNativeQuery("delete from department_employees").executeUpdate();
+        entityManager.createNativeQuery("delete from role_permissions").executeUpdate();
+        for (String entity : new String[] {"StockSnapshotBalance", "StockSnapshot", "StockMovement", "RequestItem",
+                "ItemRequest", "InventoryItem", "DepartmentStats", "User", "Department", "Warehouse", "Enterprise",
+                "Role", "Permission"}) {
+            entityManager.createQuery("delete from " + entity).executeUpdate();
+        }
+        entityManager.getEntityManagerFactory().getCache().evictAll();
+    }
+
+    private static InventoryItem item(Enterprise enterprise, String name, int quantity) {
+        InventoryItem item = new InventoryItem();
+        item.setName(name);
+        item.setQuantity(quantity);
+        item.setEnterprise(enterprise);
+        return item;
+    }
+
+    private <T> T persist(T entity) {
+        entityManager.persist(entity);
+        return entity;
+    }
+}
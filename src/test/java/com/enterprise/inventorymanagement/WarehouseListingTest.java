@@ -0,0 +1,97 @@
+package com.enterprise.inventorymanagement;
+
+import com.enterprise.inventorymanagement.model.*;
+import com.enterprise.inventorymanagement.model.dto.WarehouseDTO;
+import com.enterprise.inventorymanagement.model.dto.WarehouseStockSummaryDTO;
+import com.enterprise.inventorymanagement.service.AuthenticationFacade;
+import com.enterprise.inventorymanagement.service.StockLedger;
+import com.enterprise.inventorymanagement.service.WarehouseService;
+import com.enterprise.inventorymanagement.service.WarehouseServiceImpl;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({WarehouseServiceImpl.class, StockLedger.class, AuthenticationFacade.class, TestData.class})
+public class WarehouseListingTest {
+
+    private static final int WAREHOUSE_COUNT = 10;
+
+    @Autowired
+    private WarehouseService warehouseService;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Enterprise enterprise;
+
+    @BeforeEach
+    void setUp() {
+        Role role = testData.role(RoleName.ROLE_MANAGER);
+        enterprise = testData.enterprise("TechCorp");
+        for (int i = 0; i < WAREHOUSE_COUNT; i++) {
+            Warehouse warehouse = testData.warehouse(enterprise, "Warehouse " + i);
+            warehouse.setManager(testData.user("manager" + i, role, enterprise, null));
+            // Warehouse i holds i items of 3 units each
+            for (int j = 0; j < i; j++) {
+                testData.warehouseItem(warehouse, "Item " + j, 3);
+            }
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        statistics().clear();
+    }
+
+    @Test
+    void testWarehouseListing_SingleGroupedStatement() {
+        List<WarehouseDTO> warehouses = warehouseService.getWarehousesByEnterpriseId(enterprise.getId());
+
+        assertEquals(WAREHOUSE_COUNT, warehouses.size());
+        for (int i = 0; i < WAREHOUSE_COUNT; i++) {
+            WarehouseDTO warehouse = warehouses.get(i);
+            assertEquals("Warehouse " + i, warehouse.getName());
+            assertEquals("User manager" + i, warehouse.getManagerName());
+            assertEquals("TechCorp", warehouse.getEnterpriseName());
+            assertNull(warehouse.getOperatorName());
+            assertEquals(3 * i, warehouse.getItemCount());
+        }
+        assertEquals(1, statistics().getPrepareStatementCount());
+        assertEquals(0, statistics().getEntityLoadCount());
+    }
+
+    @Test
+    void testStockSummary_ListsEveryWarehouseInOneStatement() {
+        // Summary rows are written by a database trigger (V61), which the schema here does not have;
+        // WarehouseStockSummaryTest covers the totals on PostgreSQL
+        List<WarehouseStockSummaryDTO> summaries = warehouseService.getStockSummariesByEnterpriseId(enterprise.getId());
+
+        assertEquals(WAREHOUSE_COUNT, summaries.size());
+        assertEquals(0L, summaries.get(0).getTotalUnits());
+        assertEquals(0, summaries.get(0).getDistinctSkus());
+        assertEquals(1, statistics().getPrepareStatementCount());
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
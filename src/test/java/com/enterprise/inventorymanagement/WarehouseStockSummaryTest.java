@@ -0,0 +1,140 @@
+package com.enterprise.inventorymanagement;
+
+import com.enterprise.inventorymanagement.model.*;
+import com.enterprise.inventorymanagement.model.dto.ReturnItemDTO;
+import com.enterprise.inventorymanagement.model.dto.WarehouseStockSummaryDTO;
+import com.enterprise.inventorymanagement.repository.InventoryItemRepository;
+import com.enterprise.inventorymanagement.repository.RoleRepository;
+import com.enterprise.inventorymanagement.service.AuthenticationFacade;
+import com.enterprise.inventorymanagement.service.InventoryManagementService;
+import com.enterprise.inventorymanagement.service.InventoryManagementServiceImpl;
+import com.enterprise.inventorymanagement.service.ItemRequestService;
+import com.enterprise.inventorymanagement.service.ItemRequestServiceImpl;
+import com.enterprise.inventorymanagement.service.StockLedger;
+import com.enterprise.inventorymanagement.service.WarehouseService;
+import com.enterprise.inventorymanagement.service.WarehouseServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The summary is maintained by the V61 trigger, so this runs the migrations on PostgreSQL instead of H2
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest(properties = {
+        "spring.datasource.driver-class-name=org.postgresql.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.flyway.enabled=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({WarehouseServiceImpl.class, ItemRequestServiceImpl.class, InventoryManagementServiceImpl.class,
+        StockLedger.class, AuthenticationFacade.class, TestData.class})
+public class WarehouseStockSummaryTest {
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @Autowired
+    private WarehouseService warehouseService;
+
+    @Autowired
+    private ItemRequestService itemRequestService;
+
+    @Autowired
+    private InventoryManagementService inventoryService;
+
+    @Autowired
+    private InventoryItemRepository inventoryItemRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Enterprise enterprise;
+    private Warehouse warehouse;
+    private Department department;
+    private User requester;
+
+    @BeforeEach
+    void setUp() {
+        enterprise = testData.enterprise("TechCorp");
+        warehouse = testData.warehouse(enterprise, "Main");
+        department = testData.department(enterprise, "Engineering");
+        // The migrations seed the roles
+        Role manager = roleRepository.findByName(RoleName.ROLE_MANAGER).orElseThrow();
+        requester = testData.user("manager", manager, enterprise, department);
+    }
+
+    @Test
+    void testSummary_FollowsTheStockTheWarehouseHolds() {
+        InventoryItem cables = item("Cable", 10, "2.00");
+        // A second row of the same name is the same SKU
+        InventoryItem moreCables = item("Cable", 5, "2.00");
+        InventoryItem monitors = item("Monitor", 3, "100.00");
+        item("Adapter", 0, "1.00");
+        assertSummary(18, 2, 330);
+
+        // Approved stock goes to a department row that keeps the warehouse as its source
+        itemRequestService.handleItemRequest(testData.request(requester, cables, 4).getId(), true, null);
+        assertSummary(14, 2, 322);
+
+        itemRequestService.handleItemRequest(testData.request(requester, monitors, 3).getId(), true, null);
+        assertSummary(11, 1, 22);
+
+        InventoryItem departmentCables = inventoryItemRepository.findAll().stream()
+                .filter(item -> item.getDepartment() != null && item.getName().equals("Cable"))
+                .findFirst().orElseThrow();
+        inventoryService.returnItemsToWarehouse(department.getId(), List.of(ReturnItemDTO.builder()
+                .itemId(departmentCables.getId())
+                .quantity(2)
+                .warehouseId(warehouse.getId())
+                .build()));
+        assertSummary(13, 1, 26);
+
+        // A department row handed back to the warehouse joins its stock
+        departmentCables = inventoryItemRepository.findById(departmentCables.getId()).orElseThrow();
+        departmentCables.setDepartment(null);
+        entityManager.flush();
+        assertSummary(15, 1, 30);
+
+        InventoryItem deleted = inventoryItemRepository.findById(moreCables.getId()).orElseThrow();
+        int deletedUnits = deleted.getQuantity();
+        inventoryItemRepository.delete(deleted);
+        entityManager.flush();
+        assertSummary(15 - deletedUnits, 1, 30 - 2L * deletedUnits);
+    }
+
+    private InventoryItem item(String name, int quantity, String price) {
+        InventoryItem item = testData.warehouseItem(warehouse, name, quantity);
+        item.setPrice(new BigDecimal(price));
+        entityManager.flush();
+        return item;
+    }
+
+    private void assertSummary(long units, int skus, long value) {
+        entityManager.flush();
+        entityManager.clear();
+        WarehouseStockSummaryDTO summary = warehouseService.getStockSummariesByEnterpriseId(enterprise.getId()).get(0);
+        assertEquals(units, summary.getTotalUnits());
+        assertEquals(skus, summary.getDistinctSkus());
+        assertEquals(0, BigDecimal.valueOf(value).compareTo(summary.getTotalValue()));
+    }
+}